@@ -21,9 +21,12 @@ import snw.jkook.command.CommandManager;
 import snw.jkook.command.ConsoleCommandSender;
 import snw.jkook.entity.User;
 import snw.jkook.event.EventManager;
+import snw.jkook.message.component.ComponentEncoder;
+import snw.jkook.message.component.JsonComponentEncoder;
 import snw.jkook.plugin.Plugin;
 import snw.jkook.plugin.PluginManager;
 import snw.jkook.scheduler.Scheduler;
+import snw.jkook.util.BulkExecutor;
 
 /**
  * Represents the JKook core implementation.
@@ -59,6 +62,29 @@ public interface Core {
      */
     Scheduler getScheduler();
 
+    /**
+     * Get the executor used by the bulk operations (e.g. {@link snw.jkook.entity.Guild#banAll}). <p>
+     * Its parallelism and rate limit are decided by the implementation.
+     * The default is {@link BulkExecutor#getDefault()}.
+     *
+     * @see BulkExecutor
+     */
+    default BulkExecutor getBulkExecutor() {
+        return BulkExecutor.getDefault();
+    }
+
+    /**
+     * Get the encoder that serializes the components into the payloads sent to Kook. <p>
+     * It is used by {@link snw.jkook.message.component.card.FrozenCardComponent}
+     *  and {@link snw.jkook.message.component.card.CardPayloadTemplate}.
+     * The default is {@link JsonComponentEncoder#INSTANCE}.
+     *
+     * @see ComponentEncoder
+     */
+    default ComponentEncoder getComponentEncoder() {
+        return JsonComponentEncoder.INSTANCE;
+    }
+
     /**
      * Get the event manager.
      *
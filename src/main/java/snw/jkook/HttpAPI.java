@@ -23,10 +23,16 @@ import snw.jkook.entity.Guild;
 import snw.jkook.entity.User;
 import snw.jkook.entity.channel.Category;
 import snw.jkook.entity.channel.Channel;
+import snw.jkook.entity.channel.TextChannel;
+import snw.jkook.message.component.BaseComponent;
+import snw.jkook.util.BulkProgressListener;
 import snw.jkook.util.PageIterator;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents the entry of Kook HTTP API.
@@ -45,6 +51,26 @@ public interface HttpAPI {
      */
     User getUser(String id);
 
+    /**
+     * Get the users represented by the provided IDs in one call. <p>
+     * Implementations should serve this from their entity cache and fetch the missing users in bulk,
+     *  the default implementation just calls {@link #getUser(String)} for each ID. <p>
+     * The IDs of unknown users are not included in the result.
+     *
+     * @param ids The IDs of the users
+     * @return The map from user ID to user
+     */
+    default Map<String, User> getUsers(Collection<String> ids) {
+        final Map<String, User> result = new HashMap<>(ids.size() * 2);
+        for (String id : ids) {
+            final User user = getUser(id);
+            if (user != null) {
+                result.put(id, user);
+            }
+        }
+        return result;
+    }
+
     /**
      * Get a guild by guild ID. <p>
      * <b>Null is returned if you don't have permission to access it.</b>
@@ -60,6 +86,53 @@ public interface HttpAPI {
      */
     Channel getChannel(String id);
 
+    /**
+     * Get the channels represented by the provided IDs in one call. <p>
+     * Implementations should serve this from their entity cache and fetch the missing channels in bulk,
+     *  the default implementation just calls {@link #getChannel(String)} for each ID. <p>
+     * The IDs of unknown channels are not included in the result.
+     *
+     * @param ids The IDs of the channels
+     * @return The map from channel ID to channel
+     */
+    default Map<String, Channel> getChannels(Collection<String> ids) {
+        final Map<String, Channel> result = new HashMap<>(ids.size() * 2);
+        for (String id : ids) {
+            final Channel channel = getChannel(id);
+            if (channel != null) {
+                result.put(id, channel);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Send the component to every provided channel, using {@link JKook#getBulkExecutor()}. <p>
+     * The channels are processed concurrently with the parallelism and rate limit of the bulk executor,
+     *  and the failure on a channel does not stop the others.
+     *
+     * @param channels  The channels
+     * @param component The component to send
+     * @param listener  The progress listener, it also receives the exceptions of the failed channels
+     * @return The future of the Message IDs of the succeeded channels
+     */
+    default CompletableFuture<Map<TextChannel, String>> broadcast(Collection<? extends TextChannel> channels, BaseComponent component,
+                                                                   @Nullable BulkProgressListener<? super TextChannel> listener) {
+        return JKook.getBulkExecutor().map(channels, channel -> channel.sendComponent(component, null, null), listener);
+    }
+
+    /**
+     * Send the component to every provided channel, using {@link JKook#getBulkExecutor()}.
+     * (See {@link #broadcast(Collection, BaseComponent, BulkProgressListener)})
+     *
+     * @param channels  The channels
+     * @param component The component to send
+     * @return The future of the Message IDs of the succeeded channels
+     */
+    default CompletableFuture<Map<TextChannel, String>> broadcast(Collection<? extends TextChannel> channels, BaseComponent component) {
+        return broadcast(channels, component, null);
+    }
+
     /**
      * Get a category by ID.
      *
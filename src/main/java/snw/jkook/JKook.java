@@ -20,9 +20,12 @@ import org.slf4j.Logger;
 import snw.jkook.command.CommandManager;
 import snw.jkook.command.ConsoleCommandSender;
 import snw.jkook.event.EventManager;
+import snw.jkook.message.component.ComponentEncoder;
+import snw.jkook.message.component.JsonComponentEncoder;
 import snw.jkook.plugin.Plugin;
 import snw.jkook.plugin.PluginManager;
 import snw.jkook.scheduler.Scheduler;
+import snw.jkook.util.BulkExecutor;
 
 import java.util.Objects;
 
@@ -91,6 +94,28 @@ public final class JKook {
         return getCore().getScheduler();
     }
 
+    /**
+     * Get the executor used by the bulk operations. <p>
+     * If no implementation is loaded, {@link BulkExecutor#getDefault()} is returned.
+     *
+     * @see BulkExecutor
+     */
+    public static BulkExecutor getBulkExecutor() {
+        final Core core = getCore();
+        return core != null ? core.getBulkExecutor() : BulkExecutor.getDefault();
+    }
+
+    /**
+     * Get the encoder that serializes the components into the payloads sent to Kook. <p>
+     * If no implementation is loaded (e.g. the cards are built offline), {@link JsonComponentEncoder#INSTANCE} is returned.
+     *
+     * @see Core#getComponentEncoder()
+     */
+    public static ComponentEncoder getComponentEncoder() {
+        final Core core = getCore();
+        return core != null ? core.getComponentEncoder() : JsonComponentEncoder.INSTANCE;
+    }
+
     /**
      * Get the event manager.
      *
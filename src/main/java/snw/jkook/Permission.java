@@ -18,9 +18,6 @@ package snw.jkook;
 
 import snw.jkook.entity.channel.TextChannel;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Represents the permission in Kook.
  */
@@ -186,11 +183,12 @@ public enum Permission {
      */
     KEY_TALK_ONLY(2097152);
 
-    private static final Map<Integer, Permission> values = new HashMap<>();
+    // index is the bit index of the permission value, so decoding is a single array read
+    private static final Permission[] BY_BIT_INDEX = new Permission[Integer.SIZE];
 
     static {
         for (Permission value : values()) {
-            values.put(value.getValue(), value);
+            BY_BIT_INDEX[Integer.numberOfTrailingZeros(value.getValue())] = value;
         }
     }
 
@@ -220,10 +218,17 @@ public enum Permission {
     /**
      * Return the permission that represented by <code>permVal</code>. <p>
      * If you want to know whether <code>permVal</code> contains a certain permission <b>(not equal to)</b>, use {@link #hasPermission} instead.
+     * Use {@link PermissionSet#of(int)} to decode a sum of permissions.
      *
      * @param permVal The value
+     * @return The permission, or null if the value does not represent exactly one known permission
      */
     public static Permission value(int permVal) {
-        return values.get(permVal);
+        return Integer.bitCount(permVal) == 1 ? BY_BIT_INDEX[Integer.numberOfTrailingZeros(permVal)] : null;
+    }
+
+    // used by PermissionSet
+    static Permission byBitIndex(int index) {
+        return index < BY_BIT_INDEX.length ? BY_BIT_INDEX[index] : null;
     }
 }
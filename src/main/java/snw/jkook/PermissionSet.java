@@ -0,0 +1,298 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook;
+
+import snw.jkook.util.Validate;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Represents an immutable set of {@link Permission}s. <p>
+ * It is backed by a single <code>long</code> that uses the same layout as the raw permission sums of Kook,
+ *  so converting it to or from the raw value costs nothing.
+ * Set operations are plain bitwise operations, they never create a collection or box any value. <p>
+ * Example:
+ * <blockquote><pre>
+ *     PermissionSet moderator = PermissionSet.of(Permission.KICK, Permission.BAN, Permission.MESSAGE_MANAGE);
+ *     role.setPermissions(PermissionSet.of(role.getPermissions()).union(moderator));
+ * </pre></blockquote>
+ */
+public final class PermissionSet implements Iterable<Permission> {
+    /**
+     * The empty set.
+     */
+    public static final PermissionSet EMPTY = new PermissionSet(0L);
+
+    /**
+     * The set that contains all the permissions known by this API.
+     */
+    public static final PermissionSet ALL;
+
+    // single-permission sets, index is the bit index of the permission
+    private static final PermissionSet[] SINGLETONS = new PermissionSet[Long.SIZE];
+
+    static {
+        long all = 0L;
+        for (Permission permission : Permission.values()) {
+            final long bit = permission.getValue() & 0xFFFFFFFFL;
+            all |= bit;
+            SINGLETONS[Long.numberOfTrailingZeros(bit)] = new PermissionSet(bit);
+        }
+        ALL = new PermissionSet(all);
+    }
+
+    private final long bits;
+
+    private PermissionSet(long bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Create a set from a raw permission sum.
+     * The bits that do not represent a known permission are kept, so the value can be sent back unchanged.
+     *
+     * @param raw The sum of the permissions' value (see {@link Permission#getValue()})
+     */
+    public static PermissionSet of(int raw) {
+        return ofRaw(raw & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Create a set that contains the provided permissions.
+     *
+     * @param permissions The permissions
+     */
+    public static PermissionSet of(Permission... permissions) {
+        Validate.notNull(permissions);
+        long bits = 0L;
+        for (Permission permission : permissions) {
+            Validate.notNull(permission);
+            bits |= permission.getValue() & 0xFFFFFFFFL;
+        }
+        return ofRaw(bits);
+    }
+
+    /**
+     * Create a set that contains the provided permissions.
+     *
+     * @param permissions The permissions
+     */
+    public static PermissionSet of(Collection<Permission> permissions) {
+        Validate.notNull(permissions);
+        long bits = 0L;
+        for (Permission permission : permissions) {
+            Validate.notNull(permission);
+            bits |= permission.getValue() & 0xFFFFFFFFL;
+        }
+        return ofRaw(bits);
+    }
+
+    private static PermissionSet ofRaw(long bits) {
+        if (bits == 0L) {
+            return EMPTY;
+        }
+        if (Long.bitCount(bits) == 1) {
+            final PermissionSet singleton = SINGLETONS[Long.numberOfTrailingZeros(bits)];
+            if (singleton != null) {
+                return singleton;
+            }
+        }
+        return bits == ALL.bits ? ALL : new PermissionSet(bits);
+    }
+
+    /**
+     * Get the raw permission sum represented by this set. You can use the result for {@link Permission#hasPermission}.
+     */
+    public int getRawValue() {
+        return (int) bits;
+    }
+
+    /**
+     * Return true if this set contains the provided permission. <p>
+     * Unlike {@link #allows(Permission)}, {@link Permission#ADMIN} is not treated specially.
+     *
+     * @param permission The permission
+     */
+    public boolean contains(Permission permission) {
+        final long bit = permission.getValue() & 0xFFFFFFFFL;
+        return (bits & bit) == bit;
+    }
+
+    /**
+     * Return true if this set contains all the permissions in the provided set.
+     *
+     * @param other The other set
+     */
+    public boolean containsAll(PermissionSet other) {
+        return (bits & other.bits) == other.bits;
+    }
+
+    /**
+     * Return true if this set contains any of the permissions in the provided set.
+     *
+     * @param other The other set
+     */
+    public boolean containsAny(PermissionSet other) {
+        return (bits & other.bits) != 0L;
+    }
+
+    /**
+     * Return true if a member with the permissions in this set is allowed to do the things
+     *  that the provided permission is required. <p>
+     * This is the same as {@link Permission#hasPermission}, so {@link Permission#ADMIN} allows everything.
+     *
+     * @param permission The permission
+     */
+    public boolean allows(Permission permission) {
+        return Permission.hasPermission(permission, (int) bits);
+    }
+
+    /**
+     * Return a set that contains the permissions in this set or the provided set.
+     *
+     * @param other The other set
+     */
+    public PermissionSet union(PermissionSet other) {
+        final long result = bits | other.bits;
+        return result == bits ? this : result == other.bits ? other : ofRaw(result);
+    }
+
+    /**
+     * Return a set that contains the permissions in this set and the provided permissions.
+     *
+     * @param permissions The permissions
+     */
+    public PermissionSet with(Permission... permissions) {
+        return union(of(permissions));
+    }
+
+    /**
+     * Return a set that contains the permissions in both this set and the provided set.
+     *
+     * @param other The other set
+     */
+    public PermissionSet intersect(PermissionSet other) {
+        final long result = bits & other.bits;
+        return result == bits ? this : result == other.bits ? other : ofRaw(result);
+    }
+
+    /**
+     * Return a set that contains the permissions in this set but not in the provided set.
+     *
+     * @param other The other set
+     */
+    public PermissionSet difference(PermissionSet other) {
+        final long result = bits & ~other.bits;
+        return result == bits ? this : ofRaw(result);
+    }
+
+    /**
+     * Return a set that contains the permissions in this set except the provided permissions.
+     *
+     * @param permissions The permissions
+     */
+    public PermissionSet without(Permission... permissions) {
+        return difference(of(permissions));
+    }
+
+    /**
+     * Get the count of the known permissions in this set.
+     */
+    public int size() {
+        return Long.bitCount(bits & ALL.bits);
+    }
+
+    /**
+     * Return true if this set does not contain any permission.
+     */
+    public boolean isEmpty() {
+        return bits == 0L;
+    }
+
+    /**
+     * Call the provided action with every known permission in this set, in the order of their values. <p>
+     * Unlike {@link #iterator()}, this method does not create any object.
+     *
+     * @param action The action
+     */
+    @Override
+    public void forEach(Consumer<? super Permission> action) {
+        Validate.notNull(action);
+        long remaining = bits;
+        while (remaining != 0L) {
+            final Permission permission = Permission.byBitIndex(Long.numberOfTrailingZeros(remaining));
+            if (permission != null) {
+                action.accept(permission);
+            }
+            remaining &= remaining - 1;
+        }
+    }
+
+    /**
+     * Iterate the known permissions in this set, in the order of their values.
+     */
+    @Override
+    public Iterator<Permission> iterator() {
+        return new Iterator<Permission>() {
+            private long remaining = bits & ALL.bits;
+
+            @Override
+            public boolean hasNext() {
+                return remaining != 0L;
+            }
+
+            @Override
+            public Permission next() {
+                if (remaining == 0L) {
+                    throw new NoSuchElementException();
+                }
+                final int index = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                return Permission.byBitIndex(index);
+            }
+        };
+    }
+
+    /**
+     * Copy the known permissions in this set into a new {@link EnumSet}.
+     */
+    public EnumSet<Permission> toEnumSet() {
+        final EnumSet<Permission> result = EnumSet.noneOf(Permission.class);
+        forEach(result::add);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PermissionSet)) return false;
+        return bits == ((PermissionSet) o).bits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bits);
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner joiner = new StringJoiner(", ", "PermissionSet[", "]");
+        forEach(permission -> joiner.add(permission.name()));
+        return joiner.toString();
+    }
+}
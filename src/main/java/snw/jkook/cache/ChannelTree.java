@@ -0,0 +1,401 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.cache;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.JKook;
+import snw.jkook.entity.Guild;
+import snw.jkook.entity.channel.Category;
+import snw.jkook.entity.channel.Channel;
+import snw.jkook.event.EventHandler;
+import snw.jkook.event.Listener;
+import snw.jkook.event.channel.ChannelCreateEvent;
+import snw.jkook.event.channel.ChannelDeleteEvent;
+import snw.jkook.event.channel.ChannelInfoUpdateEvent;
+import snw.jkook.event.guild.GuildDeleteEvent;
+import snw.jkook.plugin.Plugin;
+import snw.jkook.util.BulkResult;
+import snw.jkook.util.PageIterator;
+import snw.jkook.util.Validate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A local tree of the channels of the guilds. <p>
+ * The channels of a guild are loaded by crawling {@link Guild#getChannels()} once, on the first query or {@link #load(Guild)},
+ *  then the tree is kept up to date by {@link ChannelCreateEvent}, {@link ChannelDeleteEvent} and {@link ChannelInfoUpdateEvent}. <p>
+ * Every node holds its children sorted by level, so getting the children of a category is a map lookup. <p>
+ * {@link #reorder} and {@link #move} calculate the new levels of the siblings locally,
+ *  and only update the channels whose parent or level really changes, using {@link JKook#getBulkExecutor()}.
+ */
+public final class ChannelTree implements Listener {
+    private static final Comparator<Node> ORDER = Comparator.<Node>comparingInt(node -> node.level).thenComparing(node -> node.channel.getId());
+
+    private final LoadingMap<String, Tree> guilds = new LoadingMap<>(); // loaded outside the map's lock
+    private final Map<String, Tree> owners = new ConcurrentHashMap<>(); // channel ID -> the tree that holds it
+
+    /**
+     * Register this tree as a listener, so it can be kept up to date by the events.
+     *
+     * @param plugin The plugin as the listener's owner
+     */
+    public void register(Plugin plugin) {
+        JKook.getEventManager().registerHandlers(plugin, this);
+    }
+
+    /**
+     * Load the channels of the guild if they are not loaded. <p>
+     * This method blocks until all the pages are fetched.
+     *
+     * @param guild The guild
+     */
+    public void load(Guild guild) {
+        tree(guild);
+    }
+
+    /**
+     * Get the top level channels and categories of the guild, sorted by level. <p>
+     * The result is a read-only snapshot.
+     *
+     * @param guild The guild
+     */
+    public List<Channel> getRoots(Guild guild) {
+        final Tree tree = tree(guild);
+        synchronized (tree) {
+            return tree.root.view();
+        }
+    }
+
+    /**
+     * Get the channels in the category, sorted by level. <p>
+     * The result is a read-only snapshot.
+     *
+     * @param category The category
+     */
+    public List<Channel> getChildren(Category category) {
+        final Tree tree = tree(category.getGuild());
+        synchronized (tree) {
+            final Node node = tree.nodes.get(category.getId());
+            return node == null ? Collections.emptyList() : node.view();
+        }
+    }
+
+    /**
+     * Get the category that holds the channel.
+     *
+     * @param channel The channel
+     * @return The category, or null if the channel is at the top level or unknown
+     */
+    @Nullable
+    public Category getParent(Channel channel) {
+        final Tree tree = tree(channel.getGuild());
+        synchronized (tree) {
+            final Node node = tree.nodes.get(channel.getId());
+            return node == null || node.parent == tree.root ? null : (Category) node.parent.channel;
+        }
+    }
+
+    /**
+     * Get the channel with the provided ID from the loaded guilds.
+     *
+     * @param id The channel ID
+     * @return The channel, or null if not found
+     */
+    @Nullable
+    public Channel getChannel(String id) {
+        final Tree tree = owners.get(id);
+        if (tree == null) {
+            return null;
+        }
+        synchronized (tree) {
+            final Node node = tree.nodes.get(id);
+            return node == null ? null : node.channel;
+        }
+    }
+
+    /**
+     * Sort the children of the category (or the top level channels) in the provided order.
+     *
+     * @param guild  The guild
+     * @param parent The category, or null for the top level
+     * @param order  All the children in the new order
+     * @return The future of the per-channel result, only the channels whose level changed are included
+     * @throws IllegalArgumentException Thrown if the provided channels are not exactly the current children
+     */
+    public CompletableFuture<BulkResult<Channel>> reorder(Guild guild, @Nullable Category parent, List<? extends Channel> order)
+            throws IllegalArgumentException {
+        Validate.notNull(order);
+        final Tree tree = tree(guild);
+        final Map<Channel, Integer> levels;
+        synchronized (tree) {
+            final Node parentNode = parentNode(tree, parent);
+            Validate.isTrue(order.size() == parentNode.children.size(), "The order must contain all the children.");
+            final List<Node> nodes = new ArrayList<>(order.size());
+            for (Channel channel : order) {
+                final Node node = tree.nodes.get(channel.getId());
+                Validate.isTrue(node != null && node.parent == parentNode && !nodes.contains(node),
+                        "The order must contain all the children exactly once.");
+                nodes.add(node);
+            }
+            levels = assignLevels(nodes);
+        }
+        return apply(tree, levels, null, null);
+    }
+
+    /**
+     * Move the channel into the category (or the top level), at the provided position.
+     *
+     * @param channel   The channel to move
+     * @param newParent The new category, or null for the top level
+     * @param index     The position in the new siblings
+     * @return The future of the per-channel result, only the channels whose parent or level changed are included
+     */
+    public CompletableFuture<BulkResult<Channel>> move(Channel channel, @Nullable Category newParent, int index) {
+        final Tree tree = tree(channel.getGuild());
+        final Map<Channel, Integer> levels;
+        final Channel moved; // the cached instance, the levels are keyed by it
+        synchronized (tree) {
+            final Node node = tree.nodes.get(channel.getId());
+            Validate.notNull(node, "Unknown channel: " + channel.getId());
+            Validate.isTrue(newParent == null || !(channel instanceof Category), "A category can't be moved into another category.");
+            final Node parentNode = parentNode(tree, newParent);
+            final List<Node> siblings = new ArrayList<>(parentNode.children);
+            siblings.remove(node);
+            Validate.isTrue(index >= 0 && index <= siblings.size(), "Index is out of range.");
+            siblings.add(index, node);
+            levels = assignLevels(siblings);
+            if (node.parent != parentNode) {
+                moved = node.channel;
+                levels.putIfAbsent(moved, node.level);
+            } else {
+                moved = null;
+            }
+        }
+        return apply(tree, levels, moved, newParent);
+    }
+
+    /**
+     * Forget the channels of the guild. They will be loaded again on the next query.
+     *
+     * @param guild The guild
+     */
+    public void invalidate(Guild guild) {
+        final Tree tree = guilds.remove(guild.getId());
+        if (tree != null) {
+            synchronized (tree) {
+                tree.nodes.keySet().forEach(id -> owners.remove(id, tree));
+            }
+        }
+    }
+
+    // keeps the current levels that are already in order, only the others are changed
+    private static Map<Channel, Integer> assignLevels(List<Node> order) {
+        final Map<Channel, Integer> changes = new LinkedHashMap<>();
+        int previous = Integer.MIN_VALUE;
+        for (Node node : order) {
+            int level = node.level;
+            if (previous != Integer.MIN_VALUE && level <= previous) {
+                level = previous + 1;
+                changes.put(node.channel, level);
+            }
+            previous = level;
+        }
+        return changes;
+    }
+
+    private CompletableFuture<BulkResult<Channel>> apply(Tree tree, Map<Channel, Integer> levels,
+                                                         @Nullable Channel moved, @Nullable Category newParent) {
+        return JKook.getBulkExecutor().execute(levels.keySet(), channel -> {
+            if (channel == moved) {
+                channel.setParent(newParent);
+            }
+            final int level = levels.get(channel);
+            if (level != channel.getLevel()) {
+                channel.setLevel(level);
+            }
+            synchronized (tree) {
+                tree.update(channel, channel == moved ? newParent : null, channel == moved, level);
+            }
+        }, null);
+    }
+
+    private static Node parentNode(Tree tree, @Nullable Category category) {
+        if (category == null) {
+            return tree.root;
+        }
+        final Node node = tree.nodes.get(category.getId());
+        Validate.notNull(node, "Unknown category: " + category.getId());
+        return node;
+    }
+
+    private Tree tree(Guild guild) {
+        return guilds.get(guild.getId(), () -> load0(guild));
+    }
+
+    private Tree load0(Guild guild) {
+        final List<Channel> channels = new ArrayList<>();
+        final PageIterator<Set<Channel>> iterator = guild.getChannels();
+        while (iterator.hasNext()) {
+            channels.addAll(iterator.next());
+        }
+        final Tree tree = new Tree();
+        // add the categories first, so the parents exist when the channels are added
+        channels.sort(Comparator.comparing(channel -> !(channel instanceof Category)));
+        for (Channel channel : channels) {
+            tree.add(channel);
+            owners.put(channel.getId(), tree);
+        }
+        return tree;
+    }
+
+    // region Events
+
+    @EventHandler
+    public void onChannelCreate(ChannelCreateEvent event) {
+        final Channel channel = event.getChannel();
+        final Tree tree = guilds.getIfLoaded(channel.getGuild().getId());
+        if (tree != null) {
+            synchronized (tree) {
+                tree.add(channel);
+            }
+            owners.put(channel.getId(), tree);
+        }
+    }
+
+    @EventHandler
+    public void onChannelUpdate(ChannelInfoUpdateEvent event) {
+        final Channel channel = event.getChannel();
+        final Tree tree = owners.get(channel.getId());
+        if (tree != null) {
+            synchronized (tree) {
+                tree.update(channel, channel instanceof Category ? null : channel.getParent(), true, channel.getLevel());
+            }
+        }
+    }
+
+    @EventHandler
+    public void onChannelDelete(ChannelDeleteEvent event) {
+        final Tree tree = owners.remove(event.getChannelId());
+        if (tree != null) {
+            synchronized (tree) {
+                tree.remove(event.getChannelId());
+            }
+        }
+    }
+
+    @EventHandler
+    public void onGuildDelete(GuildDeleteEvent event) {
+        final Tree tree = guilds.remove(event.getGuildId());
+        if (tree != null) {
+            synchronized (tree) {
+                tree.nodes.keySet().forEach(id -> owners.remove(id, tree));
+            }
+        }
+    }
+
+    // endregion
+
+    // guarded by itself
+    private static final class Tree {
+        private final Node root = new Node(null, 0);
+        private final Map<String, Node> nodes = new HashMap<>();
+
+        private void add(Channel channel) {
+            if (nodes.containsKey(channel.getId())) {
+                update(channel, channel instanceof Category ? null : channel.getParent(), true, channel.getLevel());
+                return;
+            }
+            final Node node = new Node(channel, channel.getLevel());
+            nodes.put(channel.getId(), node);
+            attach(node, channel instanceof Category ? null : channel.getParent());
+        }
+
+        private void update(Channel channel, @Nullable Category parent, boolean updateParent, int level) {
+            final Node node = nodes.get(channel.getId());
+            if (node == null) {
+                return;
+            }
+            node.channel = channel;
+            node.level = level;
+            if (updateParent) {
+                node.parent.detach(node);
+                attach(node, parent);
+            } else {
+                node.parent.sort();
+            }
+        }
+
+        private void remove(String id) {
+            final Node node = nodes.remove(id);
+            if (node == null) {
+                return;
+            }
+            node.parent.detach(node);
+            for (Node child : new ArrayList<>(node.children)) { // the remote moves them to the top level
+                node.detach(child);
+                root.attach(child);
+            }
+        }
+
+        private void attach(Node node, @Nullable Category parent) {
+            final Node parentNode = parent == null ? null : nodes.get(parent.getId());
+            (parentNode == null ? root : parentNode).attach(node);
+        }
+    }
+
+    private static final class Node {
+        private Channel channel; // null for the root
+        private int level;
+        private Node parent;
+        private final List<Node> children = new ArrayList<>(0);
+        private List<Channel> view; // cached read-only children, null if outdated
+
+        private Node(Channel channel, int level) {
+            this.channel = channel;
+            this.level = level;
+        }
+
+        private void attach(Node child) {
+            child.parent = this;
+            children.add(child);
+            sort();
+        }
+
+        private void detach(Node child) {
+            children.remove(child);
+            view = null;
+        }
+
+        private void sort() {
+            children.sort(ORDER);
+            view = null;
+        }
+
+        private List<Channel> view() {
+            if (view == null) {
+                final List<Channel> result = new ArrayList<>(children.size());
+                for (Node child : children) {
+                    result.add(child.channel);
+                }
+                view = Collections.unmodifiableList(result);
+            }
+            return view;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A concurrent map whose values are loaded at most once per key, <b>outside</b> the lock of the map. <p>
+ * The first caller of a key installs a future and runs the loader in its own thread,
+ *  the concurrent callers of the same key wait for that future. Other keys are never blocked by a load,
+ *  and the loader can access this map without deadlocking. <p>
+ * If the key is removed while it is being loaded, the result is returned to the waiting callers but not cached.
+ * If the loader fails, nothing is cached and all the waiting callers get the exception.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+final class LoadingMap<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> map = new ConcurrentHashMap<>();
+
+    /**
+     * Get the value of the key, load it if it is not loaded.
+     *
+     * @param key    The key
+     * @param loader The loader, called without any lock of this map
+     */
+    V get(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = map.get(key);
+        if (future == null) {
+            final CompletableFuture<V> created = new CompletableFuture<>();
+            future = map.putIfAbsent(key, created);
+            if (future == null) {
+                try {
+                    final V value = loader.get();
+                    created.complete(value);
+                    return value;
+                } catch (RuntimeException | Error e) {
+                    map.remove(key, created);
+                    created.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        return join(future);
+    }
+
+    /**
+     * Wait for the future, and throw the exception of the loader as is.
+     *
+     * @param future The future of a load
+     */
+    static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Get the value of the key, or null if it is not loaded or still loading.
+     *
+     * @param key The key
+     */
+    @Nullable
+    V getIfLoaded(K key) {
+        final CompletableFuture<V> future = map.get(key);
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    /**
+     * Get a snapshot of the loaded values.
+     */
+    Collection<V> loadedValues() {
+        final List<V> result = new ArrayList<>(map.size());
+        for (CompletableFuture<V> future : map.values()) {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                result.add(future.join());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove the key, whether it is loaded or still loading.
+     *
+     * @param key The key
+     * @return The removed value, null if it was not loaded
+     */
+    @Nullable
+    V remove(K key) {
+        final CompletableFuture<V> future = map.remove(key);
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    /**
+     * Remove the loaded values that match the provided filter.
+     *
+     * @param filter The filter
+     */
+    void removeIf(Predicate<? super V> filter) {
+        map.values().removeIf(IT -> IT.isDone() && !IT.isCompletedExceptionally() && filter.test(IT.join()));
+    }
+
+    /**
+     * Remove all the keys.
+     */
+    void clear() {
+        map.clear();
+    }
+
+    /**
+     * Get the count of the loaded and loading keys.
+     */
+    int size() {
+        return map.size();
+    }
+}
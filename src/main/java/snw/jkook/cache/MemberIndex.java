@@ -0,0 +1,505 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.cache;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.JKook;
+import snw.jkook.entity.Guild;
+import snw.jkook.entity.User;
+import snw.jkook.event.EventHandler;
+import snw.jkook.event.Listener;
+import snw.jkook.event.guild.GuildDeleteEvent;
+import snw.jkook.event.guild.GuildUserNickNameUpdateEvent;
+import snw.jkook.event.user.UserInfoUpdateEvent;
+import snw.jkook.event.user.UserJoinGuildEvent;
+import snw.jkook.event.user.UserLeaveGuildEvent;
+import snw.jkook.plugin.Plugin;
+import snw.jkook.util.IdInterner;
+import snw.jkook.util.Long2ObjectMap;
+import snw.jkook.util.PageIterator;
+import snw.jkook.util.Validate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * A local index of the members of the guilds, so searching members does not need network requests. <p>
+ * The members of a guild are loaded once, on the first query or {@link #load(Guild)},
+ *  by crawling {@link Guild#getUsers(String, int, boolean, boolean, boolean)} sorted by join time (earliest first).
+ * Their nicknames and roles are then read through the {@link snw.jkook.util.BulkExecutor}.
+ * The loading runs outside the lock of the guild map, so it never blocks the other guilds.
+ * The events of a guild that is being loaded are buffered, and replayed on the loaded members before they are published. <p>
+ * After that, the index is kept up to date by the following events:
+ * <ul>
+ *     <li>{@link UserJoinGuildEvent} and {@link UserLeaveGuildEvent}</li>
+ *     <li>{@link GuildUserNickNameUpdateEvent} and {@link UserInfoUpdateEvent}</li>
+ *     <li>{@link GuildDeleteEvent}</li>
+ * </ul>
+ * Every user ID is mapped to a dense index by an {@link IdInterner}, which is shared with {@link OnlinePresence},
+ *  so their bitmaps can be combined directly. The names and nicknames are stored in a sorted map,
+ *  so a prefix search is a range scan, and the members of each guild and role are stored as a bitmap of indexes.
+ * The join order is kept by a sequence number: the loaded members keep the order returned by the remote
+ *  (so the implementation should keep the order of the users in a page),
+ *  and the members joined later are appended. <p>
+ * The changes of the members' roles are not represented by an event, so call {@link #updateRoles(Guild, User)}
+ *  after granting or revoking roles.
+ */
+public final class MemberIndex implements Listener {
+    private final IdInterner userIds;
+    private final LoadingMap<String, Members> guilds = new LoadingMap<>(); // loaded outside the map's lock
+    // guild ID -> the members being loaded, removed after they are published in guilds
+    private final Map<String, Members> loading = new ConcurrentHashMap<>();
+
+    /**
+     * Construct an index with its own {@link IdInterner}.
+     */
+    public MemberIndex() {
+        this(new IdInterner());
+    }
+
+    /**
+     * The main constructor.
+     *
+     * @param userIds The interner of the user IDs, it can be shared with other user caches
+     */
+    public MemberIndex(IdInterner userIds) {
+        Validate.notNull(userIds);
+        this.userIds = userIds;
+    }
+
+    /**
+     * Register this index as a listener, so it can be kept up to date by the events.
+     *
+     * @param plugin The plugin as the listener's owner
+     */
+    public void register(Plugin plugin) {
+        JKook.getEventManager().registerHandlers(plugin, this);
+    }
+
+    /**
+     * Load the members of the guild if they are not loaded. <p>
+     * This method blocks until all the pages are fetched.
+     *
+     * @param guild The guild
+     */
+    public void load(Guild guild) {
+        members(guild);
+    }
+
+    /**
+     * Return true if the members of the guild are loaded.
+     *
+     * @param guild The guild
+     */
+    public boolean isLoaded(Guild guild) {
+        return guilds.getIfLoaded(guild.getId()) != null;
+    }
+
+    /**
+     * Get the count of the members in the guild.
+     *
+     * @param guild The guild
+     */
+    public int getMemberCount(Guild guild) {
+        final Members members = members(guild);
+        synchronized (members) {
+            return members.entries.size();
+        }
+    }
+
+    /**
+     * Get the member of the guild with the provided ID.
+     *
+     * @param guild  The guild
+     * @param userId The user ID
+     * @return The member, or null if the user is not in the guild
+     */
+    @Nullable
+    public User getMember(Guild guild, String userId) {
+        final Members members = members(guild);
+        final int index = userIds.getIndex(userId);
+        synchronized (members) {
+            final Member member = members.get(index);
+            return member == null ? null : member.user;
+        }
+    }
+
+    /**
+     * Get the members that have the provided role, in join order.
+     *
+     * @param guild  The guild
+     * @param roleId The role ID
+     */
+    public List<User> getRoleMembers(Guild guild, int roleId) {
+        return search(guild, null, roleId, true, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the members of the guild in join order.
+     *
+     * @param guild         The guild
+     * @param earliestFirst <code>true</code> if the earliest joined members come first
+     * @param limit         The maximum count of the results
+     */
+    public List<User> getMembersByJoinTime(Guild guild, boolean earliestFirst, int limit) {
+        return search(guild, null, 0, earliestFirst, limit);
+    }
+
+    /**
+     * Search the members of the guild. The results are sorted by join order.
+     *
+     * @param guild         The guild
+     * @param namePrefix    The prefix of the username or nickname (case-insensitive), null or empty to match all members
+     * @param roleId        The role that the members must have, 0 (the default role) to match all members
+     * @param earliestFirst <code>true</code> if the earliest joined members come first
+     * @param limit         The maximum count of the results
+     */
+    public List<User> search(Guild guild, @Nullable String namePrefix, int roleId, boolean earliestFirst, int limit) {
+        return search(guild, namePrefix, roleId, null, earliestFirst, limit);
+    }
+
+    // the filter is in the index space of userIds, and it is modified
+    List<User> search(Guild guild, @Nullable String namePrefix, int roleId, @Nullable BitSet filter, boolean earliestFirst, int limit) {
+        Validate.isTrue(limit > 0, "limit must be positive.");
+        final Members members = members(guild);
+        synchronized (members) {
+            BitSet candidates = filter;
+            if (namePrefix != null && !namePrefix.isEmpty()) {
+                final BitSet named = new BitSet();
+                final String prefix = namePrefix.toLowerCase(Locale.ROOT);
+                for (Integer index : members.names.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                    named.set(index);
+                }
+                if (candidates == null) {
+                    candidates = named;
+                } else {
+                    candidates.and(named);
+                }
+            }
+            if (roleId != 0) {
+                final BitSet roleMembers = members.roles.get(roleId);
+                if (roleMembers == null) {
+                    return Collections.emptyList();
+                }
+                if (candidates == null) {
+                    candidates = roleMembers; // read only
+                } else {
+                    candidates.and(roleMembers);
+                }
+            }
+            if (candidates != null && candidates.isEmpty()) {
+                return Collections.emptyList();
+            }
+            final Collection<Integer> order = earliestFirst ? members.joinOrder.values() : members.joinOrder.descendingMap().values();
+            final List<User> result = new ArrayList<>(candidates == null ? Math.min(limit, members.entries.size()) : Math.min(limit, candidates.cardinality()));
+            for (Integer index : order) {
+                if (candidates == null || candidates.get(index)) {
+                    result.add(members.entries.get(index).user);
+                    if (result.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    // a copy of the bitmap of the members that have the role (or all the members for role 0), in the index space of userIds
+    BitSet getMemberBits(Guild guild, int roleId) {
+        final Members members = members(guild);
+        synchronized (members) {
+            final BitSet bits = roleId == 0 ? members.present : members.roles.get(roleId);
+            return bits == null ? new BitSet() : (BitSet) bits.clone();
+        }
+    }
+
+    IdInterner getUserIds() {
+        return userIds;
+    }
+
+    /**
+     * Read the roles of the member again. Call this after granting or revoking roles.
+     *
+     * @param guild The guild
+     * @param user  The member
+     */
+    public void updateRoles(Guild guild, User user) {
+        if (!isKnown(guild.getId())) {
+            return;
+        }
+        final Collection<Integer> roles = user.getRoles(guild);
+        update(guild.getId(), members -> {
+            final int index = userIds.getIndex(user.getId());
+            if (members.get(index) != null) {
+                members.clearRoles(index);
+                members.setRoles(index, roles);
+            }
+        });
+    }
+
+    /**
+     * Forget the members of the guild. They will be loaded again on the next query.
+     *
+     * @param guild The guild
+     */
+    public void invalidate(Guild guild) {
+        guilds.remove(guild.getId());
+    }
+
+    /**
+     * Forget the members of all the guilds.
+     */
+    public void invalidateAll() {
+        guilds.clear();
+    }
+
+    private Members members(Guild guild) {
+        final Members members = guilds.get(guild.getId(), () -> load0(guild));
+        if (!loading.isEmpty()) {
+            loading.remove(guild.getId(), members); // published, the events can find it in guilds now
+        }
+        return members;
+    }
+
+    private Members load0(Guild guild) {
+        final Members members = new Members();
+        loading.put(guild.getId(), members); // the events are buffered into it from now on
+        try {
+            load0(guild, members);
+        } catch (RuntimeException | Error e) {
+            loading.remove(guild.getId(), members);
+            throw e;
+        }
+        return members;
+    }
+
+    private void load0(Guild guild, Members members) {
+        final List<User> users = new ArrayList<>();
+        final PageIterator<Set<User>> iterator = guild.getUsers(null, 0, false, false, true);
+        while (iterator.hasNext()) {
+            users.addAll(iterator.next()); // keep the order of the pages and the users in them
+        }
+        // the nicknames and roles may need requests, read them concurrently under the rate limit of the bulk executor
+        final Map<User, Map.Entry<String, Collection<Integer>>> profiles = JKook.getBulkExecutor().<User, Map.Entry<String, Collection<Integer>>>map(users,
+                user -> new AbstractMap.SimpleImmutableEntry<>(user.getNickName(guild), user.getRoles(guild)), null
+        ).join();
+        synchronized (members) {
+            for (User user : users) {
+                final Map.Entry<String, Collection<Integer>> profile = profiles.get(user);
+                final int index = userIds.indexOf(user.getId());
+                if (profile != null) {
+                    members.add(index, user, profile.getKey(), profile.getValue());
+                } else { // failed to read, the roles can be fixed by updateRoles
+                    members.add(index, user, null, Collections.emptySet());
+                }
+            }
+            for (Consumer<Members> change : members.pending) {
+                change.accept(members);
+            }
+            members.pending = null;
+        }
+    }
+
+    // true if the members of the guild are loaded or being loaded
+    private boolean isKnown(String guildId) {
+        return loading.containsKey(guildId) || guilds.getIfLoaded(guildId) != null;
+    }
+
+    // applies the change to the members of the guild, or buffers it if they are being loaded
+    private void update(String guildId, Consumer<Members> change) {
+        Members members = loading.get(guildId); // checked first, it is removed only after the members are published
+        if (members == null) {
+            members = guilds.getIfLoaded(guildId);
+        }
+        if (members != null) {
+            apply(members, change);
+        }
+    }
+
+    private static void apply(Members members, Consumer<Members> change) {
+        synchronized (members) {
+            if (members.pending != null) {
+                members.pending.add(change);
+            } else {
+                change.accept(members);
+            }
+        }
+    }
+
+    // region Events
+
+    @EventHandler
+    public void onUserJoinGuild(UserJoinGuildEvent event) {
+        final String guildId = event.getGuild().getId();
+        if (!isKnown(guildId)) {
+            return;
+        }
+        final User user = event.getUser();
+        final String nickName = user.getNickName(event.getGuild());
+        final Collection<Integer> roles = user.getRoles(event.getGuild());
+        update(guildId, members -> {
+            final int index = userIds.indexOf(user.getId());
+            members.remove(index); // in case the join was already seen when loading
+            members.add(index, user, nickName, roles);
+        });
+    }
+
+    @EventHandler
+    public void onUserLeaveGuild(UserLeaveGuildEvent event) {
+        final String userId = event.getUser().getId();
+        update(event.getGuild().getId(), members -> members.remove(userIds.getIndex(userId)));
+    }
+
+    @EventHandler
+    public void onNickNameUpdate(GuildUserNickNameUpdateEvent event) {
+        final String userId = event.getUser().getId();
+        final String nickName = event.getNewNickName();
+        update(event.getGuild().getId(), members -> {
+            final int index = userIds.getIndex(userId);
+            final Member member = members.get(index);
+            if (member != null) {
+                members.setNickName(index, member, nickName);
+            }
+        });
+    }
+
+    @EventHandler
+    public void onUserUpdate(UserInfoUpdateEvent event) {
+        final User user = event.getUser();
+        if (loading.isEmpty() && userIds.getIndex(user.getId()) == -1) { // not a member of any guild
+            return;
+        }
+        final Consumer<Members> change = members -> {
+            final int index = userIds.getIndex(user.getId());
+            final Member member = members.get(index);
+            if (member != null) {
+                member.user = user;
+                members.setName(index, member, user.getName());
+            }
+        };
+        for (Members members : loading.values()) {
+            apply(members, change);
+        }
+        for (Members members : guilds.loadedValues()) {
+            apply(members, change);
+        }
+    }
+
+    @EventHandler
+    public void onGuildDelete(GuildDeleteEvent event) {
+        guilds.remove(event.getGuildId());
+    }
+
+    // endregion
+
+    // guarded by itself, the members are keyed by their indexes in userIds
+    private static final class Members {
+        // between the name and the index in the name keys, different for names and nicknames so the keys never collide
+        private static final char NAME_SEPARATOR = '\0';
+        private static final char NICKNAME_SEPARATOR = '\1';
+
+        private final BitSet present = new BitSet();
+        private final Long2ObjectMap<Member> entries = new Long2ObjectMap<>();
+        private long nextSequence;
+        // "lowercase name, separator, index" -> index, the index makes the keys unique
+        private final NavigableMap<String, Integer> names = new TreeMap<>();
+        private final Map<Integer, BitSet> roles = new HashMap<>();
+        private final NavigableMap<Long, Integer> joinOrder = new TreeMap<>();
+        private List<Consumer<Members>> pending = new ArrayList<>(); // the changes received while loading, null after loaded
+
+        @Nullable
+        private Member get(int index) {
+            return index == -1 ? null : entries.get(index);
+        }
+
+        private void add(int index, User user, @Nullable String nickName, Collection<Integer> roleIds) {
+            if (present.get(index)) {
+                return;
+            }
+            final Member member = new Member(user, nextSequence++);
+            present.set(index);
+            entries.put(index, member);
+            joinOrder.put(member.sequence, index);
+            setName(index, member, user.getName());
+            setNickName(index, member, nickName);
+            setRoles(index, roleIds);
+        }
+
+        private void remove(int index) {
+            final Member member = get(index);
+            if (member == null) {
+                return;
+            }
+            setName(index, member, null);
+            setNickName(index, member, null);
+            clearRoles(index);
+            joinOrder.remove(member.sequence);
+            entries.remove(index);
+            present.clear(index);
+        }
+
+        private void setName(int index, Member member, @Nullable String name) {
+            member.nameKey = replaceKey(member.nameKey, name, NAME_SEPARATOR, index);
+        }
+
+        private void setNickName(int index, Member member, @Nullable String nickName) {
+            member.nickNameKey = replaceKey(member.nickNameKey, nickName, NICKNAME_SEPARATOR, index);
+        }
+
+        private String replaceKey(@Nullable String oldKey, @Nullable String name, char separator, int index) {
+            if (oldKey != null) {
+                names.remove(oldKey);
+            }
+            if (name == null || name.isEmpty()) {
+                return null;
+            }
+            final String key = name.toLowerCase(Locale.ROOT) + separator + index;
+            names.put(key, index);
+            return key;
+        }
+
+        private void setRoles(int index, Collection<Integer> roleIds) {
+            for (Integer roleId : roleIds) {
+                roles.computeIfAbsent(roleId, id -> new BitSet()).set(index);
+            }
+        }
+
+        private void clearRoles(int index) {
+            final Iterator<BitSet> iterator = roles.values().iterator();
+            while (iterator.hasNext()) {
+                final BitSet members = iterator.next();
+                members.clear(index);
+                if (members.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static final class Member {
+        private User user;
+        private final long sequence;
+        private String nameKey;
+        private String nickNameKey;
+
+        private Member(User user, long sequence) {
+            this.user = user;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.cache;
+
+import snw.jkook.PermissionSet;
+
+/**
+ * This exception will be thrown by {@link PermissionGuard} if the bot does not have the permissions
+ *  that the called method requires. <p>
+ * No request was sent to the remote when this exception was thrown.
+ */
+public class MissingPermissionException extends RuntimeException {
+    private final PermissionSet missing;
+
+    /**
+     * Constructs a new MissingPermissionException with the specified detail message.
+     *
+     * @param message the detail message. The detail message is saved for
+     *                later retrieval by the {@link #getMessage()} method.
+     * @param missing the permissions that the bot does not have
+     */
+    public MissingPermissionException(String message, PermissionSet missing) {
+        super(message);
+        this.missing = missing;
+    }
+
+    /**
+     * Get the permissions that the bot does not have.
+     */
+    public PermissionSet getMissing() {
+        return missing;
+    }
+}
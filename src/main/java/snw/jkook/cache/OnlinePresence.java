@@ -0,0 +1,161 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.cache;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.JKook;
+import snw.jkook.entity.Guild;
+import snw.jkook.entity.User;
+import snw.jkook.event.EventHandler;
+import snw.jkook.event.Listener;
+import snw.jkook.event.user.UserOfflineEvent;
+import snw.jkook.event.user.UserOnlineEvent;
+import snw.jkook.plugin.Plugin;
+import snw.jkook.util.IdInterner;
+import snw.jkook.util.Validate;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A local index of the online status of the users, fed by {@link UserOnlineEvent} and {@link UserOfflineEvent}. <p>
+ * Every user ID is mapped to a dense index by an {@link IdInterner}, and the status is stored in two bitmaps
+ *  (known and online), so a million users cost about 250 KiB besides the interned IDs. <p>
+ * The status of the users that have not sent an event since this index was registered is unknown.
+ * Use {@link #setOnline(User, boolean)} to seed them, e.g. with {@link User#isOnline()}. <p>
+ * The per-guild queries use a {@link MemberIndex}, which shares the same {@link IdInterner},
+ *  so the members of the guild (and the role) are intersected with the online bitmap by {@link BitSet#and(BitSet)},
+ *  without looking up the members one by one. They don't send requests after the members are loaded.
+ */
+public final class OnlinePresence implements Listener {
+    private final IdInterner userIds;
+    private final MemberIndex members;
+    private final BitSet known = new BitSet();
+    private final BitSet online = new BitSet();
+
+    /**
+     * The main constructor. The user IDs are interned by the {@link IdInterner} of the member index.
+     *
+     * @param members The member index used by the per-guild queries
+     */
+    public OnlinePresence(MemberIndex members) {
+        Validate.notNull(members);
+        this.members = members;
+        this.userIds = members.getUserIds();
+    }
+
+    /**
+     * Register this index as a listener, so it can be kept up to date by the events.
+     *
+     * @param plugin The plugin as the listener's owner
+     */
+    public void register(Plugin plugin) {
+        JKook.getEventManager().registerHandlers(plugin, this);
+    }
+
+    /**
+     * Set the online status of the user, e.g. when seeding this index.
+     *
+     * @param user   The user
+     * @param online <code>true</code> if the user is online
+     */
+    public void setOnline(User user, boolean online) {
+        final int index = userIds.indexOf(user.getId());
+        synchronized (this) {
+            known.set(index);
+            this.online.set(index, online);
+        }
+    }
+
+    /**
+     * Return true if the user is known to be online.
+     *
+     * @param user The user
+     */
+    public boolean isOnline(User user) {
+        return Boolean.TRUE.equals(getStatus(user.getId()));
+    }
+
+    /**
+     * Get the online status of the user.
+     *
+     * @param userId The user ID
+     * @return <code>true</code> if online, <code>false</code> if offline, or null if unknown
+     */
+    @Nullable
+    public Boolean getStatus(String userId) {
+        final int index = userIds.getIndex(userId);
+        if (index == -1) {
+            return null;
+        }
+        synchronized (this) {
+            return known.get(index) ? online.get(index) : null;
+        }
+    }
+
+    /**
+     * Get the count of the users that are known to be online.
+     */
+    public synchronized int getOnlineCount() {
+        return online.cardinality();
+    }
+
+    /**
+     * Get the count of the members of the guild that are known to be online.
+     *
+     * @param guild The guild
+     */
+    public int getOnlineCount(Guild guild) {
+        final BitSet result = members.getMemberBits(guild, 0);
+        synchronized (this) {
+            result.and(online);
+        }
+        return result.cardinality();
+    }
+
+    /**
+     * Get the members of the guild that have the role and are known to be online, in join order.
+     *
+     * @param guild  The guild
+     * @param roleId The role ID, 0 (the default role) for all the members
+     */
+    public List<User> getOnlineMembers(Guild guild, int roleId) {
+        final BitSet filter;
+        synchronized (this) {
+            filter = (BitSet) online.clone();
+        }
+        return members.search(guild, null, roleId, filter, true, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Forget the status of all the users. The interned IDs are kept.
+     */
+    public synchronized void clear() {
+        known.clear();
+        online.clear();
+    }
+
+    @EventHandler
+    public void onUserOnline(UserOnlineEvent event) {
+        setOnline(event.getUser(), true);
+    }
+
+    @EventHandler
+    public void onUserOffline(UserOfflineEvent event) {
+        setOnline(event.getUser(), false);
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.cache;
+
+import snw.jkook.JKook;
+import snw.jkook.Permission;
+import snw.jkook.entity.Guild;
+import snw.jkook.entity.Role;
+import snw.jkook.entity.User;
+import snw.jkook.entity.channel.Channel;
+import snw.jkook.event.EventHandler;
+import snw.jkook.event.Listener;
+import snw.jkook.event.channel.ChannelDeleteEvent;
+import snw.jkook.event.channel.ChannelInfoUpdateEvent;
+import snw.jkook.event.guild.GuildDeleteEvent;
+import snw.jkook.event.guild.GuildInfoUpdateEvent;
+import snw.jkook.event.role.RoleCreateEvent;
+import snw.jkook.event.role.RoleDeleteEvent;
+import snw.jkook.event.role.RoleInfoUpdateEvent;
+import snw.jkook.event.user.UserInfoUpdateEvent;
+import snw.jkook.event.user.UserLeaveGuildEvent;
+import snw.jkook.plugin.Plugin;
+import snw.jkook.util.PageIterator;
+import snw.jkook.util.Validate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Calculates the effective permissions of the users, and memoizes them. <p>
+ * The effective permissions of a user in a channel are calculated in the following steps:
+ * <ol>
+ *     <li>The guild master has all the permissions.</li>
+ *     <li>Combine the permissions of the default role (ID <code>0</code>) and all the roles of the user.
+ *      If {@link Permission#ADMIN} is included, the user has all the permissions.</li>
+ *     <li>Apply the overwrites of the default role in the channel, then the combined overwrites of the user's roles,
+ *      then the overwrite of the user. (The denied permissions are removed first, then the allowed ones are added.)</li>
+ * </ol>
+ * The permissions of the roles are loaded once per guild, and the results are memoized per (user, channel) and (user, guild),
+ *  so a cached check is a map lookup and a bit test. <p>
+ * The memoized results are invalidated by the role, channel and guild events.
+ * The changes of a user's roles are not represented by an event, so call {@link #invalidateUser(String)} after granting or revoking roles.
+ */
+public final class PermissionCache implements Listener {
+
+    /** The sum of all the permissions' value. */
+    public static final int ALL = allPermissions();
+
+    private final int maxEntriesPerScope;
+    private final LoadingMap<String, GuildState> guilds = new LoadingMap<>(); // loaded outside the map's lock
+    private final Map<String, ChannelState> channels = new ConcurrentHashMap<>();
+
+    /**
+     * Construct a cache that memoizes up to 10000 users per guild or channel.
+     */
+    public PermissionCache() {
+        this(10000);
+    }
+
+    /**
+     * The main constructor.
+     *
+     * @param maxEntriesPerScope The maximum count of the memoized users per guild or channel.
+     *                           If a guild or channel has more, the results of its other users won't be memoized
+     */
+    public PermissionCache(int maxEntriesPerScope) {
+        Validate.isTrue(maxEntriesPerScope > 0, "maxEntriesPerScope must be positive.");
+        this.maxEntriesPerScope = maxEntriesPerScope;
+    }
+
+    /**
+     * Register this cache as a listener, so it can be invalidated by the events.
+     *
+     * @param plugin The plugin as the listener's owner
+     */
+    public void register(Plugin plugin) {
+        JKook.getEventManager().registerHandlers(plugin, this);
+    }
+
+    /**
+     * Get the effective permissions of the user in the channel. You can use the result for {@link Permission#hasPermission}.
+     *
+     * @param user    The user
+     * @param channel The channel
+     */
+    public int getPermissions(User user, Channel channel) {
+        ChannelState state = channels.get(channel.getId());
+        if (state == null) {
+            state = channels.computeIfAbsent(channel.getId(), id -> new ChannelState(channel.getGuild().getId()));
+        }
+        final Integer cached = state.users.get(user.getId());
+        if (cached != null) {
+            return cached;
+        }
+        final int result = calculate(user, channel);
+        if (state.users.size() < maxEntriesPerScope) {
+            state.users.put(user.getId(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Get the permissions of the user in the guild, without the overwrites of any channel.
+     *
+     * @param user  The user
+     * @param guild The guild
+     */
+    public int getPermissions(User user, Guild guild) {
+        final GuildState state = guildState(guild);
+        final Integer cached = state.users.get(user.getId());
+        if (cached != null) {
+            return cached;
+        }
+        final int result = calculate(user, guild, state);
+        if (state.users.size() < maxEntriesPerScope) {
+            state.users.put(user.getId(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Return true if the user has all the provided permissions in the channel.
+     *
+     * @param user        The user
+     * @param channel     The channel
+     * @param permissions The permissions to check
+     */
+    public boolean hasPermissions(User user, Channel channel, Permission... permissions) {
+        final int effective = getPermissions(user, channel);
+        for (Permission permission : permissions) {
+            if (!Permission.hasPermission(permission, effective)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return true if the user has all the provided permissions in the guild.
+     *
+     * @param user        The user
+     * @param guild       The guild
+     * @param permissions The permissions to check
+     */
+    public boolean hasPermissions(User user, Guild guild, Permission... permissions) {
+        final int effective = getPermissions(user, guild);
+        for (Permission permission : permissions) {
+            if (!Permission.hasPermission(permission, effective)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Forget the memoized results of the provided user.
+     *
+     * @param userId The ID of the user
+     */
+    public void invalidateUser(String userId) {
+        for (GuildState state : guilds.loadedValues()) {
+            state.users.remove(userId);
+        }
+        for (ChannelState state : channels.values()) {
+            state.users.remove(userId);
+        }
+    }
+
+    /**
+     * Forget the role permissions and the memoized results in the provided guild (including its channels).
+     *
+     * @param guildId The ID of the guild
+     */
+    public void invalidateGuild(String guildId) {
+        guilds.remove(guildId);
+        channels.values().removeIf(IT -> IT.guildId.equals(guildId));
+    }
+
+    /**
+     * Forget the memoized results in the provided channel.
+     *
+     * @param channelId The ID of the channel
+     */
+    public void invalidateChannel(String channelId) {
+        channels.remove(channelId);
+    }
+
+    /**
+     * Forget everything.
+     */
+    public void invalidateAll() {
+        guilds.clear();
+        channels.clear();
+    }
+
+    private int calculate(User user, Channel channel) {
+        final Guild guild = channel.getGuild();
+        final int base = getPermissions(user, guild);
+        if (base == ALL) {
+            return ALL;
+        }
+        final Collection<Integer> roles = user.getRoles(guild);
+        int everyoneAllow = 0;
+        int everyoneDeny = 0;
+        int roleAllow = 0;
+        int roleDeny = 0;
+        for (Channel.RolePermissionOverwrite overwrite : channel.getOverwrittenRolePermissions()) {
+            if (overwrite.getRoleId() == 0) {
+                everyoneAllow = overwrite.getRawAllow();
+                everyoneDeny = overwrite.getRawDeny();
+            } else if (roles.contains(overwrite.getRoleId())) {
+                roleAllow |= overwrite.getRawAllow();
+                roleDeny |= overwrite.getRawDeny();
+            }
+        }
+        int result = (base & ~everyoneDeny) | everyoneAllow;
+        result = (result & ~roleDeny) | roleAllow;
+        for (Channel.UserPermissionOverwrite overwrite : channel.getOverwrittenUserPermissions()) {
+            if (overwrite.getUser().getId().equals(user.getId())) {
+                result = (result & ~overwrite.getRawDeny()) | overwrite.getRawAllow();
+                break;
+            }
+        }
+        return result;
+    }
+
+    private int calculate(User user, Guild guild, GuildState state) {
+        if (state.masterId.equals(user.getId())) {
+            return ALL;
+        }
+        final Map<Integer, Integer> masks = state.roleMasks;
+        int result = masks.getOrDefault(0, 0);
+        for (Integer roleId : user.getRoles(guild)) {
+            result |= masks.getOrDefault(roleId, 0);
+        }
+        return (result & Permission.ADMIN.getValue()) != 0 ? ALL : result;
+    }
+
+    private GuildState guildState(Guild guild) {
+        return guilds.get(guild.getId(), () -> load(guild));
+    }
+
+    private static GuildState load(Guild guild) {
+        final Map<Integer, Integer> masks = new HashMap<>();
+        final PageIterator<Set<Role>> iterator = guild.getRoles();
+        while (iterator.hasNext()) {
+            for (Role role : iterator.next()) {
+                masks.put(role.getId(), role.getPermissions());
+            }
+        }
+        return new GuildState(guild.getMaster().getId(), masks);
+    }
+
+    private static int allPermissions() {
+        int result = 0;
+        for (Permission permission : Permission.values()) {
+            result |= permission.getValue();
+        }
+        return result;
+    }
+
+    // region Invalidation
+
+    @EventHandler
+    public void onRoleCreate(RoleCreateEvent event) {
+        invalidateGuild(event.getRole().getGuild().getId());
+    }
+
+    @EventHandler
+    public void onRoleUpdate(RoleInfoUpdateEvent event) {
+        invalidateGuild(event.getRole().getGuild().getId());
+    }
+
+    @EventHandler
+    public void onRoleDelete(RoleDeleteEvent event) {
+        invalidateGuild(event.getRole().getGuild().getId());
+    }
+
+    @EventHandler
+    public void onChannelUpdate(ChannelInfoUpdateEvent event) {
+        invalidateChannel(event.getChannel().getId());
+    }
+
+    @EventHandler
+    public void onChannelDelete(ChannelDeleteEvent event) {
+        invalidateChannel(event.getChannelId());
+    }
+
+    @EventHandler
+    public void onGuildUpdate(GuildInfoUpdateEvent event) {
+        invalidateGuild(event.getGuild().getId());
+    }
+
+    @EventHandler
+    public void onGuildDelete(GuildDeleteEvent event) {
+        invalidateGuild(event.getGuildId());
+    }
+
+    @EventHandler
+    public void onUserUpdate(UserInfoUpdateEvent event) {
+        invalidateUser(event.getUser().getId());
+    }
+
+    @EventHandler
+    public void onUserLeaveGuild(UserLeaveGuildEvent event) {
+        invalidateUser(event.getUser().getId());
+    }
+
+    // endregion
+
+    private static final class GuildState {
+        private final String masterId;
+        private final Map<Integer, Integer> roleMasks;
+        private final Map<String, Integer> users = new ConcurrentHashMap<>();
+
+        private GuildState(String masterId, Map<Integer, Integer> roleMasks) {
+            this.masterId = masterId;
+            this.roleMasks = roleMasks;
+        }
+    }
+
+    private static final class ChannelState {
+        private final String guildId;
+        private final Map<String, Integer> users = new ConcurrentHashMap<>();
+
+        private ChannelState(String guildId) {
+            this.guildId = guildId;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.cache;
+
+import snw.jkook.JKook;
+import snw.jkook.Permission;
+import snw.jkook.PermissionSet;
+import snw.jkook.entity.CustomEmoji;
+import snw.jkook.entity.Guild;
+import snw.jkook.entity.Invitation;
+import snw.jkook.entity.Role;
+import snw.jkook.entity.User;
+import snw.jkook.entity.channel.Channel;
+import snw.jkook.message.TextChannelMessage;
+import snw.jkook.util.RequirePermission;
+import snw.jkook.util.Validate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Checks the permissions of the bot before calling the methods marked with {@link RequirePermission}. <p>
+ * The effective permissions are read from a {@link PermissionCache}, so a check does not send any request.
+ * If the bot does not have the required permissions, a {@link MissingPermissionException} is thrown
+ *  instead of sending a request that the remote will reject. <p>
+ * Use {@link #guard(Class, Object)} to wrap an entity, or call the <code>check</code> methods directly. <p>
+ * The scope of a check is the entity itself if it is a {@link Channel}, {@link Guild}, {@link Role}, {@link CustomEmoji},
+ *  {@link Invitation} or {@link TextChannelMessage}, otherwise the first {@link Guild}, {@link Role} or {@link Channel} argument.
+ * If no scope can be found, the call is not checked.
+ * Deleting a message sent by the bot itself is never checked. <p>
+ * Example:
+ * <blockquote><pre>
+ *     PermissionGuard guard = new PermissionGuard(cache);
+ *     guard.guard(Guild.class, guild).kick(user); // throws MissingPermissionException if the bot can't kick
+ * </pre></blockquote>
+ */
+public final class PermissionGuard {
+    private static final Requirement NONE = new Requirement(PermissionSet.EMPTY, false);
+
+    private final PermissionCache cache;
+    private final Supplier<User> self;
+    private final Map<Method, Requirement> requirements = new ConcurrentHashMap<>();
+    private final LongAdder checks = new LongAdder();
+    private final Map<Permission, LongAdder> denials = new EnumMap<>(Permission.class); // never modified after construction
+
+    /**
+     * Construct a guard that checks the permissions of the bot user. (See {@link snw.jkook.Core#getUser()})
+     *
+     * @param cache The cache that calculates the permissions
+     */
+    public PermissionGuard(PermissionCache cache) {
+        this(cache, () -> JKook.getCore().getUser());
+    }
+
+    /**
+     * The main constructor.
+     *
+     * @param cache The cache that calculates the permissions
+     * @param self  The supplier of the user whose permissions are checked
+     */
+    public PermissionGuard(PermissionCache cache, Supplier<User> self) {
+        Validate.notNull(cache);
+        Validate.notNull(self);
+        this.cache = cache;
+        this.self = self;
+        for (Permission permission : Permission.values()) {
+            denials.put(permission, new LongAdder());
+        }
+    }
+
+    /**
+     * Throw an exception if the bot does not have all the provided permissions in the guild.
+     *
+     * @param guild    The guild
+     * @param required The required permissions
+     * @throws MissingPermissionException Thrown if any of the permissions is missing
+     */
+    public void check(Guild guild, Permission... required) throws MissingPermissionException {
+        check(cache.getPermissions(self.get(), guild), PermissionSet.of(required), false, "guild " + guild.getId());
+    }
+
+    /**
+     * Throw an exception if the bot does not have all the provided permissions in the channel.
+     *
+     * @param channel  The channel
+     * @param required The required permissions
+     * @throws MissingPermissionException Thrown if any of the permissions is missing
+     */
+    public void check(Channel channel, Permission... required) throws MissingPermissionException {
+        check(cache.getPermissions(self.get(), channel), PermissionSet.of(required), false, "channel " + channel.getId());
+    }
+
+    /**
+     * Wrap the provided object, so the calls to its methods marked with {@link RequirePermission} are checked first. <p>
+     * The other methods are called directly.
+     *
+     * @param type   The interface to expose, e.g. <code>Guild.class</code>
+     * @param target The object to wrap
+     * @param <T>    The type of the object
+     * @return The wrapped object
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T guard(Class<T> type, T target) {
+        Validate.notNull(type);
+        Validate.notNull(target);
+        Validate.isTrue(type.isInterface(), "The type must be an interface.");
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class && method.getName().equals("equals")) {
+                return proxy == args[0] || target.equals(args[0]);
+            }
+            final Requirement requirement = requirements.computeIfAbsent(method, PermissionGuard::requirementOf);
+            if (requirement != NONE) {
+                enforce(target, method, args, requirement);
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    /**
+     * Get the count of the checks done by this guard.
+     */
+    public long getCheckCount() {
+        return checks.sum();
+    }
+
+    /**
+     * Get the count of the checks that failed because of the provided permission.
+     *
+     * @param permission The permission
+     */
+    public long getDeniedCount(Permission permission) {
+        return denials.get(permission).sum();
+    }
+
+    /**
+     * Get the count of the failed checks by permission. Permissions that were never missing are not included.
+     */
+    public Map<Permission, Long> getDeniedCounts() {
+        final Map<Permission, Long> result = new EnumMap<>(Permission.class);
+        for (Map.Entry<Permission, LongAdder> entry : denials.entrySet()) {
+            final long count = entry.getValue().sum();
+            if (count > 0) {
+                result.put(entry.getKey(), count);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reset the counters of this guard.
+     */
+    public void resetStatistics() {
+        checks.reset();
+        for (LongAdder adder : denials.values()) {
+            adder.reset();
+        }
+    }
+
+    private void enforce(Object target, Method method, Object[] args, Requirement requirement) {
+        final User user = self.get();
+        final String where = method.getDeclaringClass().getSimpleName() + "#" + method.getName();
+        if (target instanceof TextChannelMessage) {
+            final TextChannelMessage message = (TextChannelMessage) target;
+            if (message.getSender().getId().equals(user.getId())) {
+                return; // the bot can always manage its own messages
+            }
+            check(cache.getPermissions(user, message.getChannel()), requirement.permissions, requirement.any, where);
+            return;
+        }
+        Object scope = scopeOf(target);
+        if (scope == null && args != null) {
+            for (Object arg : args) {
+                scope = scopeOf(arg);
+                if (scope != null) {
+                    break;
+                }
+            }
+        }
+        if (scope instanceof Channel) {
+            check(cache.getPermissions(user, (Channel) scope), requirement.permissions, requirement.any, where);
+        } else if (scope instanceof Guild) {
+            check(cache.getPermissions(user, (Guild) scope), requirement.permissions, requirement.any, where);
+        }
+    }
+
+    private void check(int effective, PermissionSet required, boolean any, String where) {
+        checks.increment();
+        if ((effective & Permission.ADMIN.getValue()) != 0) {
+            return;
+        }
+        final int raw = required.getRawValue();
+        if (any ? (effective & raw) != 0 : (effective & raw) == raw) {
+            return;
+        }
+        final PermissionSet missing = PermissionSet.of(raw & ~effective);
+        missing.forEach(permission -> denials.get(permission).increment());
+        throw new MissingPermissionException("Missing " + (any ? "any of " : "") + missing + " for " + where, missing);
+    }
+
+    // returns the Channel or Guild that the permissions should be checked in, or null
+    private static Object scopeOf(Object object) {
+        if (object instanceof Channel || object instanceof Guild) {
+            return object;
+        }
+        if (object instanceof Role) {
+            return ((Role) object).getGuild();
+        }
+        if (object instanceof CustomEmoji) {
+            return ((CustomEmoji) object).getGuild();
+        }
+        if (object instanceof Invitation) {
+            return ((Invitation) object).getGuild();
+        }
+        return null;
+    }
+
+    private static Requirement requirementOf(Method method) {
+        final RequirePermission annotation = method.getAnnotation(RequirePermission.class);
+        if (annotation == null) {
+            return NONE;
+        }
+        return new Requirement(PermissionSet.of(annotation.value()), annotation.any());
+    }
+
+    private static final class Requirement {
+        private final PermissionSet permissions;
+        private final boolean any;
+
+        private Requirement(PermissionSet permissions, boolean any) {
+            this.permissions = permissions;
+            this.any = any;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.cache;
+
+import snw.jkook.JKook;
+import snw.jkook.entity.CustomEmoji;
+import snw.jkook.entity.User;
+import snw.jkook.entity.abilities.ReactionHolder;
+import snw.jkook.event.EventHandler;
+import snw.jkook.event.Listener;
+import snw.jkook.event.channel.ChannelMessageDeleteEvent;
+import snw.jkook.event.pm.PrivateMessageDeleteEvent;
+import snw.jkook.event.user.UserAddReactionEvent;
+import snw.jkook.event.user.UserRemoveReactionEvent;
+import snw.jkook.message.Message;
+import snw.jkook.plugin.Plugin;
+import snw.jkook.util.Validate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A local tally of the reactions on the messages. <p>
+ * The users that reacted with an emoji are fetched by {@link ReactionHolder#getUserByReaction(CustomEmoji)}
+ *  on the first query of the (message, emoji) pair, then they are kept up to date by {@link UserAddReactionEvent}
+ *  and {@link UserRemoveReactionEvent}, so the later queries never send requests.
+ * The pair is registered before the fetch, and the events received during the fetch are applied to its result,
+ *  so no event is lost. The concurrent queries of the pair wait for the same fetch. <p>
+ * The tallies of the least recently used messages are dropped when there are too many messages. <p>
+ * Example, counting the votes of a poll:
+ * <blockquote><pre>
+ *     int yes = tally.getCount(pollMessage, yesEmoji);
+ *     int no = tally.getCount(pollMessage, noEmoji);
+ * </pre></blockquote>
+ */
+public final class ReactionTally implements Listener {
+    private final Map<String, Map<String, Tally>> messages; // message ID -> emoji ID -> tally
+
+    /**
+     * Construct a tally that keeps up to 1000 messages.
+     */
+    public ReactionTally() {
+        this(1000);
+    }
+
+    /**
+     * The main constructor.
+     *
+     * @param maxMessages The maximum count of the messages to keep
+     */
+    public ReactionTally(int maxMessages) {
+        Validate.isTrue(maxMessages > 0, "maxMessages must be positive.");
+        this.messages = new LinkedHashMap<String, Map<String, Tally>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, Tally>> eldest) {
+                return size() > maxMessages;
+            }
+        };
+    }
+
+    /**
+     * Register this tally as a listener, so it can be kept up to date by the events.
+     *
+     * @param plugin The plugin as the listener's owner
+     */
+    public void register(Plugin plugin) {
+        JKook.getEventManager().registerHandlers(plugin, this);
+    }
+
+    /**
+     * Get the count of the users that reacted to the message with the emoji.
+     *
+     * @param message The message
+     * @param emoji   The emoji
+     */
+    public int getCount(Message message, CustomEmoji emoji) {
+        final Map<String, User> users = users(message, emoji);
+        synchronized (this) {
+            return users.size();
+        }
+    }
+
+    /**
+     * Get the counts of the users that reacted to the message with the emojis.
+     *
+     * @param message The message
+     * @param emojis  The emojis
+     * @return The counts, in the order of the provided emojis
+     */
+    public LinkedHashMap<CustomEmoji, Integer> getCounts(Message message, CustomEmoji... emojis) {
+        final LinkedHashMap<CustomEmoji, Integer> result = new LinkedHashMap<>();
+        for (CustomEmoji emoji : emojis) {
+            result.put(emoji, getCount(message, emoji));
+        }
+        return result;
+    }
+
+    /**
+     * Get the users that reacted to the message with the emoji, in reaction order. <p>
+     * The result is a read-only snapshot.
+     *
+     * @param message The message
+     * @param emoji   The emoji
+     */
+    public List<User> getUsers(Message message, CustomEmoji emoji) {
+        final Map<String, User> users = users(message, emoji);
+        synchronized (this) {
+            return Collections.unmodifiableList(new ArrayList<>(users.values()));
+        }
+    }
+
+    /**
+     * Return true if the user reacted to the message with the emoji.
+     *
+     * @param message The message
+     * @param emoji   The emoji
+     * @param user    The user
+     */
+    public boolean hasReacted(Message message, CustomEmoji emoji, User user) {
+        final Map<String, User> users = users(message, emoji);
+        synchronized (this) {
+            return users.containsKey(user.getId());
+        }
+    }
+
+    /**
+     * Forget the tally of the message. It will be fetched again on the next query.
+     *
+     * @param messageId The message ID
+     */
+    public synchronized void invalidate(String messageId) {
+        messages.remove(messageId);
+    }
+
+    /**
+     * Get the count of the messages kept by this tally.
+     */
+    public synchronized int size() {
+        return messages.size();
+    }
+
+    private Map<String, User> users(Message message, CustomEmoji emoji) {
+        final Tally tally;
+        final Tally existing;
+        synchronized (this) {
+            final Map<String, Tally> emojis = messages.computeIfAbsent(message.getId(), id -> new HashMap<>());
+            existing = emojis.get(emoji.getId());
+            if (existing != null && existing.users != null) {
+                return existing.users;
+            }
+            tally = existing == null ? new Tally() : null;
+            if (tally != null) {
+                emojis.put(emoji.getId(), tally); // the events are buffered into it from now on
+            }
+        }
+        if (existing != null) { // being fetched by another thread
+            return LoadingMap.join(existing.loaded);
+        }
+        final Collection<User> fetched;
+        try {
+            fetched = message.getUserByReaction(emoji); // fetch without holding the lock
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                final Map<String, Tally> emojis = messages.get(message.getId());
+                if (emojis != null && emojis.remove(emoji.getId(), tally) && emojis.isEmpty()) {
+                    messages.remove(message.getId());
+                }
+            }
+            tally.loaded.completeExceptionally(e);
+            throw e;
+        }
+        final Map<String, User> users = new LinkedHashMap<>();
+        for (User user : fetched) {
+            users.put(user.getId(), user);
+        }
+        synchronized (this) {
+            for (Map.Entry<User, Boolean> event : tally.pending) {
+                if (event.getValue()) {
+                    users.put(event.getKey().getId(), event.getKey());
+                } else {
+                    users.remove(event.getKey().getId());
+                }
+            }
+            tally.pending = null;
+            tally.users = users;
+        }
+        tally.loaded.complete(users);
+        return users;
+    }
+
+    // region Events
+
+    @EventHandler
+    public synchronized void onAddReaction(UserAddReactionEvent event) {
+        final Map<String, Tally> emojis = messages.get(event.getMessageId());
+        final Tally tally = emojis == null ? null : emojis.get(event.getEmoji().getId());
+        if (tally != null) { // we only update the fetched emojis, the others are fetched on demand
+            tally.apply(event.getUser(), true);
+        }
+    }
+
+    @EventHandler
+    public synchronized void onRemoveReaction(UserRemoveReactionEvent event) {
+        final Map<String, Tally> emojis = messages.get(event.getMessageId());
+        final Tally tally = emojis == null ? null : emojis.get(event.getReaction().getEmoji().getId());
+        if (tally != null) {
+            tally.apply(event.getUser(), false);
+        }
+    }
+
+    @EventHandler
+    public void onChannelMessageDelete(ChannelMessageDeleteEvent event) {
+        invalidate(event.getMessageId());
+    }
+
+    @EventHandler
+    public void onPrivateMessageDelete(PrivateMessageDeleteEvent event) {
+        invalidate(event.getMessageId());
+    }
+
+    // endregion
+
+    // guarded by ReactionTally.this, except the future
+    private static final class Tally {
+        private final CompletableFuture<Map<String, User>> loaded = new CompletableFuture<>();
+        private Map<String, User> users; // user ID -> user, null while fetching
+        private List<Map.Entry<User, Boolean>> pending = new ArrayList<>(); // the events received while fetching, true if added
+
+        private void apply(User user, boolean added) {
+            if (users == null) {
+                pending.add(new AbstractMap.SimpleImmutableEntry<>(user, added));
+            } else if (added) {
+                users.put(user.getId(), user);
+            } else {
+                users.remove(user.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.cache;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.JKook;
+import snw.jkook.entity.Guild;
+import snw.jkook.entity.User;
+import snw.jkook.entity.channel.VoiceChannel;
+import snw.jkook.event.EventHandler;
+import snw.jkook.event.Listener;
+import snw.jkook.event.channel.ChannelDeleteEvent;
+import snw.jkook.event.user.UserJoinVoiceChannelEvent;
+import snw.jkook.event.user.UserLeaveVoiceChannelEvent;
+import snw.jkook.plugin.Plugin;
+import snw.jkook.util.IdInterner;
+import snw.jkook.util.Long2ObjectMap;
+import snw.jkook.util.Validate;
+
+import java.util.*;
+
+/**
+ * A local index of the users in the voice channels, fed by {@link UserJoinVoiceChannelEvent} and {@link UserLeaveVoiceChannelEvent}. <p>
+ * Occupancy queries never send requests. The users that were already in a voice channel before this index was registered
+ *  are unknown, use {@link #seed(VoiceChannel)} to load them once. <p>
+ * This index also accounts the time that the users spent in the voice channels of each guild.
+ * The durations are calculated from the time stamps of the events, the current sessions are counted until now. <p>
+ * The sessions and durations are keyed by the indexes of the user IDs in an {@link IdInterner},
+ *  so the user IDs are stored once and the keys are never boxed.
+ */
+public final class VoicePresence implements Listener {
+    private final IdInterner userIds;
+    private final Long2ObjectMap<Session> sessions = new Long2ObjectMap<>(); // user index -> current session
+    private final Map<String, Map<String, User>> occupants = new HashMap<>(); // channel ID -> users, in join order
+    private final Map<String, Long2ObjectMap<Stat>> stats = new HashMap<>(); // guild ID -> user index -> accumulated time
+
+    /**
+     * Construct an index with its own {@link IdInterner}.
+     */
+    public VoicePresence() {
+        this(new IdInterner());
+    }
+
+    /**
+     * The main constructor.
+     *
+     * @param userIds The interner of the user IDs, it can be shared with other user caches
+     */
+    public VoicePresence(IdInterner userIds) {
+        Validate.notNull(userIds);
+        this.userIds = userIds;
+    }
+
+    /**
+     * Register this index as a listener, so it can be kept up to date by the events.
+     *
+     * @param plugin The plugin as the listener's owner
+     */
+    public void register(Plugin plugin) {
+        JKook.getEventManager().registerHandlers(plugin, this);
+    }
+
+    /**
+     * Load the users that are in the voice channel now, using {@link VoiceChannel#getUsers()}. <p>
+     * Their sessions are considered to start now.
+     *
+     * @param channel The voice channel
+     */
+    public void seed(VoiceChannel channel) {
+        final Collection<User> users = channel.getUsers();
+        final long now = System.currentTimeMillis();
+        synchronized (this) {
+            for (User user : users) {
+                final int index = userIds.indexOf(user.getId());
+                if (!sessions.containsKey(index)) {
+                    join(index, user, channel, now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the voice channel that the user is in.
+     *
+     * @param user The user
+     * @return The channel, or null if the user is not in any known voice channel
+     */
+    @Nullable
+    public synchronized VoiceChannel getChannel(User user) {
+        final Session session = session(user.getId());
+        return session == null ? null : session.channel;
+    }
+
+    /**
+     * Get the users in the voice channel, in join order. <p>
+     * The result is a read-only snapshot.
+     *
+     * @param channel The voice channel
+     */
+    public synchronized List<User> getOccupants(VoiceChannel channel) {
+        final Map<String, User> users = occupants.get(channel.getId());
+        return users == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(users.values()));
+    }
+
+    /**
+     * Get the count of the users in the voice channel.
+     *
+     * @param channel The voice channel
+     */
+    public synchronized int getOccupantCount(VoiceChannel channel) {
+        final Map<String, User> users = occupants.get(channel.getId());
+        return users == null ? 0 : users.size();
+    }
+
+    /**
+     * Get the voice channels of the guild that have users in them, with their users. <p>
+     * The result is a read-only snapshot.
+     *
+     * @param guild The guild
+     */
+    public synchronized Map<VoiceChannel, List<User>> getOccupiedChannels(Guild guild) {
+        final Map<String, VoiceChannel> channels = new LinkedHashMap<>();
+        for (Session session : sessions.values()) {
+            if (session.guildId.equals(guild.getId())) {
+                channels.putIfAbsent(session.channel.getId(), session.channel);
+            }
+        }
+        final Map<VoiceChannel, List<User>> result = new LinkedHashMap<>();
+        for (VoiceChannel channel : channels.values()) {
+            result.put(channel, getOccupants(channel));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Get the time (in milliseconds) that the user has been in the current voice channel.
+     *
+     * @param user The user
+     * @return The duration, or 0 if the user is not in any known voice channel
+     */
+    public synchronized long getSessionDuration(User user) {
+        final Session session = session(user.getId());
+        return session == null ? 0 : Math.max(0, System.currentTimeMillis() - session.joinedAt);
+    }
+
+    /**
+     * Get the total time (in milliseconds) that the user spent in the voice channels of the guild,
+     *  including the current session.
+     *
+     * @param guild The guild
+     * @param user  The user
+     */
+    public synchronized long getTotalDuration(Guild guild, User user) {
+        final int index = userIds.getIndex(user.getId());
+        final Long2ObjectMap<Stat> guildStats = index == -1 ? null : stats.get(guild.getId());
+        final Stat stat = guildStats == null ? null : guildStats.get(index);
+        return stat == null ? 0 : stat.total(sessions.get(index), guild.getId(), System.currentTimeMillis());
+    }
+
+    /**
+     * Get the users that spent the most time in the voice channels of the guild, with their total durations in milliseconds.
+     *
+     * @param guild The guild
+     * @param limit The maximum count of the users
+     * @return The users and durations, in descending order of the durations
+     */
+    public synchronized LinkedHashMap<User, Long> getTop(Guild guild, int limit) {
+        Validate.isTrue(limit > 0, "limit must be positive.");
+        final LinkedHashMap<User, Long> result = new LinkedHashMap<>();
+        final Long2ObjectMap<Stat> guildStats = stats.get(guild.getId());
+        if (guildStats == null) {
+            return result;
+        }
+        final long now = System.currentTimeMillis();
+        final PriorityQueue<Map.Entry<User, Long>> top = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        guildStats.forEach((index, stat) -> {
+            top.add(new AbstractMap.SimpleImmutableEntry<>(stat.user, stat.total(sessions.get(index), guild.getId(), now)));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+        final List<Map.Entry<User, Long>> sorted = new ArrayList<>(top);
+        sorted.sort(Map.Entry.<User, Long>comparingByValue().reversed());
+        for (Map.Entry<User, Long> entry : sorted) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Reset the accumulated durations of the guild. The current sessions are counted from now.
+     *
+     * @param guild The guild
+     */
+    public synchronized void resetDurations(Guild guild) {
+        stats.remove(guild.getId());
+        final long now = System.currentTimeMillis();
+        sessions.forEach((index, session) -> {
+            if (session.guildId.equals(guild.getId())) {
+                session.joinedAt = now;
+                stats.computeIfAbsent(session.guildId, id -> new Long2ObjectMap<>())
+                        .computeIfAbsent(index, i -> new Stat(session.user));
+            }
+        });
+    }
+
+    // guarded by this
+    @Nullable
+    private Session session(String userId) {
+        final int index = userIds.getIndex(userId);
+        return index == -1 ? null : sessions.get(index);
+    }
+
+    // guarded by this
+    private void join(int index, User user, VoiceChannel channel, long time) {
+        leave(index, time); // a user can be in one voice channel only
+        final Session session = new Session(user, channel, time);
+        sessions.put(index, session);
+        occupants.computeIfAbsent(channel.getId(), id -> new LinkedHashMap<>()).put(user.getId(), user);
+        stats.computeIfAbsent(session.guildId, id -> new Long2ObjectMap<>())
+                .computeIfAbsent(index, i -> new Stat(user)).user = user;
+    }
+
+    // guarded by this
+    private void leave(int index, long time) {
+        final Session session = index == -1 ? null : sessions.remove(index);
+        if (session == null) {
+            return;
+        }
+        final Map<String, User> users = occupants.get(session.channel.getId());
+        if (users != null) {
+            users.remove(session.user.getId());
+            if (users.isEmpty()) {
+                occupants.remove(session.channel.getId());
+            }
+        }
+        final Long2ObjectMap<Stat> guildStats = stats.get(session.guildId);
+        final Stat stat = guildStats == null ? null : guildStats.get(index);
+        if (stat != null) {
+            stat.accumulated += Math.max(0, time - session.joinedAt);
+        }
+    }
+
+    // region Events
+
+    @EventHandler
+    public synchronized void onJoin(UserJoinVoiceChannelEvent event) {
+        join(userIds.indexOf(event.getUser().getId()), event.getUser(), event.getChannel(), event.getTimeStamp());
+    }
+
+    @EventHandler
+    public synchronized void onLeave(UserLeaveVoiceChannelEvent event) {
+        final int index = userIds.getIndex(event.getUser().getId());
+        final Session session = index == -1 ? null : sessions.get(index);
+        if (session != null && session.channel.getId().equals(event.getChannel().getId())) {
+            leave(index, event.getTimeStamp());
+        }
+    }
+
+    @EventHandler
+    public synchronized void onChannelDelete(ChannelDeleteEvent event) {
+        final Map<String, User> users = occupants.get(event.getChannelId());
+        if (users != null) {
+            for (String userId : new ArrayList<>(users.keySet())) {
+                leave(userIds.getIndex(userId), event.getTimeStamp());
+            }
+        }
+    }
+
+    // endregion
+
+    private static final class Session {
+        private final User user;
+        private final VoiceChannel channel;
+        private final String guildId;
+        private long joinedAt;
+
+        private Session(User user, VoiceChannel channel, long joinedAt) {
+            this.user = user;
+            this.channel = channel;
+            this.guildId = channel.getGuild().getId();
+            this.joinedAt = joinedAt;
+        }
+    }
+
+    private static final class Stat {
+        private User user;
+        private long accumulated;
+
+        private Stat(User user) {
+            this.user = user;
+        }
+
+        private long total(@Nullable Session current, String guildId, long now) {
+            return current == null || !current.guildId.equals(guildId) ? accumulated : accumulated + Math.max(0, now - current.joinedAt);
+        }
+    }
+}
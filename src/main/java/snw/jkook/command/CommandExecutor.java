@@ -17,6 +17,7 @@
 package snw.jkook.command;
 
 import org.jetbrains.annotations.Nullable;
+import snw.jkook.command.argument.ParsedArguments;
 import snw.jkook.message.Message;
 
 /**
@@ -34,4 +35,31 @@ public interface CommandExecutor {
      * @param message The message related to this execution (Maybe null if the console executed this command)
      */
     void onCommand(CommandSender sender, String[] arguments, @Nullable Message message);
+
+    /**
+     * Execute this command with the tokenized arguments. <p>
+     * Command managers call this method. By default, it creates the argument array and calls {@link #onCommand(CommandSender, String[], Message)},
+     *  override this if you want to read the arguments without creating the array.
+     *
+     * @param sender    The sender
+     * @param arguments The arguments
+     * @param message   The message related to this execution (Maybe null if the console executed this command)
+     */
+    default void onCommand(CommandSender sender, CommandLine arguments, @Nullable Message message) {
+        onCommand(sender, arguments.toArray(), message);
+    }
+
+    /**
+     * Execute this command with the typed arguments. <p>
+     * Command managers call this method if the command declared its arguments.
+     * By default, it calls {@link #onCommand(CommandSender, CommandLine, Message)}.
+     *
+     * @param sender    The sender
+     * @param arguments The parsed arguments
+     * @param message   The message related to this execution (Maybe null if the console executed this command)
+     * @see JKookCommand#addArgument(String, snw.jkook.command.argument.ArgumentType)
+     */
+    default void onCommand(CommandSender sender, ParsedArguments arguments, @Nullable Message message) {
+        onCommand(sender, arguments.getCommandLine(), message);
+    }
 }
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.message.component.MarkdownComponent;
+import snw.jkook.message.component.card.CardBuilder;
+import snw.jkook.message.component.card.MultipleCardComponent;
+import snw.jkook.message.component.card.Size;
+import snw.jkook.message.component.card.Theme;
+import snw.jkook.message.component.card.element.MarkdownElement;
+import snw.jkook.message.component.card.module.ContextModule;
+import snw.jkook.message.component.card.module.DividerModule;
+import snw.jkook.message.component.card.module.HeaderModule;
+import snw.jkook.message.component.card.module.SectionModule;
+import snw.jkook.message.component.card.element.PlainTextElement;
+import snw.jkook.util.Validate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Renders the help pages of the commands. <p>
+ * The pages are rendered once after each {@link #invalidate()} and cached,
+ *  so serving a help request costs only an array or map lookup.
+ *
+ * @see CommandManager#getHelp()
+ */
+public final class CommandHelp {
+
+    /** The default count of the commands in a page. */
+    public static final int DEFAULT_PAGE_SIZE = 10;
+
+    private final Supplier<Collection<JKookCommand>> commands;
+    private final int pageSize;
+    private volatile Pages pages;
+    // increased by invalidate(), so a render that started before an invalidation won't be cached
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * Construct a help renderer with {@link #DEFAULT_PAGE_SIZE}.
+     *
+     * @param commands The supplier of the commands to render (e.g. <code>manager::getCommands</code>)
+     */
+    public CommandHelp(Supplier<Collection<JKookCommand>> commands) {
+        this(commands, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * The main constructor.
+     *
+     * @param commands The supplier of the commands to render (e.g. <code>manager::getCommands</code>)
+     * @param pageSize The count of the commands in a page, up to 40 (a card can't hold more modules)
+     */
+    public CommandHelp(Supplier<Collection<JKookCommand>> commands, int pageSize) {
+        Validate.notNull(commands);
+        Validate.isTrue(pageSize > 0 && pageSize <= 40, "Page size must be in [1, 40].");
+        this.commands = commands;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Discard the cached pages. They will be rendered again on the next request. <p>
+     * Command managers should call this after a command was registered.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        pages = null;
+    }
+
+    /**
+     * Get the count of the pages.
+     */
+    public int getPageCount() {
+        return pages().markdown.length;
+    }
+
+    /**
+     * Get a page of the command list in KMarkdown.
+     *
+     * @param page The page number, starts from 1
+     * @throws IllegalArgumentException Thrown if the page does not exist
+     */
+    public MarkdownComponent getMarkdownPage(int page) throws IllegalArgumentException {
+        final Pages pages = pages();
+        checkPage(pages, page);
+        return pages.markdown[page - 1];
+    }
+
+    /**
+     * Get a page of the command list in a card.
+     *
+     * @param page The page number, starts from 1
+     * @throws IllegalArgumentException Thrown if the page does not exist
+     */
+    public MultipleCardComponent getCardPage(int page) throws IllegalArgumentException {
+        final Pages pages = pages();
+        checkPage(pages, page);
+        return pages.cards[page - 1];
+    }
+
+    /**
+     * Get the detailed help of a command in KMarkdown. <p>
+     * It contains the help content (or the description if no help content was set), the usage of the arguments and the subcommands.
+     *
+     * @param name The root name or an alias of the command
+     * @return The help, null if no command has the provided name
+     */
+    @Nullable
+    public MarkdownComponent getCommandHelp(String name) {
+        return pages().details.get(name);
+    }
+
+    private static void checkPage(Pages pages, int page) {
+        Validate.isTrue(page >= 1 && page <= pages.markdown.length, "Page " + page + " does not exist. Total pages: " + pages.markdown.length);
+    }
+
+    private Pages pages() {
+        Pages result = pages;
+        if (result == null) {
+            synchronized (this) {
+                result = pages;
+                if (result == null) {
+                    final int expected = generation.get();
+                    result = render(new ArrayList<>(commands.get()));
+                    if (generation.get() == expected) {
+                        pages = result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private Pages render(List<JKookCommand> commands) {
+        commands.sort(Comparator.comparing(JKookCommand::getRootName));
+        final int pageCount = Math.max(1, (commands.size() + pageSize - 1) / pageSize);
+        final MarkdownComponent[] markdown = new MarkdownComponent[pageCount];
+        final MultipleCardComponent[] cards = new MultipleCardComponent[pageCount];
+        for (int page = 0; page < pageCount; page++) {
+            final List<JKookCommand> slice = commands.subList(page * pageSize, Math.min(commands.size(), (page + 1) * pageSize));
+            final String title = "Commands (" + (page + 1) + "/" + pageCount + ")";
+            final StringBuilder text = new StringBuilder("**").append(title).append("**");
+            final CardBuilder card = new CardBuilder()
+                    .setTheme(Theme.INFO)
+                    .setSize(Size.LG)
+                    .addModule(new HeaderModule(title))
+                    .addModule(DividerModule.INSTANCE);
+            for (JKookCommand command : slice) {
+                final String line = summary(command);
+                text.append('\n').append(line);
+                card.addModule(new SectionModule(new MarkdownElement(line), null, null));
+            }
+            if (slice.isEmpty()) {
+                text.append("\nNo commands.");
+                card.addModule(new SectionModule(new PlainTextElement("No commands."), null, null));
+            }
+            card.addModule(new ContextModule.Builder().add(new PlainTextElement("Page " + (page + 1) + " of " + pageCount)).build());
+            markdown[page] = new MarkdownComponent(text.toString());
+            cards[page] = card.build();
+        }
+        final Map<String, MarkdownComponent> details = new HashMap<>();
+        for (JKookCommand command : commands) {
+            final MarkdownComponent detail = new MarkdownComponent(detail(command));
+            details.put(command.getRootName(), detail);
+            for (String alias : command.getAliases()) {
+                details.putIfAbsent(alias, detail);
+            }
+        }
+        return new Pages(markdown, cards, details);
+    }
+
+    private static String summary(JKookCommand command) {
+        final StringBuilder builder = new StringBuilder("`").append(usage(command)).append('`');
+        if (command.getDescription() != null) {
+            builder.append(" - ").append(command.getDescription());
+        }
+        return builder.toString();
+    }
+
+    private static String detail(JKookCommand command) {
+        final StringBuilder builder = new StringBuilder("**").append(usage(command)).append("**");
+        final String content = command.getHelpContent() != null ? command.getHelpContent() : command.getDescription();
+        if (content != null) {
+            builder.append('\n').append(content);
+        }
+        if (!command.getAliases().isEmpty()) {
+            builder.append("\nAliases: ").append(String.join(", ", new TreeSet<>(command.getAliases())));
+        }
+        if (!command.getSubcommands().isEmpty()) {
+            builder.append("\nSubcommands:");
+            for (JKookCommand subcommand : command.getSubcommands()) {
+                builder.append("\n- `").append(subcommand.getRootName());
+                if (!subcommand.getArguments().isEmpty()) {
+                    builder.append(' ').append(subcommand.getArguments().getUsage());
+                }
+                builder.append('`');
+                if (subcommand.getDescription() != null) {
+                    builder.append(" - ").append(subcommand.getDescription());
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String usage(JKookCommand command) {
+        final String prefix = command.getPrefixes().isEmpty() ? "" : new TreeSet<>(command.getPrefixes()).first();
+        final String arguments = command.getArguments().getUsage();
+        return arguments.isEmpty() ? prefix + command.getRootName() : prefix + command.getRootName() + " " + arguments;
+    }
+
+    private static final class Pages {
+        private final MarkdownComponent[] markdown;
+        private final MultipleCardComponent[] cards;
+        private final Map<String, MarkdownComponent> details;
+
+        private Pages(MarkdownComponent[] markdown, MultipleCardComponent[] cards, Map<String, MarkdownComponent> details) {
+            this.markdown = markdown;
+            this.cards = cards;
+            this.details = details;
+        }
+    }
+}
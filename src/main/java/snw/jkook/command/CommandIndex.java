@@ -0,0 +1,253 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.util.Validate;
+
+import java.util.*;
+
+/**
+ * A compiled dispatch index of the registered commands. <p>
+ * Every "prefix + root name" and "prefix + alias" of the registered commands is stored in a prefix trie,
+ *  and every command node holds a map of its subcommands (by root name and aliases). <p>
+ * So resolving a command line costs time proportional to the length of the command line,
+ *  not the number of registered commands. <p>
+ * This index is designed for {@link CommandManager} implementations.
+ * Registration copies only the trie nodes on the paths of the new keys and publishes the new root atomically,
+ *  so {@link #resolve(CharSequence)} never needs a lock, and registering a command does not cost more as more commands are registered.
+ */
+public final class CommandIndex {
+    private final Map<String, JKookCommand> commands = new LinkedHashMap<>();
+    private volatile Node root = new Node();
+
+    /**
+     * Add a command to this index.
+     *
+     * @param command The command to add
+     * @throws IllegalArgumentException Thrown if the command with the same root name was registered,
+     *                                  or one of its "prefix + name" combination is used by another command
+     */
+    public synchronized void register(JKookCommand command) throws IllegalArgumentException {
+        Validate.notNull(command);
+        Validate.isFalse(commands.containsKey(command.getRootName()), "The command with the same root name has already registered.");
+        final Node newRoot = insert(root, command); // throws before anything is published
+        commands.put(command.getRootName(), command);
+        root = newRoot;
+    }
+
+    /**
+     * Get the command registered with the provided root name.
+     *
+     * @param rootName The root name
+     * @return The command, or null if not found
+     */
+    @Nullable
+    public synchronized JKookCommand getCommand(String rootName) {
+        return commands.get(rootName);
+    }
+
+    /**
+     * Get all the root commands in this index, in registration order. <p>
+     * The result is a read-only snapshot.
+     */
+    public synchronized Collection<JKookCommand> getCommands() {
+        return Collections.unmodifiableList(new ArrayList<>(commands.values()));
+    }
+
+    /**
+     * Find the command that the provided command line would execute. <p>
+     * The longest matching "prefix + name" is used, then the following words are matched against the subcommands
+     *  for as long as they match.
+     *
+     * @param cmdLine The command line, prefix is needed (e.g. <code>/hello world</code>)
+     * @return The match, or null if no command matches
+     */
+    @Nullable
+    public Match resolve(CharSequence cmdLine) {
+        final Node top = root;
+        final int length = cmdLine.length();
+        Node node = top;
+        Entry found = null;
+        int end = 0;
+        for (int i = 0; i < length; i++) {
+            char c = cmdLine.charAt(i);
+            if (Character.isWhitespace(c)) {
+                break;
+            }
+            node = node.child(c);
+            if (node == null) {
+                break;
+            }
+            if (node.entry != null && (i + 1 == length || Character.isWhitespace(cmdLine.charAt(i + 1)))) {
+                found = node.entry;
+                end = i + 1;
+            }
+        }
+        if (found == null) {
+            return null;
+        }
+        int argStart = skipWhitespace(cmdLine, end);
+        while (!found.subcommands.isEmpty() && argStart < length) {
+            int wordEnd = argStart;
+            while (wordEnd < length && !Character.isWhitespace(cmdLine.charAt(wordEnd))) {
+                wordEnd++;
+            }
+            Entry sub = found.subcommands.get(cmdLine.subSequence(argStart, wordEnd).toString());
+            if (sub == null) {
+                break;
+            }
+            found = sub;
+            argStart = skipWhitespace(cmdLine, wordEnd);
+        }
+        return new Match(found.command, argStart);
+    }
+
+    private static int skipWhitespace(CharSequence cmdLine, int from) {
+        while (from < cmdLine.length() && Character.isWhitespace(cmdLine.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    // returns the new root, the provided root is not modified
+    private static Node insert(Node root, JKookCommand command) {
+        final Entry entry = compile(command);
+        for (String prefix : command.getPrefixes()) {
+            root = insertKey(root, prefix + command.getRootName(), 0, entry);
+            for (String alias : command.getAliases()) {
+                root = insertKey(root, prefix + alias, 0, entry);
+            }
+        }
+        return root;
+    }
+
+    // returns a copy of the node with the key inserted, only the nodes on the path of the key are copied
+    private static Node insertKey(Node node, String key, int depth, Entry entry) {
+        final Node copy = node.copy();
+        if (depth == key.length()) {
+            if (node.entry != null && node.entry.command != entry.command) {
+                throw new IllegalArgumentException("The command key '" + key + "' is already used by command '" + node.entry.command.getRootName() + "'.");
+            }
+            copy.entry = entry;
+            return copy;
+        }
+        final char c = key.charAt(depth);
+        final Node child = node.child(c);
+        copy.setChild(c, insertKey(child == null ? new Node() : child, key, depth + 1, entry));
+        return copy;
+    }
+
+    private static Entry compile(JKookCommand command) {
+        final Collection<JKookCommand> subcommands = command.getSubcommands();
+        if (subcommands.isEmpty()) {
+            return new Entry(command, Collections.emptyMap());
+        }
+        final Map<String, Entry> map = new HashMap<>();
+        for (JKookCommand subcommand : subcommands) {
+            final Entry subEntry = compile(subcommand);
+            map.put(subcommand.getRootName(), subEntry);
+            for (String alias : subcommand.getAliases()) {
+                map.putIfAbsent(alias, subEntry);
+            }
+        }
+        return new Entry(command, map);
+    }
+
+    /**
+     * Represents the result of {@link #resolve(CharSequence)}.
+     */
+    public static final class Match {
+        private final JKookCommand command;
+        private final int argumentsOffset;
+
+        private Match(JKookCommand command, int argumentsOffset) {
+            this.command = command;
+            this.argumentsOffset = argumentsOffset;
+        }
+
+        /**
+         * Get the matched command. It may be a subcommand of a registered command.
+         */
+        public JKookCommand getCommand() {
+            return command;
+        }
+
+        /**
+         * Get the index in the command line where the arguments of the matched command start. <p>
+         * It is equal to the length of the command line if there are no arguments.
+         */
+        public int getArgumentsOffset() {
+            return argumentsOffset;
+        }
+    }
+
+    private static final class Entry {
+        private final JKookCommand command;
+        private final Map<String, Entry> subcommands;
+
+        private Entry(JKookCommand command, Map<String, Entry> subcommands) {
+            this.command = command;
+            this.subcommands = subcommands;
+        }
+    }
+
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        // sorted, so we can use binary search. most nodes have only one or two children.
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private Entry entry;
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index < 0 ? null : children[index];
+        }
+
+        private Node copy() {
+            final Node copy = new Node();
+            copy.keys = keys;
+            copy.children = children;
+            copy.entry = entry;
+            return copy;
+        }
+
+        // the arrays may be shared with the original node, so they are replaced instead of modified
+        private void setChild(char c, Node child) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                Node[] newChildren = children.clone();
+                newChildren[index] = child;
+                children = newChildren;
+                return;
+            }
+            int insertAt = -(index + 1);
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = child;
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+}
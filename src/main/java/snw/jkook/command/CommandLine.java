@@ -0,0 +1,303 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command;
+
+import snw.jkook.util.Validate;
+
+/**
+ * Represents the tokenized arguments of a command line. <p>
+ * The arguments are separated by whitespaces. Use double quotes or single quotes to include whitespaces in an argument
+ *  (e.g. <code>/say "hello world"</code>), and use backslash to escape quotes, whitespaces and backslashes. <p>
+ * A quote only opens at the start of an argument. The quotes inside an argument (e.g. <code>it's</code>)
+ *  and the unclosed quotes are plain text, so ordinary chat input never fails to tokenize. <p>
+ * Tokenizing only records the offsets of the arguments in the source,
+ *  the argument strings are created on the first access of {@link #get(int)}.
+ * Use {@link #view(int)} to read an argument without copying it when possible.
+ */
+public final class CommandLine {
+    private static final int[] NO_TOKENS = new int[0];
+
+    // flags of a token, QUOTED and ESCAPED can be combined
+    private static final int PLAIN = 0; // the raw range is the value
+    private static final int QUOTED = 1; // starts with a closed quote, without ESCAPED the value is the raw range without the quotes
+    private static final int ESCAPED = 2; // the value must be unescaped
+
+    private final CharSequence source;
+    private final int offset;
+    // 3 ints per token: start (inclusive), end (exclusive), flag
+    private final int[] tokens;
+    private final int size;
+    private String[] materialized; // created on demand
+
+    private CommandLine(CharSequence source, int offset, int[] tokens, int size) {
+        this.source = source;
+        this.offset = offset;
+        this.tokens = tokens;
+        this.size = size;
+    }
+
+    /**
+     * Tokenize the whole provided text.
+     *
+     * @param source The text to tokenize, it should not contain the command name
+     */
+    public static CommandLine parse(CharSequence source) {
+        return parse(source, 0);
+    }
+
+    /**
+     * Tokenize the provided text, starting at the provided offset. <p>
+     * The offset is usually {@link CommandIndex.Match#getArgumentsOffset()}.
+     *
+     * @param source The text to tokenize
+     * @param offset The index where the arguments start
+     */
+    public static CommandLine parse(CharSequence source, int offset) {
+        Validate.notNull(source);
+        Validate.isTrue(offset >= 0 && offset <= source.length(), "Offset is out of range.");
+        final int length = source.length();
+        int[] tokens = NO_TOKENS;
+        int size = 0;
+        int i = offset;
+        while (true) {
+            while (i < length && Character.isWhitespace(source.charAt(i))) {
+                i++;
+            }
+            if (i >= length) {
+                break;
+            }
+            final int start = i;
+            int flag = PLAIN;
+            final char first = source.charAt(start);
+            if (first == '"' || first == '\'') {
+                // find the closing quote, if there is none, the opening quote is plain text
+                for (int j = start + 1; j < length; j++) {
+                    final char c = source.charAt(j);
+                    if (c == '\\') {
+                        flag |= ESCAPED;
+                        j++; // skip the escaped character
+                    } else if (c == first) {
+                        flag |= QUOTED;
+                        i = j + 1;
+                        break;
+                    }
+                }
+                if ((flag & QUOTED) == 0) {
+                    flag = PLAIN;
+                }
+            }
+            for (; i < length; i++) {
+                final char c = source.charAt(i);
+                if (c == '\\') {
+                    flag |= ESCAPED;
+                    i++; // skip the escaped character
+                } else if (Character.isWhitespace(c)) {
+                    break;
+                } else if (flag == QUOTED) {
+                    flag |= ESCAPED; // something like "a"b
+                }
+            }
+            final int end = Math.min(i, length);
+            if (tokens.length == size * 3) {
+                int[] grown = new int[Math.max(12, tokens.length * 2)];
+                System.arraycopy(tokens, 0, grown, 0, tokens.length);
+                tokens = grown;
+            }
+            tokens[size * 3] = start;
+            tokens[size * 3 + 1] = end;
+            tokens[size * 3 + 2] = flag;
+            size++;
+        }
+        return new CommandLine(source, offset, tokens, size);
+    }
+
+    /**
+     * Create a command line of the provided arguments, which are already split. <p>
+     * Whitespaces, quotes and backslashes in the arguments are escaped,
+     *  so {@link #get(int)} returns the provided arguments as-is.
+     *
+     * @param arguments The arguments
+     */
+    public static CommandLine of(String... arguments) {
+        Validate.notNull(arguments);
+        final StringBuilder builder = new StringBuilder();
+        for (String argument : arguments) {
+            Validate.notNull(argument);
+            if (builder.length() != 0) {
+                builder.append(' ');
+            }
+            if (argument.isEmpty()) {
+                builder.append("\"\""); // keep the empty argument
+                continue;
+            }
+            for (int i = 0; i < argument.length(); i++) {
+                final char c = argument.charAt(i);
+                if (c == '\\' || c == '"' || c == '\'' || Character.isWhitespace(c)) {
+                    builder.append('\\');
+                }
+                builder.append(c);
+            }
+        }
+        return parse(builder);
+    }
+
+    /**
+     * Get the count of the arguments.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return true if there are no arguments.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the argument at the provided index, quotes and escapes are processed. <p>
+     * The string is created on the first call and cached.
+     *
+     * @param index The index of the argument
+     * @throws IndexOutOfBoundsException Thrown if the index is out of range
+     */
+    public String get(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        if (materialized == null) {
+            materialized = new String[size];
+        }
+        String result = materialized[index];
+        if (result == null) {
+            result = materialized[index] = view(index).toString();
+        }
+        return result;
+    }
+
+    /**
+     * Get the argument at the provided index, quotes and escapes are processed. <p>
+     * If the argument does not contain escapes, the result is a view of the source, no characters are copied.
+     *
+     * @param index The index of the argument
+     * @throws IndexOutOfBoundsException Thrown if the index is out of range
+     */
+    public CharSequence view(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        if (materialized != null && materialized[index] != null) {
+            return materialized[index];
+        }
+        final int start = tokens[index * 3];
+        final int end = tokens[index * 3 + 1];
+        switch (tokens[index * 3 + 2]) {
+            case PLAIN:
+                return source.subSequence(start, end);
+            case QUOTED:
+                return source.subSequence(start + 1, end - 1);
+            default:
+                return unescape(start, end, (tokens[index * 3 + 2] & QUOTED) != 0);
+        }
+    }
+
+    /**
+     * Get the raw text of the argument at the provided index, quotes and escapes are <b>NOT</b> processed.
+     *
+     * @param index The index of the argument
+     * @throws IndexOutOfBoundsException Thrown if the index is out of range
+     */
+    public CharSequence getRaw(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        return source.subSequence(tokens[index * 3], tokens[index * 3 + 1]);
+    }
+
+    /**
+     * Get the raw text from the start of the argument at the provided index to the end of the command line. <p>
+     * Useful for "greedy" arguments, e.g. the message content in <code>/say hello world</code>.
+     *
+     * @param index The index of the first argument
+     * @throws IndexOutOfBoundsException Thrown if the index is out of range
+     */
+    public String getRemaining(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        return source.subSequence(tokens[index * 3], source.length()).toString();
+    }
+
+    /**
+     * Get the start index of the argument at the provided index in the source.
+     *
+     * @param index The index of the argument
+     * @throws IndexOutOfBoundsException Thrown if the index is out of range
+     */
+    public int getStart(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        return tokens[index * 3];
+    }
+
+    /**
+     * Get the text that tokenized by this object.
+     */
+    public CharSequence getSource() {
+        return source;
+    }
+
+    /**
+     * Get the index in the source where the arguments start.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Create an array of all the arguments, quotes and escapes are processed.
+     */
+    public String[] toArray() {
+        String[] result = new String[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = get(i);
+        }
+        return result;
+    }
+
+    private String unescape(int start, int end, boolean quoted) {
+        StringBuilder builder = new StringBuilder(end - start);
+        char quote = quoted ? source.charAt(start) : 0; // only the quote at the start can be closed
+        for (int i = quoted ? start + 1 : start; i < end; i++) {
+            char c = source.charAt(i);
+            if (c == '\\' && i + 1 < end) {
+                builder.append(source.charAt(++i));
+            } else if (quote != 0 && c == quote) {
+                quote = 0;
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Return the arguments part of the source.
+     */
+    @Override
+    public String toString() {
+        return source.subSequence(offset, source.length()).toString();
+    }
+}
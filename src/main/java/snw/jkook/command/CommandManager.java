@@ -16,13 +16,30 @@
 
 package snw.jkook.command;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 /**
- * Represents the command manager.
+ * Represents the command manager. <p>
+ * Implementations should execute a command line in the following steps:
+ * <ol>
+ *     <li>Find the command using a {@link CommandIndex},
+ *      so the cost does not grow with the number of registered commands.</li>
+ *     <li>Reject the invocation if it is throttled by the rate limits of the command (see {@link JKookCommand#tryAcquire}).</li>
+ *     <li>Tokenize the arguments using {@link CommandLine}.</li>
+ *     <li>If the command declared its arguments (see {@link JKookCommand#getArguments()}), parse them,
+ *      and call the {@link snw.jkook.command.argument.ParsedArguments} overload of the executor.
+ *      Otherwise, call the {@link CommandLine} overload of the executor.</li>
+ *     <li>Record the result in the {@link CommandMetrics} of the command (see {@link #getStatistics()}).</li>
+ * </ol>
  */
 public interface CommandManager {
 
     /**
-     * Register a command.
+     * Register a command. <p>
+     * The cached help pages (see {@link #getHelp()}) will be invalidated.
      *
      * @param command The command to register
      * @throws IllegalArgumentException Thrown if the command with the same root name was registered
@@ -38,4 +55,78 @@ public interface CommandManager {
      * @return True if command found and executed, false otherwise
      */
     boolean executeCommand(CommandSender sender, String cmdLine) throws CommandException;
+
+    /**
+     * Execute a command with given command line asynchronously. <p>
+     * The command is executed on a thread pool owned by the implementation, so the caller (e.g. the event thread) won't be blocked. <p>
+     * If the command has a serialization scope (see {@link JKookCommand#setSerializationScope}),
+     *  the executions in the same scope key run one after another, others still run concurrently.
+     * Implementations can use {@link snw.jkook.util.KeyedExecutor} for this. <p>
+     * The default implementation calls {@link #executeCommand(CommandSender, String)} on the common pool
+     *  of {@link java.util.concurrent.ForkJoinPool}, without the serialization scopes.
+     *
+     * @param sender The sender of this command
+     * @param cmdLine The command line, prefix is needed (e.g. <code>/hello</code>)
+     * @return The future of the result, it will be completed with true if command found and executed, false otherwise.
+     *         If the execution failed, it will be completed exceptionally with a {@link CommandException}
+     */
+    default CompletableFuture<Boolean> executeCommandAsync(CommandSender sender, String cmdLine) {
+        return CompletableFuture.supplyAsync(() -> executeCommand(sender, cmdLine));
+    }
+
+    /**
+     * Get the command that the provided command line would execute. <p>
+     * It may be a subcommand of a registered command.
+     *
+     * @param cmdLine The command line, prefix is needed (e.g. <code>/hello</code>)
+     * @return The command, or null if not found
+     * @throws UnsupportedOperationException Thrown if the implementation does not provide {@link #getCommandIndex()}
+     * @see CommandIndex#resolve(CharSequence)
+     */
+    @Nullable
+    default JKookCommand getCommand(String cmdLine) throws UnsupportedOperationException {
+        final CommandIndex.Match match = getCommandIndex().resolve(cmdLine);
+        return match == null ? null : match.getCommand();
+    }
+
+    /**
+     * Get all the registered commands (not including the subcommands). <p>
+     * The result is read-only.
+     *
+     * @throws UnsupportedOperationException Thrown if the implementation does not provide {@link #getCommandIndex()}
+     */
+    default Collection<JKookCommand> getCommands() throws UnsupportedOperationException {
+        return getCommandIndex().getCommands();
+    }
+
+    /**
+     * Get the index that the registered commands are registered into. <p>
+     * {@link #getCommand(String)} and {@link #getCommands()} are based on it by default.
+     * Implementations should register the commands into a {@link CommandIndex} and return it here.
+     * The default throws, as the older implementations don't have an index.
+     *
+     * @throws UnsupportedOperationException Thrown if the implementation does not provide the index
+     */
+    default CommandIndex getCommandIndex() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("This command manager does not provide a command index.");
+    }
+
+    /**
+     * Get the usage metrics of the commands. <p>
+     * Use {@link CommandStatistics#createCommand(String)} if you want to query them from the console. <p>
+     * The default implementation returns new, empty statistics, because the older implementations record nothing.
+     */
+    default CommandStatistics getStatistics() {
+        return new CommandStatistics();
+    }
+
+    /**
+     * Get the help pages of the registered commands. <p>
+     * The pages are cached, and invalidated on {@link #registerCommand(JKookCommand)}. <p>
+     * The default implementation returns a new {@link CommandHelp} of {@link #getCommands()} on every call,
+     *  so its pages are rendered from the current commands but not cached between the calls.
+     */
+    default CommandHelp getHelp() {
+        return new CommandHelp(this::getCommands);
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.util.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents the usage metrics of a command. All the methods are thread-safe.
+ *
+ * @see CommandStatistics
+ */
+public final class CommandMetrics {
+    private final JKookCommand command;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder commandExceptions = new LongAdder();
+    private final LongAdder permissionDenials = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    CommandMetrics(JKookCommand command) {
+        this.command = command;
+    }
+
+    /**
+     * Record an execution of the command.
+     *
+     * @param nanos The time that the execution took, in nanoseconds
+     * @param error The error thrown by the execution, null if it was successful
+     */
+    public void recordExecution(long nanos, @Nullable Throwable error) {
+        invocations.increment();
+        latency.record(nanos);
+        if (error != null) {
+            failures.increment();
+            if (error instanceof CommandException) {
+                commandExceptions.increment();
+            }
+        }
+    }
+
+    /**
+     * Record an invocation that was rejected because the sender does not have the permission.
+     */
+    public void recordPermissionDenied() {
+        permissionDenials.increment();
+    }
+
+    /**
+     * Record an invocation that was rejected by the rate limits of the command.
+     */
+    public void recordThrottled() {
+        throttled.increment();
+    }
+
+    /**
+     * Get the command of these metrics.
+     */
+    public JKookCommand getCommand() {
+        return command;
+    }
+
+    /**
+     * Get the count of the executions.
+     */
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    /**
+     * Get the count of the failed executions (including the ones failed with {@link CommandException}).
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Get the count of the executions failed with {@link CommandException}.
+     */
+    public long getCommandExceptions() {
+        return commandExceptions.sum();
+    }
+
+    /**
+     * Get the count of the invocations rejected because the sender does not have the permission.
+     */
+    public long getPermissionDenials() {
+        return permissionDenials.sum();
+    }
+
+    /**
+     * Get the count of the invocations rejected by the rate limits.
+     */
+    public long getThrottled() {
+        return throttled.sum();
+    }
+
+    /**
+     * Get the latency histogram of the executions.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Clear all the metrics.
+     */
+    public void reset() {
+        invocations.reset();
+        failures.reset();
+        commandExceptions.reset();
+        permissionDenials.reset();
+        throttled.reset();
+        latency.reset();
+    }
+}
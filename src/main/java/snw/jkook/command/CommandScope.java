@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.entity.User;
+import snw.jkook.message.Message;
+import snw.jkook.message.TextChannelMessage;
+
+/**
+ * Represents the scope of a per-command state (e.g. a rate limit). <p>
+ * The invocations with the same key share the state.
+ */
+public enum CommandScope {
+
+    /**
+     * Each user has its own state.
+     */
+    USER,
+
+    /**
+     * Each text channel has its own state. The private chats are regarded as the channels of the users.
+     */
+    CHANNEL,
+
+    /**
+     * Each guild has its own state. The private chats are regarded as the guilds of the users.
+     */
+    GUILD,
+
+    /**
+     * All the invocations share one state.
+     */
+    GLOBAL;
+
+    /**
+     * Get the key of the provided invocation in this scope. <p>
+     * Null is returned if the invocation does not belong to any key in this scope
+     *  (e.g. the console is not a user, so it has no key in {@link #USER} scope).
+     *
+     * @param sender  The sender of the command
+     * @param message The message related to the command (Maybe null if the console executed the command)
+     */
+    @Nullable
+    public String getKey(CommandSender sender, @Nullable Message message) {
+        switch (this) {
+            case GLOBAL:
+                return "";
+            case USER:
+                return sender instanceof User ? ((User) sender).getId() : null;
+            case CHANNEL:
+                if (message instanceof TextChannelMessage) {
+                    return ((TextChannelMessage) message).getChannel().getId();
+                }
+                return sender instanceof User ? "user:" + ((User) sender).getId() : null;
+            case GUILD:
+                if (message instanceof TextChannelMessage) {
+                    return ((TextChannelMessage) message).getChannel().getGuild().getId();
+                }
+                return sender instanceof User ? "user:" + ((User) sender).getId() : null;
+            default:
+                throw new AssertionError();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command;
+
+import snw.jkook.JKook;
+import snw.jkook.command.argument.ArgumentTypes;
+import snw.jkook.command.argument.ParsedArguments;
+import snw.jkook.util.LatencyHistogram;
+import snw.jkook.util.Validate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Holds the usage metrics of the commands. <p>
+ * There is exactly one {@link CommandMetrics} per command (subcommands have their own),
+ *  and every metrics object has a fixed size, so the memory usage is bounded by the count of the commands.
+ *
+ * @see CommandManager#getStatistics()
+ */
+public final class CommandStatistics {
+    private final Map<JKookCommand, CommandMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Get the metrics of the provided command, create it if it does not exist.
+     *
+     * @param command The command
+     */
+    public CommandMetrics getMetrics(JKookCommand command) {
+        Validate.notNull(command);
+        return metrics.computeIfAbsent(command, CommandMetrics::new);
+    }
+
+    /**
+     * Get the metrics of all the commands that have been recorded.
+     * The result is a read-only snapshot.
+     */
+    public Collection<CommandMetrics> getAllMetrics() {
+        return Collections.unmodifiableList(new ArrayList<>(metrics.values()));
+    }
+
+    /**
+     * Get the metrics of the commands, sorted by the provided order (descending).
+     *
+     * @param order The order
+     * @param limit The maximum count of the result
+     */
+    public List<CommandMetrics> getTop(Order order, int limit) {
+        // the metrics change while sorting, so the keys are read once, otherwise the order may be inconsistent
+        final List<Map.Entry<CommandMetrics, Long>> ranked = new ArrayList<>(metrics.size());
+        for (CommandMetrics entry : metrics.values()) {
+            ranked.add(new AbstractMap.SimpleImmutableEntry<>(entry, order.key.applyAsLong(entry)));
+        }
+        ranked.sort(Map.Entry.<CommandMetrics, Long>comparingByValue().reversed());
+        final List<CommandMetrics> result = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            result.add(ranked.get(i).getKey());
+        }
+        return result;
+    }
+
+    /**
+     * Remove the metrics of the provided command.
+     *
+     * @param command The command
+     */
+    public void remove(JKookCommand command) {
+        metrics.remove(command);
+    }
+
+    /**
+     * Clear the metrics of all the commands.
+     */
+    public void reset() {
+        metrics.values().forEach(CommandMetrics::reset);
+    }
+
+    /**
+     * Create a console command that prints the metrics of the hottest or slowest commands. <p>
+     * Usage: <code>/&lt;rootName&gt; [invocations|failures|latency] [limit]</code>
+     *
+     * @param rootName The root name of the command (e.g. "commandstats")
+     * @return The command, it is not registered yet
+     */
+    public JKookCommand createCommand(String rootName) {
+        final JKookCommand command = new JKookCommand(rootName)
+                .setDescription("Show the usage metrics of the commands.")
+                .addOptionalArgument("order", ArgumentTypes.enumType(Order.class), Order.INVOCATIONS)
+                .addOptionalArgument("limit", ArgumentTypes.integer(1, 100), 10);
+        return command.executesConsole(new ConsoleCommandExecutor() {
+            @Override
+            public void onCommand(ConsoleCommandSender sender, String[] arguments) {
+                // for the managers that do not parse the declared arguments
+                onCommand(sender, command.getArguments().parse(sender, CommandLine.of(arguments), null));
+            }
+
+            @Override
+            public void onCommand(ConsoleCommandSender sender, ParsedArguments arguments) {
+                print(arguments.get("order"), arguments.get("limit"));
+            }
+        });
+    }
+
+    private void print(Order order, int limit) {
+        final StringBuilder builder = new StringBuilder("Command metrics (by ").append(order.name().toLowerCase(Locale.ROOT)).append("):");
+        for (CommandMetrics entry : getTop(order, limit)) {
+            final LatencyHistogram latency = entry.getLatency();
+            builder.append(System.lineSeparator())
+                    .append(String.format("%-20s calls=%d failures=%d cmdExceptions=%d denied=%d throttled=%d mean=%.2fms p99=%dms max=%dms",
+                            entry.getCommand().getRootName(),
+                            entry.getInvocations(),
+                            entry.getFailures(),
+                            entry.getCommandExceptions(),
+                            entry.getPermissionDenials(),
+                            entry.getThrottled(),
+                            latency.getMean(TimeUnit.MICROSECONDS) / 1000,
+                            latency.getPercentile(99, TimeUnit.MILLISECONDS),
+                            latency.getMax(TimeUnit.MILLISECONDS)));
+        }
+        JKook.getLogger().info(builder.toString());
+    }
+
+    /**
+     * Represents the orders of the metrics.
+     */
+    public enum Order {
+
+        /**
+         * By the count of the executions.
+         */
+        INVOCATIONS(CommandMetrics::getInvocations),
+
+        /**
+         * By the count of the failed executions.
+         */
+        FAILURES(CommandMetrics::getFailures),
+
+        /**
+         * By the 99th percentile latency.
+         */
+        LATENCY(IT -> IT.getLatency().getPercentile(99, TimeUnit.MICROSECONDS));
+
+        private final ToLongFunction<CommandMetrics> key;
+
+        Order(ToLongFunction<CommandMetrics> key) {
+            this.key = key;
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package snw.jkook.command;
 
+import snw.jkook.command.argument.ParsedArguments;
+
 /**
  * Represents an executor for a command, but only for console.
  *
@@ -30,4 +32,29 @@ public interface ConsoleCommandExecutor {
      * @param arguments The arguments
      */
     void onCommand(ConsoleCommandSender sender, String[] arguments);
+
+    /**
+     * Execute this command with the tokenized arguments. <p>
+     * Command managers call this method. By default, it creates the argument array and calls {@link #onCommand(ConsoleCommandSender, String[])},
+     *  override this if you want to read the arguments without creating the array.
+     *
+     * @param sender    The sender
+     * @param arguments The arguments
+     */
+    default void onCommand(ConsoleCommandSender sender, CommandLine arguments) {
+        onCommand(sender, arguments.toArray());
+    }
+
+    /**
+     * Execute this command with the typed arguments. <p>
+     * Command managers call this method if the command declared its arguments.
+     * By default, it calls {@link #onCommand(ConsoleCommandSender, CommandLine)}.
+     *
+     * @param sender    The sender
+     * @param arguments The parsed arguments
+     * @see JKookCommand#addArgument(String, snw.jkook.command.argument.ArgumentType)
+     */
+    default void onCommand(ConsoleCommandSender sender, ParsedArguments arguments) {
+        onCommand(sender, arguments.getCommandLine());
+    }
 }
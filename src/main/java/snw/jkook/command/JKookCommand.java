@@ -16,7 +16,12 @@
 
 package snw.jkook.command;
 
+import org.jetbrains.annotations.Nullable;
 import snw.jkook.JKook;
+import snw.jkook.command.argument.ArgumentType;
+import snw.jkook.command.argument.CommandArgument;
+import snw.jkook.command.argument.CompiledArguments;
+import snw.jkook.message.Message;
 import snw.jkook.util.Validate;
 
 import java.util.*;
@@ -29,9 +34,13 @@ public final class JKookCommand {
     private CommandExecutor executor;
     private UserCommandExecutor userCommandExecutor;
     private ConsoleCommandExecutor consoleCommandExecutor;
-    private final Collection<JKookCommand> subcommands = new ArrayList<>();
+    private final Map<String, JKookCommand> subcommands = new LinkedHashMap<>();
     private final Collection<String> aliases = new HashSet<>();
     private final Collection<String> prefixes = new HashSet<>();
+    private final List<CommandArgument<?>> arguments = new ArrayList<>();
+    private CompiledArguments compiledArguments;
+    private final List<RateLimit> rateLimits = new ArrayList<>();
+    private CommandScope serializationScope;
     private String description;
     private String helpContent;
 
@@ -120,8 +129,8 @@ public final class JKookCommand {
      */
     public JKookCommand addSubcommand(JKookCommand command) {
         ensureNotRegistered();
-        Validate.isFalse(this.subcommands.stream().anyMatch(IT -> Objects.equals(IT.getRootName(), command.getRootName())), "A subcommand with the same root name has already registered to this command.");
-        this.subcommands.add(command);
+        Validate.isFalse(this.subcommands.containsKey(command.getRootName()), "A subcommand with the same root name has already registered to this command.");
+        this.subcommands.put(command.getRootName(), command);
         return this;
     }
 
@@ -176,6 +185,92 @@ public final class JKookCommand {
         return this;
     }
 
+    /**
+     * Declare an argument of this command. <p>
+     * The arguments are parsed in the order of the declarations.
+     *
+     * @param name The name of the argument
+     * @param type The type of the argument (see {@link snw.jkook.command.argument.ArgumentTypes})
+     */
+    public JKookCommand addArgument(String name, ArgumentType<?> type) {
+        return addArgument(new CommandArgument<>(name, type));
+    }
+
+    /**
+     * Declare an optional argument of this command. <p>
+     * Optional arguments must be declared after all the required arguments.
+     *
+     * @param name         The name of the argument
+     * @param type         The type of the argument (see {@link snw.jkook.command.argument.ArgumentTypes})
+     * @param defaultValue The value used if the argument was omitted
+     * @param <T>          The type of the value
+     */
+    public <T> JKookCommand addOptionalArgument(String name, ArgumentType<T> type, T defaultValue) {
+        return addArgument(new CommandArgument<>(name, type, true, defaultValue));
+    }
+
+    /**
+     * Declare an argument of this command.
+     *
+     * @param argument The argument declaration
+     */
+    public JKookCommand addArgument(CommandArgument<?> argument) {
+        ensureNotRegistered();
+        Validate.notNull(argument);
+        arguments.add(argument);
+        compiledArguments = null;
+        return this;
+    }
+
+    /**
+     * Set a cooldown of this command. <p>
+     * It is the same as a rate limit with only one permit.
+     *
+     * @param scope    The scope of the cooldown
+     * @param cooldown The cooldown time (in milliseconds)
+     */
+    public JKookCommand setCooldown(CommandScope scope, long cooldown) {
+        return addRateLimit(new RateLimit(scope, 1, cooldown));
+    }
+
+    /**
+     * Add a rate limit to this command. <p>
+     * The throttled invocations are rejected before the arguments are parsed and the executor is called.
+     *
+     * @param scope   The scope of the rate limit
+     * @param permits The count of the allowed invocations per period
+     * @param period  The period (in milliseconds)
+     */
+    public JKookCommand addRateLimit(CommandScope scope, int permits, long period) {
+        return addRateLimit(new RateLimit(scope, permits, period));
+    }
+
+    /**
+     * Add a rate limit to this command.
+     *
+     * @param rateLimit The rate limit
+     */
+    public JKookCommand addRateLimit(RateLimit rateLimit) {
+        ensureNotRegistered();
+        Validate.notNull(rateLimit);
+        rateLimits.add(rateLimit);
+        return this;
+    }
+
+    /**
+     * Set the scope that the asynchronous executions of this command are serialized in. <p>
+     * For example, if {@link CommandScope#USER} is provided, the executions of this command by the same user
+     *  run one after another, while the executions by different users still run concurrently.
+     *
+     * @param scope The scope, null if the executions do not need to be serialized (default)
+     * @see CommandManager#executeCommandAsync(CommandSender, String)
+     */
+    public JKookCommand setSerializationScope(@Nullable CommandScope scope) {
+        ensureNotRegistered();
+        this.serializationScope = scope;
+        return this;
+    }
+
     /**
      * Register this command. <p>
      * Also, you can register this command using {@link CommandManager#registerCommand(JKookCommand)}. <p>
@@ -220,7 +315,7 @@ public final class JKookCommand {
      * Get the subcommands of this command.
      */
     public Collection<JKookCommand> getSubcommands() {
-        return Collections.unmodifiableCollection(subcommands);
+        return Collections.unmodifiableCollection(subcommands.values());
     }
 
     /**
@@ -244,6 +339,49 @@ public final class JKookCommand {
         return prefixes;
     }
 
+    /**
+     * Get the compiled argument declarations of this command. <p>
+     * The declarations are compiled on the first call, and the result is reused after that.
+     *
+     * @throws IllegalArgumentException Thrown if the declarations are invalid
+     */
+    public CompiledArguments getArguments() throws IllegalArgumentException {
+        CompiledArguments result = compiledArguments;
+        if (result == null) {
+            result = compiledArguments = arguments.isEmpty() ? CompiledArguments.EMPTY : new CompiledArguments(arguments);
+        }
+        return result;
+    }
+
+    /**
+     * Get the rate limits of this command.
+     */
+    public List<RateLimit> getRateLimits() {
+        return Collections.unmodifiableList(rateLimits);
+    }
+
+    /**
+     * Get the scope that the asynchronous executions of this command are serialized in.
+     * Null is returned if the executions do not need to be serialized.
+     */
+    @Nullable
+    public CommandScope getSerializationScope() {
+        return serializationScope;
+    }
+
+    /**
+     * Attempt to consume a permit from all the rate limits of this command for the provided invocation. <p>
+     * Command managers should call this before parsing the arguments and calling the executor.
+     *
+     * @param sender  The sender of the command
+     * @param message The message related to the command (Maybe null if the console executed the command)
+     * @return <code>0</code> if the invocation is allowed,
+     *         otherwise the time in milliseconds that the invocation need to wait
+     */
+    public long tryAcquire(CommandSender sender, @Nullable Message message) {
+        return RateLimit.tryAcquireAll(rateLimits, sender, message);
+    }
+
     /**
      * Get the help message content of this command.
      */
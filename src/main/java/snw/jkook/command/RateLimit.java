@@ -0,0 +1,218 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.message.Message;
+import snw.jkook.util.Validate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a rate limit of a command. <p>
+ * It allows up to <code>permits</code> invocations per <code>period</code> for each key of its {@link CommandScope}.
+ * A cooldown is a rate limit with only one permit. <p>
+ * The state of a key is a single timestamp (the generic cell rate algorithm, equivalent to a token bucket),
+ *  and at most {@link #getMaxKeys()} keys are stored. The least recently used keys are evicted first,
+ *  and the keys whose bucket is full again are dropped, so the memory usage is bounded.
+ *
+ * @see JKookCommand#addRateLimit(CommandScope, int, long)
+ */
+public final class RateLimit {
+
+    /** The default maximum count of the stored keys. */
+    public static final int DEFAULT_MAX_KEYS = 10000;
+
+    private final CommandScope scope;
+    private final int permits;
+    private final long period;
+    private final int maxKeys;
+    private final long interval; // the time that one permit needs to be refilled
+    private final long tolerance; // how far the theoretical arrival time can be ahead of now
+    private final Map<String, long[]> states;
+
+    /**
+     * Construct a rate limit with {@link #DEFAULT_MAX_KEYS}.
+     *
+     * @param scope   The scope
+     * @param permits The count of the allowed invocations per period
+     * @param period  The period (in milliseconds)
+     */
+    public RateLimit(CommandScope scope, int permits, long period) {
+        this(scope, permits, period, DEFAULT_MAX_KEYS);
+    }
+
+    /**
+     * The main constructor.
+     *
+     * @param scope   The scope
+     * @param permits The count of the allowed invocations per period
+     * @param period  The period (in milliseconds)
+     * @param maxKeys The maximum count of the stored keys
+     */
+    public RateLimit(CommandScope scope, int permits, long period, int maxKeys) {
+        Validate.notNull(scope);
+        Validate.isTrue(permits > 0, "permits must be positive.");
+        Validate.isTrue(period > 0, "period must be positive.");
+        Validate.isTrue(maxKeys > 0, "maxKeys must be positive.");
+        this.scope = scope;
+        this.permits = permits;
+        this.period = period;
+        this.maxKeys = maxKeys;
+        this.interval = Math.max(1, period / permits);
+        this.tolerance = period - interval;
+        this.states = new LinkedHashMap<String, long[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+                // also drop the least recently used key if its bucket is full again
+                return size() > RateLimit.this.maxKeys || eldest.getValue()[0] <= System.currentTimeMillis();
+            }
+        };
+    }
+
+    /**
+     * Get the scope of this rate limit.
+     */
+    public CommandScope getScope() {
+        return scope;
+    }
+
+    /**
+     * Get the count of the allowed invocations per period.
+     */
+    public int getPermits() {
+        return permits;
+    }
+
+    /**
+     * Get the period (in milliseconds).
+     */
+    public long getPeriod() {
+        return period;
+    }
+
+    /**
+     * Get the maximum count of the stored keys.
+     */
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    /**
+     * Get the time that the provided invocation need to wait before it is allowed. Nothing is consumed.
+     *
+     * @param sender  The sender of the command
+     * @param message The message related to the command
+     * @return The time in milliseconds, <code>0</code> if the invocation is allowed now
+     */
+    public long getWaitTime(CommandSender sender, @Nullable Message message) {
+        final String key = scope.getKey(sender, message);
+        return key == null ? 0 : getWaitTime(key, System.currentTimeMillis());
+    }
+
+    long getWaitTime(String key, long now) {
+        synchronized (states) {
+            return waitTime(states.get(key), now);
+        }
+    }
+
+    /**
+     * Attempt to consume a permit for the provided invocation.
+     *
+     * @param sender  The sender of the command
+     * @param message The message related to the command
+     * @return <code>0</code> if the permit was consumed,
+     *         otherwise the time in milliseconds that the invocation need to wait
+     */
+    public long tryAcquire(CommandSender sender, @Nullable Message message) {
+        final String key = scope.getKey(sender, message);
+        return key == null ? 0 : tryAcquire(key, System.currentTimeMillis());
+    }
+
+    long tryAcquire(String key, long now) {
+        synchronized (states) {
+            return tryAcquire0(key, now);
+        }
+    }
+
+    /**
+     * Attempt to consume a permit from all the provided rate limits. <p>
+     * The permits are consumed only if <b>all</b> the rate limits allow the invocation.
+     *
+     * @param limits  The rate limits
+     * @param sender  The sender of the command
+     * @param message The message related to the command
+     * @return <code>0</code> if the permits were consumed,
+     *         otherwise the longest time in milliseconds that the invocation need to wait
+     */
+    public static long tryAcquireAll(List<RateLimit> limits, CommandSender sender, @Nullable Message message) {
+        if (limits.isEmpty()) {
+            return 0;
+        }
+        if (limits.size() == 1) {
+            return limits.get(0).tryAcquire(sender, message);
+        }
+        synchronized (limits) {
+            long wait = 0;
+            for (RateLimit limit : limits) {
+                wait = Math.max(wait, limit.getWaitTime(sender, message));
+            }
+            if (wait > 0) {
+                return wait;
+            }
+            for (RateLimit limit : limits) {
+                limit.tryAcquire(sender, message);
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Forget the state of all the keys.
+     */
+    public void reset() {
+        synchronized (states) {
+            states.clear();
+        }
+    }
+
+    private long tryAcquire0(String key, long now) {
+        long[] state = states.get(key);
+        final long wait = waitTime(state, now);
+        if (wait > 0) {
+            return wait;
+        }
+        if (state == null) {
+            states.put(key, new long[]{now + interval});
+        } else {
+            state[0] = Math.max(state[0], now) + interval;
+        }
+        return 0;
+    }
+
+    private long waitTime(long[] state, long now) {
+        if (state == null) {
+            return 0;
+        }
+        if (state[0] <= now) { // the bucket is full, no need to keep it
+            return 0;
+        }
+        return Math.max(0, state[0] - now - tolerance);
+    }
+}
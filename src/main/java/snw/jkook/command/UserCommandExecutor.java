@@ -17,6 +17,7 @@
 package snw.jkook.command;
 
 import org.jetbrains.annotations.Nullable;
+import snw.jkook.command.argument.ParsedArguments;
 import snw.jkook.entity.User;
 import snw.jkook.message.Message;
 
@@ -35,4 +36,31 @@ public interface UserCommandExecutor {
      * @param message   The message related to this execution (Maybe null if the console executed this command)
      */
     void onCommand(User sender, String[] arguments, @Nullable Message message);
+
+    /**
+     * Execute this command with the tokenized arguments. <p>
+     * Command managers call this method. By default, it creates the argument array and calls {@link #onCommand(User, String[], Message)},
+     *  override this if you want to read the arguments without creating the array.
+     *
+     * @param sender    The sender
+     * @param arguments The arguments
+     * @param message   The message related to this execution (Maybe null if the console executed this command)
+     */
+    default void onCommand(User sender, CommandLine arguments, @Nullable Message message) {
+        onCommand(sender, arguments.toArray(), message);
+    }
+
+    /**
+     * Execute this command with the typed arguments. <p>
+     * Command managers call this method if the command declared its arguments.
+     * By default, it calls {@link #onCommand(User, CommandLine, Message)}.
+     *
+     * @param sender    The sender
+     * @param arguments The parsed arguments
+     * @param message   The message related to this execution (Maybe null if the console executed this command)
+     * @see JKookCommand#addArgument(String, snw.jkook.command.argument.ArgumentType)
+     */
+    default void onCommand(User sender, ParsedArguments arguments, @Nullable Message message) {
+        onCommand(sender, arguments.getCommandLine(), message);
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command.argument;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.JKook;
+import snw.jkook.command.CommandException;
+import snw.jkook.command.CommandSender;
+import snw.jkook.entity.Guild;
+import snw.jkook.entity.Role;
+import snw.jkook.entity.User;
+import snw.jkook.entity.channel.Channel;
+import snw.jkook.message.Message;
+import snw.jkook.message.TextChannelMessage;
+import snw.jkook.util.PageIterator;
+
+import java.util.*;
+
+/**
+ * Represents the context of parsing the arguments of a command line. <p>
+ * The entities requested by the argument types are fetched in one bulk lookup per type,
+ *  instead of one HTTP request per argument.
+ */
+public final class ArgumentContext {
+    private final CommandSender sender;
+    private final Message message;
+    private Set<String> requestedUsers;
+    private Set<String> requestedChannels;
+    private Set<Integer> requestedRoles;
+    private Map<String, User> users = Collections.emptyMap();
+    private Map<String, Channel> channels = Collections.emptyMap();
+    private Map<Integer, Role> roles = Collections.emptyMap();
+
+    ArgumentContext(CommandSender sender, @Nullable Message message) {
+        this.sender = sender;
+        this.message = message;
+    }
+
+    /**
+     * Get the sender of the command.
+     */
+    public CommandSender getSender() {
+        return sender;
+    }
+
+    /**
+     * Get the message related to the command. (Maybe null if the console executed the command)
+     */
+    @Nullable
+    public Message getMessage() {
+        return message;
+    }
+
+    /**
+     * Get the guild where the command was executed. <p>
+     * Null is returned if the command was not executed in a text channel.
+     */
+    @Nullable
+    public Guild getGuild() {
+        return message instanceof TextChannelMessage ? ((TextChannelMessage) message).getChannel().getGuild() : null;
+    }
+
+    /**
+     * Request the user with the provided ID. Should be called in {@link ArgumentType#prepare(String, ArgumentContext)}.
+     *
+     * @param id The user ID
+     */
+    public void requestUser(String id) {
+        if (requestedUsers == null) {
+            requestedUsers = new HashSet<>();
+        }
+        requestedUsers.add(id);
+    }
+
+    /**
+     * Request the channel with the provided ID. Should be called in {@link ArgumentType#prepare(String, ArgumentContext)}.
+     *
+     * @param id The channel ID
+     */
+    public void requestChannel(String id) {
+        if (requestedChannels == null) {
+            requestedChannels = new HashSet<>();
+        }
+        requestedChannels.add(id);
+    }
+
+    /**
+     * Request the role with the provided ID in the guild of the command. Should be called in {@link ArgumentType#prepare(String, ArgumentContext)}.
+     *
+     * @param id The role ID
+     */
+    public void requestRole(int id) {
+        if (requestedRoles == null) {
+            requestedRoles = new HashSet<>();
+        }
+        requestedRoles.add(id);
+    }
+
+    /**
+     * Get the requested user.
+     *
+     * @param id The user ID
+     * @throws CommandException Thrown if the user was not requested or does not exist
+     */
+    public User getUser(String id) throws CommandException {
+        final User user = users.get(id);
+        if (user == null) {
+            throw new CommandException("Unknown user: " + id);
+        }
+        return user;
+    }
+
+    /**
+     * Get the requested channel.
+     *
+     * @param id The channel ID
+     * @throws CommandException Thrown if the channel was not requested or does not exist
+     */
+    public Channel getChannel(String id) throws CommandException {
+        final Channel channel = channels.get(id);
+        if (channel == null) {
+            throw new CommandException("Unknown channel: " + id);
+        }
+        return channel;
+    }
+
+    /**
+     * Get the requested role.
+     *
+     * @param id The role ID
+     * @throws CommandException Thrown if the role was not requested or does not exist in the guild of the command
+     */
+    public Role getRole(int id) throws CommandException {
+        final Role role = roles.get(id);
+        if (role == null) {
+            throw new CommandException("Unknown role: " + id);
+        }
+        return role;
+    }
+
+    // Fetch all the requested entities, one lookup per entity type.
+    void resolve() {
+        if (requestedUsers != null) {
+            users = JKook.getHttpAPI().getUsers(requestedUsers);
+        }
+        if (requestedChannels != null) {
+            channels = JKook.getHttpAPI().getChannels(requestedChannels);
+        }
+        if (requestedRoles != null) {
+            final Guild guild = getGuild();
+            if (guild == null) {
+                throw new CommandException("Role arguments can only be used in the guilds.");
+            }
+            roles = new HashMap<>();
+            final PageIterator<Set<Role>> iterator = guild.getRoles();
+            while (roles.size() < requestedRoles.size() && iterator.hasNext()) {
+                for (Role role : iterator.next()) {
+                    if (requestedRoles.contains(role.getId())) {
+                        roles.put(role.getId(), role);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command.argument;
+
+import snw.jkook.command.CommandException;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the type of a command argument. It converts the text of an argument into a value.
+ *
+ * @param <T> The type of the value
+ * @see ArgumentTypes
+ */
+@FunctionalInterface
+public interface ArgumentType<T> {
+
+    /**
+     * Convert the provided text into a value. <p>
+     * If this type refers to Kook entities, get them using the methods in the context (e.g. {@link ArgumentContext#getUser(String)}),
+     *  they have been fetched in bulk after {@link #prepare(String, ArgumentContext)} was called on all the arguments.
+     *
+     * @param input   The text of the argument, quotes and escapes are already processed
+     * @param context The context of this parse
+     * @return The value
+     * @throws CommandException Thrown if the text is not a valid value of this type
+     */
+    T parse(String input, ArgumentContext context) throws CommandException;
+
+    /**
+     * Called before any argument of the command line is parsed. <p>
+     * The types that refer to Kook entities should request them here (e.g. {@link ArgumentContext#requestUser(String)}),
+     *  so all the entities needed by a command line can be fetched in one bulk lookup.
+     *
+     * @param input   The text of the argument
+     * @param context The context of this parse
+     */
+    default void prepare(String input, ArgumentContext context) {
+    }
+
+    /**
+     * Get the suggestions for an incomplete argument.
+     *
+     * @param partial The incomplete text of the argument
+     * @return The suggestions, empty list if this type does not provide suggestions
+     */
+    default List<String> complete(String partial) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Return true if this type consumes the rest of the command line. <p>
+     * Greedy argument must be the last argument of a command.
+     */
+    default boolean isGreedy() {
+        return false;
+    }
+}
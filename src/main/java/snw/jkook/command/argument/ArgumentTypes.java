@@ -0,0 +1,225 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command.argument;
+
+import snw.jkook.command.CommandException;
+import snw.jkook.entity.Role;
+import snw.jkook.entity.User;
+import snw.jkook.entity.channel.Channel;
+import snw.jkook.util.Validate;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * The built-in argument types.
+ */
+public final class ArgumentTypes {
+
+    /* This class should not be constructed. */
+    private ArgumentTypes() {
+    }
+
+    /**
+     * A single word.
+     */
+    public static final ArgumentType<String> WORD = (input, context) -> input;
+
+    /**
+     * The rest of the command line, as it is (quotes and escapes are <b>NOT</b> processed).
+     */
+    public static final ArgumentType<String> GREEDY_STRING = new ArgumentType<String>() {
+        @Override
+        public String parse(String input, ArgumentContext context) {
+            return input;
+        }
+
+        @Override
+        public boolean isGreedy() {
+            return true;
+        }
+    };
+
+    /**
+     * An integer.
+     */
+    public static final ArgumentType<Integer> INTEGER = integer(Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+    /**
+     * A duration, e.g. <code>30s</code>, <code>10m</code>, <code>1h30m</code>, <code>7d</code>. <p>
+     * Supported units are <code>d</code>, <code>h</code>, <code>m</code> and <code>s</code>.
+     * A number without unit is in seconds.
+     */
+    public static final ArgumentType<Duration> DURATION = ArgumentTypes::parseDuration;
+
+    /**
+     * A user, accepts the user mention (<code>(met)id(met)</code>) or the user ID.
+     */
+    public static final ArgumentType<User> USER = new ArgumentType<User>() {
+        @Override
+        public void prepare(String input, ArgumentContext context) {
+            context.requestUser(unwrap(input, "(met)"));
+        }
+
+        @Override
+        public User parse(String input, ArgumentContext context) throws CommandException {
+            return context.getUser(unwrap(input, "(met)"));
+        }
+    };
+
+    /**
+     * A channel, accepts the channel mention (<code>(chn)id(chn)</code>) or the channel ID.
+     */
+    public static final ArgumentType<Channel> CHANNEL = new ArgumentType<Channel>() {
+        @Override
+        public void prepare(String input, ArgumentContext context) {
+            context.requestChannel(unwrap(input, "(chn)"));
+        }
+
+        @Override
+        public Channel parse(String input, ArgumentContext context) throws CommandException {
+            return context.getChannel(unwrap(input, "(chn)"));
+        }
+    };
+
+    /**
+     * A role in the guild of the command, accepts the role mention (<code>(rol)id(rol)</code>) or the role ID.
+     */
+    public static final ArgumentType<Role> ROLE = new ArgumentType<Role>() {
+        @Override
+        public void prepare(String input, ArgumentContext context) {
+            context.requestRole(parseInt(unwrap(input, "(rol)")));
+        }
+
+        @Override
+        public Role parse(String input, ArgumentContext context) throws CommandException {
+            return context.getRole(parseInt(unwrap(input, "(rol)")));
+        }
+    };
+
+    /**
+     * An integer in the provided range.
+     *
+     * @param min The minimum value (inclusive)
+     * @param max The maximum value (inclusive)
+     */
+    public static ArgumentType<Integer> integer(int min, int max) {
+        Validate.isTrue(min <= max, "min > max");
+        return (input, context) -> {
+            final int result = parseInt(input);
+            if (result < min || result > max) {
+                throw new CommandException("Number " + result + " is out of range [" + min + ", " + max + "].");
+            }
+            return result;
+        };
+    }
+
+    /**
+     * A constant of the provided enum, case-insensitive. Suggestions are provided.
+     *
+     * @param enumClass The class of the enum
+     * @param <E>       The type of the enum
+     */
+    public static <E extends Enum<E>> ArgumentType<E> enumType(Class<E> enumClass) {
+        final E[] constants = enumClass.getEnumConstants();
+        final Map<String, E> byName = new HashMap<>(constants.length * 2);
+        final List<String> names = new ArrayList<>(constants.length);
+        for (E constant : constants) {
+            final String name = constant.name().toLowerCase(Locale.ROOT);
+            byName.put(name, constant);
+            names.add(name);
+        }
+        return new ArgumentType<E>() {
+            @Override
+            public E parse(String input, ArgumentContext context) throws CommandException {
+                final E result = byName.get(input.toLowerCase(Locale.ROOT));
+                if (result == null) {
+                    throw new CommandException("Unknown value: " + input + ". Expected one of " + names);
+                }
+                return result;
+            }
+
+            @Override
+            public List<String> complete(String partial) {
+                final String lowerPartial = partial.toLowerCase(Locale.ROOT);
+                final List<String> result = new ArrayList<>();
+                for (String name : names) {
+                    if (name.startsWith(lowerPartial)) {
+                        result.add(name);
+                    }
+                }
+                return result;
+            }
+        };
+    }
+
+    private static String unwrap(String input, String tag) {
+        if (input.length() > tag.length() * 2 && input.startsWith(tag) && input.endsWith(tag)) {
+            return input.substring(tag.length(), input.length() - tag.length());
+        }
+        return input;
+    }
+
+    private static int parseInt(String input) throws CommandException {
+        try {
+            return Integer.parseInt(input);
+        } catch (NumberFormatException e) {
+            throw new CommandException("Not a valid number: " + input);
+        }
+    }
+
+    private static Duration parseDuration(String input, ArgumentContext context) throws CommandException {
+        long seconds = 0;
+        long number = -1;
+        for (int i = 0; i < input.length(); i++) {
+            final char c = input.charAt(i);
+            if (c >= '0' && c <= '9') {
+                number = (number == -1 ? 0 : number * 10) + (c - '0');
+                if (number > Integer.MAX_VALUE) {
+                    throw new CommandException("Too long duration: " + input);
+                }
+                continue;
+            }
+            if (number == -1) {
+                throw new CommandException("Not a valid duration: " + input);
+            }
+            switch (Character.toLowerCase(c)) {
+                case 'd':
+                    seconds += number * 86400;
+                    break;
+                case 'h':
+                    seconds += number * 3600;
+                    break;
+                case 'm':
+                    seconds += number * 60;
+                    break;
+                case 's':
+                    seconds += number;
+                    break;
+                default:
+                    throw new CommandException("Unknown time unit '" + c + "' in duration: " + input);
+            }
+            number = -1;
+        }
+        if (number != -1) {
+            seconds += number;
+        } else if (input.isEmpty()) {
+            throw new CommandException("Not a valid duration: " + input);
+        }
+        return Duration.ofSeconds(seconds);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command.argument;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.util.Validate;
+
+/**
+ * Represents a declared argument of a command.
+ *
+ * @param <T> The type of the value
+ */
+public final class CommandArgument<T> {
+    private final String name;
+    private final ArgumentType<T> type;
+    private final boolean optional;
+    private final T defaultValue;
+
+    /**
+     * Construct a required argument.
+     *
+     * @param name The name of the argument
+     * @param type The type of the argument
+     */
+    public CommandArgument(String name, ArgumentType<T> type) {
+        this(name, type, false, null);
+    }
+
+    /**
+     * The main constructor.
+     *
+     * @param name         The name of the argument
+     * @param type         The type of the argument
+     * @param optional     True if the argument can be omitted
+     * @param defaultValue The value used if the argument was omitted
+     */
+    public CommandArgument(String name, ArgumentType<T> type, boolean optional, @Nullable T defaultValue) {
+        Validate.notNull(name);
+        Validate.notNull(type);
+        Validate.isFalse(name.contains(" "), "No space character is allowed in argument name.");
+        this.name = name;
+        this.type = type;
+        this.optional = optional;
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Get the name of this argument.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the type of this argument.
+     */
+    public ArgumentType<T> getType() {
+        return type;
+    }
+
+    /**
+     * Return true if this argument can be omitted.
+     */
+    public boolean isOptional() {
+        return optional;
+    }
+
+    /**
+     * Get the value used if this argument was omitted.
+     */
+    @Nullable
+    public T getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Return the usage of this argument, e.g. <code>&lt;name&gt;</code> or <code>[name]</code>.
+     */
+    @Override
+    public String toString() {
+        return optional ? "[" + name + "]" : "<" + name + ">";
+    }
+}
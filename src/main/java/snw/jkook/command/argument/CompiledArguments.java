@@ -0,0 +1,154 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command.argument;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.command.CommandException;
+import snw.jkook.command.CommandLine;
+import snw.jkook.command.CommandSender;
+import snw.jkook.message.Message;
+import snw.jkook.util.Validate;
+
+import java.util.*;
+
+/**
+ * Represents the compiled argument declarations of a command. <p>
+ * The declarations are validated and flattened into arrays once per command,
+ *  so parsing a command line does not need to check them again.
+ *
+ * @see snw.jkook.command.JKookCommand#getArguments()
+ */
+public final class CompiledArguments {
+
+    /** The instance for the commands without declared arguments. */
+    public static final CompiledArguments EMPTY = new CompiledArguments(Collections.emptyList());
+
+    private final CommandArgument<?>[] arguments;
+    private final Map<String, Integer> indexes;
+    private final int requiredCount;
+    private final String usage;
+
+    /**
+     * Compile the provided declarations.
+     *
+     * @param arguments The declared arguments, in order
+     * @throws IllegalArgumentException Thrown if the declarations are invalid
+     *                                  (e.g. a required argument after an optional one, a greedy argument that is not the last one)
+     */
+    public CompiledArguments(List<CommandArgument<?>> arguments) throws IllegalArgumentException {
+        this.arguments = arguments.toArray(new CommandArgument<?>[0]);
+        final Map<String, Integer> indexes = new HashMap<>(this.arguments.length * 2);
+        int requiredCount = 0;
+        boolean optionalFound = false;
+        final StringJoiner usage = new StringJoiner(" ");
+        for (int i = 0; i < this.arguments.length; i++) {
+            final CommandArgument<?> argument = this.arguments[i];
+            Validate.isTrue(indexes.put(argument.getName(), i) == null, "Duplicated argument name: " + argument.getName());
+            Validate.isFalse(argument.getType().isGreedy() && i != this.arguments.length - 1, "Greedy argument must be the last one.");
+            if (argument.isOptional()) {
+                optionalFound = true;
+            } else {
+                Validate.isFalse(optionalFound, "Required argument cannot be declared after optional arguments.");
+                requiredCount++;
+            }
+            usage.add(argument.toString());
+        }
+        this.indexes = indexes;
+        this.requiredCount = requiredCount;
+        this.usage = usage.toString();
+    }
+
+    /**
+     * Get the declared arguments. The result is read-only.
+     */
+    public List<CommandArgument<?>> getArguments() {
+        return Collections.unmodifiableList(Arrays.asList(arguments));
+    }
+
+    /**
+     * Return true if no argument was declared.
+     */
+    public boolean isEmpty() {
+        return arguments.length == 0;
+    }
+
+    /**
+     * Get the usage of the arguments, e.g. <code>&lt;user&gt; &lt;duration&gt; [reason]</code>.
+     */
+    public String getUsage() {
+        return usage;
+    }
+
+    /**
+     * Parse the provided command line. <p>
+     * All the Kook entities referred by the arguments are fetched in one bulk lookup per entity type.
+     *
+     * @param sender      The sender of the command
+     * @param commandLine The arguments of the command line
+     * @param message     The message related to the command (Maybe null if the console executed the command)
+     * @return The parsed arguments
+     * @throws CommandException Thrown if the command line does not match the declared arguments
+     */
+    public ParsedArguments parse(CommandSender sender, CommandLine commandLine, @Nullable Message message) throws CommandException {
+        final int size = commandLine.size();
+        if (size < requiredCount) {
+            throw new CommandException("Too few arguments. Usage: " + usage);
+        }
+        if (size > arguments.length && (arguments.length == 0 || !arguments[arguments.length - 1].getType().isGreedy())) {
+            throw new CommandException("Too many arguments. Usage: " + usage);
+        }
+        final int present = Math.min(size, arguments.length);
+        final String[] inputs = new String[present];
+        for (int i = 0; i < present; i++) {
+            inputs[i] = arguments[i].getType().isGreedy() ? commandLine.getRemaining(i) : commandLine.get(i);
+        }
+        final ArgumentContext context = new ArgumentContext(sender, message);
+        for (int i = 0; i < present; i++) {
+            arguments[i].getType().prepare(inputs[i], context);
+        }
+        context.resolve();
+        final Object[] values = new Object[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            values[i] = i < present ? arguments[i].getType().parse(inputs[i], context) : arguments[i].getDefaultValue();
+        }
+        return new ParsedArguments(this, commandLine, values, present);
+    }
+
+    /**
+     * Get the suggestions for the last argument of an incomplete command line.
+     *
+     * @param commandLine The arguments of the incomplete command line
+     * @return The suggestions, empty list if nothing can be suggested
+     */
+    public List<String> complete(CommandLine commandLine) {
+        final CharSequence source = commandLine.getSource();
+        final boolean newArgument = commandLine.isEmpty() || (source.length() > 0 && Character.isWhitespace(source.charAt(source.length() - 1)));
+        final int index = newArgument ? commandLine.size() : commandLine.size() - 1;
+        if (index >= arguments.length) {
+            return Collections.emptyList();
+        }
+        return arguments[index].getType().complete(newArgument ? "" : commandLine.get(index));
+    }
+
+    int indexOf(String name) {
+        final Integer index = indexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("No argument called " + name + " was declared.");
+        }
+        return index;
+    }
+}
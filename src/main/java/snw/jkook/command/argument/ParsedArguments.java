@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command.argument;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.command.CommandLine;
+
+/**
+ * Represents the parsed arguments of a command line.
+ *
+ * @see CompiledArguments#parse
+ */
+public final class ParsedArguments {
+    private final CompiledArguments declaration;
+    private final CommandLine commandLine;
+    private final Object[] values;
+    private final int presentCount;
+
+    ParsedArguments(CompiledArguments declaration, CommandLine commandLine, Object[] values, int presentCount) {
+        this.declaration = declaration;
+        this.commandLine = commandLine;
+        this.values = values;
+        this.presentCount = presentCount;
+    }
+
+    /**
+     * Get the value of the argument with the provided name. <p>
+     * The default value is returned if the argument was omitted.
+     *
+     * @param name The name of the argument
+     * @param <T>  The type of the value
+     * @throws IllegalArgumentException Thrown if no argument with the provided name was declared
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public <T> T get(String name) throws IllegalArgumentException {
+        return (T) values[declaration.indexOf(name)];
+    }
+
+    /**
+     * Get the value of the argument at the provided index. <p>
+     * The default value is returned if the argument was omitted.
+     *
+     * @param index The index of the argument
+     * @param <T>   The type of the value
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public <T> T get(int index) {
+        return (T) values[index];
+    }
+
+    /**
+     * Return true if the argument with the provided name was provided in the command line.
+     *
+     * @param name The name of the argument
+     * @throws IllegalArgumentException Thrown if no argument with the provided name was declared
+     */
+    public boolean isPresent(String name) throws IllegalArgumentException {
+        return declaration.indexOf(name) < presentCount;
+    }
+
+    /**
+     * Get the tokenized command line of these arguments.
+     */
+    public CommandLine getCommandLine() {
+        return commandLine;
+    }
+}
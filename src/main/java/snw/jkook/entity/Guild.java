@@ -18,6 +18,7 @@ package snw.jkook.entity;
 
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
+import snw.jkook.JKook;
 import snw.jkook.Permission;
 import snw.jkook.entity.abilities.AvatarHolder;
 import snw.jkook.entity.abilities.InviteHolder;
@@ -28,12 +29,16 @@ import snw.jkook.entity.channel.Channel;
 import snw.jkook.entity.channel.TextChannel;
 import snw.jkook.entity.channel.VoiceChannel;
 import snw.jkook.entity.mute.MuteResult;
+import snw.jkook.util.BulkProgressListener;
+import snw.jkook.util.BulkResult;
 import snw.jkook.util.PageIterator;
 import snw.jkook.util.RequirePermission;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a Guild.
@@ -109,6 +114,27 @@ public interface Guild extends Nameable, AvatarHolder, MasterHolder, InviteHolde
      */
     MuteResult getMuteStatus();
 
+    /**
+     * Fetch the channels, roles, custom emojis and mute status of this guild concurrently
+     *  using {@link JKook#getBulkExecutor()}. <p>
+     * Implementations may override this to use their own bulk requests and fill their entity cache.
+     *
+     * @return The future of the snapshot
+     */
+    default CompletableFuture<GuildSnapshot> snapshotAsync() {
+        return GuildSnapshot.fetch(this, JKook.getBulkExecutor());
+    }
+
+    /**
+     * Fetch the channels, roles, custom emojis and mute status of this guild concurrently,
+     *  and wait for the result. (See {@link #snapshotAsync()})
+     *
+     * @throws java.util.concurrent.CompletionException Thrown if any part can't be fetched
+     */
+    default GuildSnapshot snapshot() {
+        return snapshotAsync().join();
+    }
+
     /**
      * Leave this guild. This <b>CANNOT</b> be undone!
      */
@@ -140,6 +166,35 @@ public interface Guild extends Nameable, AvatarHolder, MasterHolder, InviteHolde
     @RequirePermission(Permission.KICK)
     void kick(User user);
 
+    /**
+     * Ban the users from this guild using {@link JKook#getBulkExecutor()}.
+     * The users are processed concurrently, and the failure on a user does not stop the others.
+     *
+     * @param users          The users to be banned
+     * @param reason         The reason
+     * @param delMessageDays The value passed in determines how many days the message sent by the users is deleted
+     * @param listener       The progress listener
+     * @return The future of the per-user result
+     */
+    @RequirePermission(Permission.BAN)
+    default CompletableFuture<BulkResult<User>> banAll(Collection<? extends User> users, @Nullable String reason, int delMessageDays,
+                                                       @Nullable BulkProgressListener<? super User> listener) {
+        return JKook.getBulkExecutor().execute(users, user -> ban(user, reason, delMessageDays), listener);
+    }
+
+    /**
+     * Kick the users from this guild using {@link JKook#getBulkExecutor()}. This <b>CANNOT</b> be undone! <p>
+     * The users are processed concurrently, and the failure on a user does not stop the others.
+     *
+     * @param users    The users to be kicked
+     * @param listener The progress listener
+     * @return The future of the per-user result
+     */
+    @RequirePermission(Permission.KICK)
+    default CompletableFuture<BulkResult<User>> kickAll(Collection<? extends User> users, @Nullable BulkProgressListener<? super User> listener) {
+        return JKook.getBulkExecutor().execute(users, this::kick, listener);
+    }
+
     /**
      * Create a text channel in this guild with given information.
      *
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.entity;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.entity.channel.Category;
+import snw.jkook.entity.channel.Channel;
+import snw.jkook.entity.mute.MuteData;
+import snw.jkook.entity.mute.MuteResult;
+import snw.jkook.util.BulkExecutor;
+import snw.jkook.util.BulkResult;
+import snw.jkook.util.PageIterator;
+import snw.jkook.util.Validate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Represents an immutable snapshot of the channels, roles, custom emojis and mute status of a guild. <p>
+ * The parts are fetched concurrently, so taking a snapshot costs about as long as the slowest crawl,
+ *  instead of the sum of all the crawls.
+ *
+ * @see Guild#snapshot()
+ */
+public final class GuildSnapshot {
+    // the parts to fetch, their indexes are used in the fetched array
+    private static final int CHANNELS = 0;
+    private static final int ROLES = 1;
+    private static final int EMOJIS = 2;
+    private static final int MUTE_STATUS = 3;
+    private static final List<Integer> PARTS = Collections.unmodifiableList(Arrays.asList(CHANNELS, ROLES, EMOJIS, MUTE_STATUS));
+
+    private final Guild guild;
+    private final long timeStamp;
+    private final List<Channel> channels;
+    private final List<Role> roles;
+    private final List<CustomEmoji> customEmojis;
+    private final List<MuteData> muteStatus;
+    private final Map<String, Channel> channelsById;
+    private final Map<Integer, Role> rolesById;
+
+    private GuildSnapshot(Guild guild, long timeStamp, List<Channel> channels, List<Role> roles,
+                          List<CustomEmoji> customEmojis, List<MuteData> muteStatus) {
+        this.guild = guild;
+        this.timeStamp = timeStamp;
+        this.channels = Collections.unmodifiableList(channels);
+        this.roles = Collections.unmodifiableList(roles);
+        this.customEmojis = Collections.unmodifiableList(customEmojis);
+        this.muteStatus = Collections.unmodifiableList(muteStatus);
+        final Map<String, Channel> channelsById = new HashMap<>(channels.size() * 2);
+        for (Channel channel : channels) {
+            channelsById.put(channel.getId(), channel);
+        }
+        this.channelsById = channelsById;
+        final Map<Integer, Role> rolesById = new HashMap<>(roles.size() * 2);
+        for (Role role : roles) {
+            rolesById.put(role.getId(), role);
+        }
+        this.rolesById = rolesById;
+    }
+
+    /**
+     * Fetch the snapshot of the guild. Every part is fetched as a task of the provided executor.
+     *
+     * @param guild    The guild
+     * @param executor The executor that runs the fetches
+     * @return The future of the snapshot, it will be completed exceptionally if any part can't be fetched
+     */
+    @SuppressWarnings("unchecked")
+    public static CompletableFuture<GuildSnapshot> fetch(Guild guild, BulkExecutor executor) {
+        Validate.notNull(guild);
+        Validate.notNull(executor);
+        final long timeStamp = System.currentTimeMillis();
+        final List<?>[] fetched = new List<?>[PARTS.size()];
+        return executor.execute(PARTS, part -> fetched[part] = fetchPart(guild, part), null)
+                .thenApply(result -> {
+                    checkResult(result);
+                    return new GuildSnapshot(guild, timeStamp,
+                            (List<Channel>) fetched[CHANNELS], (List<Role>) fetched[ROLES],
+                            (List<CustomEmoji>) fetched[EMOJIS], (List<MuteData>) fetched[MUTE_STATUS]);
+                });
+    }
+
+    private static List<?> fetchPart(Guild guild, int part) {
+        switch (part) {
+            case CHANNELS:
+                return crawl(guild.getChannels());
+            case ROLES:
+                return crawl(guild.getRoles());
+            case EMOJIS:
+                return crawl(guild.getCustomEmojis());
+            case MUTE_STATUS:
+                final MuteResult muteResult = guild.getMuteStatus();
+                return muteResult == null ? new ArrayList<>() : new ArrayList<>(muteResult);
+            default:
+                throw new IllegalArgumentException("Unknown part: " + part);
+        }
+    }
+
+    private static <T> List<T> crawl(PageIterator<Set<T>> iterator) {
+        final List<T> result = new ArrayList<>();
+        while (iterator.hasNext()) {
+            result.addAll(iterator.next());
+        }
+        return result;
+    }
+
+    private static void checkResult(BulkResult<Integer> result) {
+        if (!result.isAllSucceeded()) {
+            final Collection<Throwable> failures = result.getFailures().values();
+            throw failures.isEmpty()
+                    ? new CompletionException(new IllegalStateException("The snapshot was interrupted."))
+                    : new CompletionException(failures.iterator().next());
+        }
+    }
+
+    /**
+     * Get the guild of this snapshot.
+     */
+    public Guild getGuild() {
+        return guild;
+    }
+
+    /**
+     * Get the time stamp (in milliseconds) when this snapshot started fetching.
+     */
+    public long getTimeStamp() {
+        return timeStamp;
+    }
+
+    /**
+     * Get all the channels in the guild, including the categories.
+     */
+    public List<Channel> getChannels() {
+        return channels;
+    }
+
+    /**
+     * Get the channel with the provided ID.
+     *
+     * @param id The channel ID
+     * @return The channel, or null if it is not in this snapshot
+     */
+    @Nullable
+    public Channel getChannel(String id) {
+        return channelsById.get(id);
+    }
+
+    /**
+     * Get the categories in the guild.
+     */
+    public List<Category> getCategories() {
+        final List<Category> result = new ArrayList<>();
+        for (Channel channel : channels) {
+            if (channel instanceof Category) {
+                result.add((Category) channel);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get all the roles in the guild.
+     */
+    public List<Role> getRoles() {
+        return roles;
+    }
+
+    /**
+     * Get the role with the provided ID.
+     *
+     * @param id The role ID
+     * @return The role, or null if it is not in this snapshot
+     */
+    @Nullable
+    public Role getRole(int id) {
+        return rolesById.get(id);
+    }
+
+    /**
+     * Get the custom emojis in the guild.
+     */
+    public List<CustomEmoji> getCustomEmojis() {
+        return customEmojis;
+    }
+
+    /**
+     * Get the mute status of the guild.
+     */
+    public List<MuteData> getMuteStatus() {
+        return muteStatus;
+    }
+}
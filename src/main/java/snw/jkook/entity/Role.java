@@ -16,10 +16,18 @@
 
 package snw.jkook.entity;
 
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.JKook;
 import snw.jkook.Permission;
+import snw.jkook.PermissionSet;
 import snw.jkook.entity.abilities.Nameable;
+import snw.jkook.util.BulkProgressListener;
+import snw.jkook.util.BulkResult;
 import snw.jkook.util.RequirePermission;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Represents a role in a Kook guild.
  */
@@ -53,6 +61,28 @@ public interface Role extends Nameable {
      */
     boolean isPermissionSet(Permission permission);
 
+    /**
+     * Get the sum of the permissions' value of this role. You can use the result for {@link Permission#hasPermission}. <p>
+     * The default implementation checks every permission using {@link #isPermissionSet(Permission)},
+     *  implementations should override this to return the stored value directly.
+     */
+    default int getPermissions() {
+        int result = 0;
+        for (Permission permission : Permission.values()) {
+            if (isPermissionSet(permission)) {
+                result |= permission.getValue();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the permissions of this role as a {@link PermissionSet}.
+     */
+    default PermissionSet getPermissionSet() {
+        return PermissionSet.of(getPermissions());
+    }
+
     /**
      * Return true if the user that have this role can be mentioned.
      */
@@ -88,6 +118,44 @@ public interface Role extends Nameable {
     @RequirePermission(Permission.ROLE_MANAGE)
     void setPermissions(int permValueSum);
 
+    /**
+     * Set the permissions of this role.
+     *
+     * @param permissions The permissions
+     */
+    @RequirePermission(Permission.ROLE_MANAGE)
+    default void setPermissions(PermissionSet permissions) {
+        setPermissions(permissions.getRawValue());
+    }
+
+    /**
+     * Grant this role to the users using {@link JKook#getBulkExecutor()}.
+     * The users are processed concurrently, and the failure on a user does not stop the others.
+     *
+     * @param users    The users
+     * @param listener The progress listener
+     * @return The future of the per-user result
+     * @see User#grantRole(Role)
+     */
+    @RequirePermission(Permission.ROLE_MANAGE)
+    default CompletableFuture<BulkResult<User>> grantToAll(Collection<? extends User> users, @Nullable BulkProgressListener<? super User> listener) {
+        return JKook.getBulkExecutor().execute(users, user -> user.grantRole(this), listener);
+    }
+
+    /**
+     * Revoke this role from the users using {@link JKook#getBulkExecutor()}.
+     * The users are processed concurrently, and the failure on a user does not stop the others.
+     *
+     * @param users    The users
+     * @param listener The progress listener
+     * @return The future of the per-user result
+     * @see User#revokeRole(Role)
+     */
+    @RequirePermission(Permission.ROLE_MANAGE)
+    default CompletableFuture<BulkResult<User>> revokeFromAll(Collection<? extends User> users, @Nullable BulkProgressListener<? super User> listener) {
+        return JKook.getBulkExecutor().execute(users, user -> user.revokeRole(this), listener);
+    }
+
     /**
      * Delete this role .
      */
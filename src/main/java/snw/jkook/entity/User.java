@@ -17,6 +17,7 @@
 package snw.jkook.entity;
 
 import org.jetbrains.annotations.Nullable;
+import snw.jkook.JKook;
 import snw.jkook.Permission;
 import snw.jkook.command.CommandSender;
 import snw.jkook.entity.abilities.AvatarHolder;
@@ -27,6 +28,7 @@ import snw.jkook.message.component.BaseComponent;
 import snw.jkook.util.RequirePermission;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a user.
@@ -52,7 +54,7 @@ public interface User extends Nameable, AvatarHolder, CommandSender {
      * @param guild The guild that contains this user
      * @param name  The new nickname of this user
      */
-    @RequirePermission({Permission.CHANGE_NICKNAME, Permission.CHANGE_OTHERS_NICKNAME})
+    @RequirePermission(value = {Permission.CHANGE_NICKNAME, Permission.CHANGE_OTHERS_NICKNAME}, any = true)
     void setNickName(Guild guild, String name);
 
     /**
@@ -107,6 +109,28 @@ public interface User extends Nameable, AvatarHolder, CommandSender {
      */
     String sendPrivateMessage(BaseComponent component, PrivateMessage quote);
 
+    /**
+     * Send a component to this user asynchronously, using {@link JKook#getBulkExecutor()}.
+     *
+     * @param component The component to send
+     * @return The future of the Message ID
+     */
+    default CompletableFuture<String> sendPrivateMessageAsync(BaseComponent component) {
+        return JKook.getBulkExecutor().submit(() -> sendPrivateMessage(component));
+    }
+
+    /**
+     * Send a component to this user asynchronously, using {@link JKook#getBulkExecutor()}.
+     *
+     * @param component The component to send
+     * @param quote     If this parameter is passed in, the incoming message
+     *                  will be considered a reply to the message corresponding to this parameter
+     * @return The future of the Message ID
+     */
+    default CompletableFuture<String> sendPrivateMessageAsync(BaseComponent component, PrivateMessage quote) {
+        return JKook.getBulkExecutor().submit(() -> sendPrivateMessage(component, quote));
+    }
+
     /**
      * Get the voice channel that this user joined.
      */
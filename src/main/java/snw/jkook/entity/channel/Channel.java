@@ -18,6 +18,7 @@ package snw.jkook.entity.channel;
 
 import org.jetbrains.annotations.Nullable;
 import snw.jkook.Permission;
+import snw.jkook.PermissionSet;
 import snw.jkook.entity.Guild;
 import snw.jkook.entity.Role;
 import snw.jkook.entity.User;
@@ -112,6 +113,10 @@ public interface Channel extends Nameable, InviteHolder, MasterHolder {
             this.rawDeny = rawDeny;
         }
 
+        public RolePermissionOverwrite(int roleId, PermissionSet allow, PermissionSet deny) {
+            this(roleId, allow.getRawValue(), deny.getRawValue());
+        }
+
         /**
          * Get the role ID that related to this representation.
          */
@@ -132,6 +137,20 @@ public interface Channel extends Nameable, InviteHolder, MasterHolder {
         public int getRawDeny() {
             return rawDeny;
         }
+
+        /**
+         * Get the allowed permissions.
+         */
+        public PermissionSet getAllow() {
+            return PermissionSet.of(rawAllow);
+        }
+
+        /**
+         * Get the denied permissions.
+         */
+        public PermissionSet getDeny() {
+            return PermissionSet.of(rawDeny);
+        }
     }
 
     /**
@@ -148,6 +167,10 @@ public interface Channel extends Nameable, InviteHolder, MasterHolder {
             this.rawDeny = rawDeny;
         }
 
+        public UserPermissionOverwrite(User user, PermissionSet allow, PermissionSet deny) {
+            this(user, allow.getRawValue(), deny.getRawValue());
+        }
+
         /**
          * Get the user that related to this representation.
          */
@@ -168,6 +191,20 @@ public interface Channel extends Nameable, InviteHolder, MasterHolder {
         public int getRawDeny() {
             return rawDeny;
         }
+
+        /**
+         * Get the allowed permissions.
+         */
+        public PermissionSet getAllow() {
+            return PermissionSet.of(rawAllow);
+        }
+
+        /**
+         * Get the denied permissions.
+         */
+        public PermissionSet getDeny() {
+            return PermissionSet.of(rawDeny);
+        }
     }
 
     /**
@@ -180,6 +217,18 @@ public interface Channel extends Nameable, InviteHolder, MasterHolder {
     @RequirePermission(Permission.CHANNEL_MANAGE)
     void updatePermission(int roleId, int rawAllow, int rawDeny);
 
+    /**
+     * Update the role permission of this channel. Will not affect the rights they already have.
+     *
+     * @param roleId   The role ID
+     * @param allow    The allowed permissions
+     * @param deny     The denied permissions
+     */
+    @RequirePermission(Permission.CHANNEL_MANAGE)
+    default void updatePermission(int roleId, PermissionSet allow, PermissionSet deny) {
+        updatePermission(roleId, allow.getRawValue(), deny.getRawValue());
+    }
+
     /**
      * Update the role permission of this channel. Will not affect the rights they already have.
      *
@@ -190,6 +239,18 @@ public interface Channel extends Nameable, InviteHolder, MasterHolder {
     @RequirePermission(Permission.CHANNEL_MANAGE)
     void updatePermission(Role role, int rawAllow, int rawDeny);
 
+    /**
+     * Update the role permission of this channel. Will not affect the rights they already have.
+     *
+     * @param role     The role
+     * @param allow    The allowed permissions
+     * @param deny     The denied permissions
+     */
+    @RequirePermission(Permission.CHANNEL_MANAGE)
+    default void updatePermission(Role role, PermissionSet allow, PermissionSet deny) {
+        updatePermission(role, allow.getRawValue(), deny.getRawValue());
+    }
+
     /**
      * Update the user's permission of this channel. Will not affect the rights they already have.
      *
@@ -200,6 +261,18 @@ public interface Channel extends Nameable, InviteHolder, MasterHolder {
     @RequirePermission(Permission.CHANNEL_MANAGE)
     void updatePermission(User user, int rawAllow, int rawDeny);
 
+    /**
+     * Update the user's permission of this channel. Will not affect the rights they already have.
+     *
+     * @param user     The user
+     * @param allow    The allowed permissions
+     * @param deny     The denied permissions
+     */
+    @RequirePermission(Permission.CHANNEL_MANAGE)
+    default void updatePermission(User user, PermissionSet allow, PermissionSet deny) {
+        updatePermission(user, allow.getRawValue(), deny.getRawValue());
+    }
+
     /**
      * Delete the permission of the role in this channel. Will not affect the rights they already have.
      *
@@ -17,12 +17,14 @@
 package snw.jkook.entity.channel;
 
 import org.jetbrains.annotations.Nullable;
+import snw.jkook.JKook;
 import snw.jkook.entity.User;
 import snw.jkook.message.TextChannelMessage;
 import snw.jkook.message.component.BaseComponent;
 import snw.jkook.util.PageIterator;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a channel that can chat using texts.
@@ -66,6 +68,30 @@ public interface TextChannel extends Channel {
      */
     String sendComponent(BaseComponent component, @Nullable TextChannelMessage quote, @Nullable User tempTarget);
 
+    /**
+     * Send a message to this channel asynchronously, using {@link JKook#getBulkExecutor()}.
+     *
+     * @param component  The message to send
+     * @param quote      If this parameter is passed in, the incoming message
+     *                   will be considered a reply to the message corresponding to this parameter
+     * @param tempTarget If you pass this parameter,
+     *                   only the user to whom it corresponds can see the incoming message
+     * @return           The future of the Message ID
+     */
+    default CompletableFuture<String> sendComponentAsync(BaseComponent component, @Nullable TextChannelMessage quote, @Nullable User tempTarget) {
+        return JKook.getBulkExecutor().submit(() -> sendComponent(component, quote, tempTarget));
+    }
+
+    /**
+     * Send a message to this channel asynchronously, using {@link JKook#getBulkExecutor()}.
+     *
+     * @param component  The message to send
+     * @return           The future of the Message ID
+     */
+    default CompletableFuture<String> sendComponentAsync(BaseComponent component) {
+        return sendComponentAsync(component, null, null);
+    }
+
     /**
      * Get the limit of minimum speaking time between two statements. (in seconds)
      */
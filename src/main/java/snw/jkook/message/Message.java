@@ -17,6 +17,7 @@
 package snw.jkook.message;
 
 import org.jetbrains.annotations.Nullable;
+import snw.jkook.JKook;
 import snw.jkook.Permission;
 import snw.jkook.entity.abilities.ReactionHolder;
 import snw.jkook.entity.abilities.Receivable;
@@ -26,6 +27,8 @@ import snw.jkook.message.component.card.CardComponent;
 import snw.jkook.message.component.card.MultipleCardComponent;
 import snw.jkook.util.RequirePermission;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Represents a message.
  */
@@ -71,6 +74,17 @@ public interface Message extends Receivable, ReactionHolder {
      */
     String reply(BaseComponent component);
 
+    /**
+     * Send a component <b>as the reply</b> of this message asynchronously,
+     *  using {@link JKook#getBulkExecutor()}.
+     *
+     * @param component   The component
+     * @return            The future of the Message ID
+     */
+    default CompletableFuture<String> replyAsync(BaseComponent component) {
+        return JKook.getBulkExecutor().submit(() -> reply(component));
+    }
+
     /**
      * Send a component to the source of this message (e.g. a user, a text channel),
      * <b>IT IS DIFFERENT FROM {@link #reply}</b>.
@@ -80,6 +94,17 @@ public interface Message extends Receivable, ReactionHolder {
      */
     String sendToSource(BaseComponent component);
 
+    /**
+     * Send a component to the source of this message asynchronously,
+     *  using {@link JKook#getBulkExecutor()}. (See {@link #sendToSource})
+     *
+     * @param component   The component
+     * @return            The future of the Message ID
+     */
+    default CompletableFuture<String> sendToSourceAsync(BaseComponent component) {
+        return JKook.getBulkExecutor().submit(() -> sendToSource(component));
+    }
+
     /**
      * Delete this message .
      */
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.message;
+
+import snw.jkook.JKook;
+import snw.jkook.entity.User;
+import snw.jkook.entity.channel.TextChannel;
+import snw.jkook.message.component.BaseComponent;
+import snw.jkook.message.component.MarkdownComponent;
+import snw.jkook.message.component.TextComponent;
+import snw.jkook.message.component.card.CardComponent;
+import snw.jkook.message.component.card.MultipleCardComponent;
+import snw.jkook.plugin.Plugin;
+import snw.jkook.util.Validate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * An outbound message pipeline that reduces the requests of the bots that update messages frequently. <p>
+ * The requests are queued per target (a message to edit, a channel or a user to send to),
+ *  and a queue is flushed by the {@link snw.jkook.scheduler.Scheduler} once per interval:
+ * <ul>
+ *     <li>The edits of the same message are coalesced, only the latest component is sent.</li>
+ *     <li>The successive sends to the same target are merged where Kook allows it:
+ *      text with text, KMarkdown with KMarkdown (joined by line breaks, up to {@link #getMaxMergedLength()} characters),
+ *      and cards with cards (up to 5 cards and 50 modules). Other components are sent as is.</li>
+ * </ul>
+ * The requests of a target are delivered in order, and the queues of different targets are independent. <p>
+ * The returned futures are completed after the request that carries the component is done.
+ * The merged sends are completed with the ID of the same message. <p>
+ * Example, a progress bar that updates every 100 milliseconds but is sent once per second:
+ * <blockquote><pre>
+ *     MessagePipeline pipeline = new MessagePipeline(plugin, 1000);
+ *     pipeline.setComponent(message, new MarkdownComponent("Progress: " + percent + "%"));
+ * </pre></blockquote>
+ */
+public final class MessagePipeline {
+    /**
+     * The default value of {@link #getMaxMergedLength()}.
+     */
+    public static final int DEFAULT_MAX_MERGED_LENGTH = 2000;
+
+    private static final int MAX_CARDS = 5;
+    private static final int MAX_MODULES = 50;
+
+    private final Plugin plugin;
+    private final long interval;
+    private final int maxMergedLength;
+    private final Map<String, Lane> lanes = new HashMap<>(); // guarded by this
+
+    /**
+     * Construct a pipeline with the default maximum merged text length.
+     *
+     * @param plugin   The plugin that owns the flush tasks
+     * @param interval The interval (in milliseconds) between two flushes of a target
+     */
+    public MessagePipeline(Plugin plugin, long interval) {
+        this(plugin, interval, DEFAULT_MAX_MERGED_LENGTH);
+    }
+
+    /**
+     * The main constructor.
+     *
+     * @param plugin          The plugin that owns the flush tasks
+     * @param interval        The interval (in milliseconds) between two flushes of a target
+     * @param maxMergedLength The maximum length of the text merged from multiple sends, 0 to disable text merging
+     */
+    public MessagePipeline(Plugin plugin, long interval, int maxMergedLength) {
+        Validate.notNull(plugin);
+        Validate.isTrue(interval >= 0, "interval must not be negative.");
+        Validate.isTrue(maxMergedLength >= 0, "maxMergedLength must not be negative.");
+        this.plugin = plugin;
+        this.interval = interval;
+        this.maxMergedLength = maxMergedLength;
+    }
+
+    /**
+     * Get the interval (in milliseconds) between two flushes of a target.
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Get the maximum length of the text merged from multiple sends.
+     */
+    public int getMaxMergedLength() {
+        return maxMergedLength;
+    }
+
+    /**
+     * Queue an edit of the message. If the message has a queued edit, it is replaced.
+     *
+     * @param message   The message to edit
+     * @param component The new component
+     * @return The future that is completed after the edit (or a later edit that replaced it) is done
+     * @see Message#setComponent(BaseComponent)
+     */
+    public CompletableFuture<Void> setComponent(Message message, BaseComponent component) {
+        Validate.notNull(message);
+        return enqueue("edit:" + message.getId(), key -> new EditLane(key, message), component);
+    }
+
+    /**
+     * Queue a message to send to the channel.
+     *
+     * @param channel   The channel
+     * @param component The component to send
+     * @return The future of the message ID
+     * @see TextChannel#sendComponent(BaseComponent, TextChannelMessage, User)
+     */
+    public CompletableFuture<String> sendComponent(TextChannel channel, BaseComponent component) {
+        Validate.notNull(channel);
+        return enqueue("channel:" + channel.getId(), key -> new SendLane(key, it -> channel.sendComponent(it, null, null)), component);
+    }
+
+    /**
+     * Queue a private message to send to the user.
+     *
+     * @param user      The user
+     * @param component The component to send
+     * @return The future of the message ID
+     * @see User#sendPrivateMessage(BaseComponent)
+     */
+    public CompletableFuture<String> sendPrivateMessage(User user, BaseComponent component) {
+        Validate.notNull(user);
+        return enqueue("user:" + user.getId(), key -> new SendLane(key, user::sendPrivateMessage), component);
+    }
+
+    /**
+     * Deliver all the queued requests now, in the current thread.
+     */
+    public void flush() {
+        final List<Lane> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(lanes.values());
+        }
+        for (Lane lane : snapshot) {
+            lane.flush();
+        }
+    }
+
+    /**
+     * Get the count of the queued requests.
+     */
+    public synchronized int getPendingCount() {
+        int result = 0;
+        for (Lane lane : lanes.values()) {
+            result += lane.queue.size();
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> enqueue(String key, Function<String, Lane> factory, BaseComponent component) {
+        Validate.notNull(component);
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        synchronized (this) {
+            final Lane lane = lanes.computeIfAbsent(key, factory);
+            lane.queue.add(new Pending(component, (CompletableFuture<Object>) (CompletableFuture<?>) future));
+            lane.schedule();
+        }
+        return future;
+    }
+
+    // all the fields are guarded by the pipeline
+    private abstract class Lane {
+        private final String key;
+        private final List<Pending> queue = new ArrayList<>();
+        private boolean scheduled;
+        private boolean busy;
+
+        private Lane(String key) {
+            this.key = key;
+        }
+
+        private void schedule() {
+            if (!scheduled && !busy) {
+                scheduled = true;
+                JKook.getScheduler().runTaskLater(plugin, this::flush, interval);
+            }
+        }
+
+        private void flush() {
+            final List<Pending> batch;
+            synchronized (MessagePipeline.this) {
+                scheduled = false;
+                if (busy || queue.isEmpty()) {
+                    return; // the running flush will schedule again
+                }
+                busy = true;
+                batch = new ArrayList<>(queue);
+                queue.clear();
+            }
+            try {
+                deliver(batch);
+            } finally {
+                synchronized (MessagePipeline.this) {
+                    busy = false;
+                    if (queue.isEmpty()) {
+                        lanes.remove(key, this);
+                    } else {
+                        schedule();
+                    }
+                }
+            }
+        }
+
+        abstract void deliver(List<Pending> batch);
+    }
+
+    private final class EditLane extends Lane {
+        private final Message message;
+
+        private EditLane(String key, Message message) {
+            super(key);
+            this.message = message;
+        }
+
+        @Override
+        void deliver(List<Pending> batch) {
+            try {
+                message.setComponent(batch.get(batch.size() - 1).component);
+                for (Pending pending : batch) {
+                    pending.future.complete(null);
+                }
+            } catch (Throwable e) {
+                for (Pending pending : batch) {
+                    pending.future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private final class SendLane extends Lane {
+        private final Function<BaseComponent, String> sender;
+
+        private SendLane(String key, Function<BaseComponent, String> sender) {
+            super(key);
+            this.sender = sender;
+        }
+
+        @Override
+        void deliver(List<Pending> batch) {
+            int start = 0;
+            while (start < batch.size()) {
+                int end = start + 1;
+                BaseComponent merged = batch.get(start).component;
+                while (end < batch.size()) {
+                    final BaseComponent next = merge(merged, batch.get(end).component);
+                    if (next == null) {
+                        break;
+                    }
+                    merged = next;
+                    end++;
+                }
+                try {
+                    final String id = sender.apply(merged);
+                    for (int i = start; i < end; i++) {
+                        batch.get(i).future.complete(id);
+                    }
+                } catch (Throwable e) {
+                    for (int i = start; i < end; i++) {
+                        batch.get(i).future.completeExceptionally(e);
+                    }
+                }
+                start = end;
+            }
+        }
+    }
+
+    // returns the merged component, or null if they can't be merged
+    private BaseComponent merge(BaseComponent first, BaseComponent second) {
+        if (first instanceof TextComponent && first.getClass() == second.getClass()
+                && (first.getClass() == TextComponent.class || first.getClass() == MarkdownComponent.class)) {
+            final String text = first + "\n" + second;
+            if (text.length() > maxMergedLength) {
+                return null;
+            }
+            return first instanceof MarkdownComponent ? new MarkdownComponent(text) : new TextComponent(text);
+        }
+        final List<CardComponent> cards = cards(first);
+        final List<CardComponent> others = cards(second);
+        if (cards == null || others == null || cards.size() + others.size() > MAX_CARDS) {
+            return null;
+        }
+        final List<CardComponent> all = new ArrayList<>(cards);
+        all.addAll(others);
+        int modules = 0;
+        for (CardComponent card : all) {
+            modules += card.moduleCount();
+        }
+        return modules > MAX_MODULES ? null : new MultipleCardComponent(all);
+    }
+
+    private static List<CardComponent> cards(BaseComponent component) {
+        if (component instanceof CardComponent) {
+            return Collections.singletonList((CardComponent) component);
+        }
+        if (component instanceof MultipleCardComponent) {
+            return ((MultipleCardComponent) component).getComponents();
+        }
+        return null;
+    }
+
+    private static final class Pending {
+        private final BaseComponent component;
+        private final CompletableFuture<Object> future;
+
+        private Pending(BaseComponent component, CompletableFuture<Object> future) {
+            this.component = component;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.message.component;
+
+/**
+ * Represents the object that serializes the components into the payloads accepted by Kook. <p>
+ * The payload of a card component is the JSON array of its cards,
+ *  the payload of the other components is their content. <p>
+ * The output must be UTF-8, and the characters that JSON does not require to be escaped
+ *  (e.g. <code>$</code>, <code>{</code>, <code>}</code>, letters and digits) must be written as-is,
+ *  so {@link snw.jkook.message.component.card.CardPayloadTemplate} can find its placeholders in the output.
+ *
+ * @see snw.jkook.Core#getComponentEncoder()
+ * @see JsonComponentEncoder
+ */
+public interface ComponentEncoder {
+
+    /**
+     * Serialize the provided component.
+     *
+     * @param component The component to serialize
+     * @return The UTF-8 encoded payload
+     * @throws IllegalArgumentException Thrown if the component is not supported by this encoder
+     */
+    byte[] encode(BaseComponent component) throws IllegalArgumentException;
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.message.component;
+
+import snw.jkook.entity.abilities.Accessory;
+import snw.jkook.message.component.card.*;
+import snw.jkook.message.component.card.element.*;
+import snw.jkook.message.component.card.module.*;
+import snw.jkook.message.component.card.structure.Paragraph;
+import snw.jkook.util.Validate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The reference {@link ComponentEncoder}. <p>
+ * It walks the component tree and writes UTF-8 directly into a {@link ByteBuffer},
+ *  no intermediate JSON tree or string is created. The payloads are:
+ * <ul>
+ *     <li>{@link TextComponent} and {@link MarkdownComponent}: the content</li>
+ *     <li>{@link FileComponent}: the URL of the file</li>
+ *     <li>{@link CardComponent} and {@link MultipleCardComponent}: the JSON array of the cards</li>
+ *     <li>{@link FrozenCardComponent}: its payload, as-is</li>
+ * </ul>
+ * {@link #encode(BaseComponent)} and {@link #write(BaseComponent, OutputStream)} use a buffer that is reused by the calling thread,
+ *  so encoding the same kind of components repeatedly does not allocate except for the result. <p>
+ * This object is stateless and thread-safe.
+ */
+public final class JsonComponentEncoder implements ComponentEncoder {
+    public static final JsonComponentEncoder INSTANCE = new JsonComponentEncoder();
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // a larger buffer is used once and dropped, so a huge card won't be retained by the thread
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_CAPACITY));
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+    private JsonComponentEncoder() {
+    }
+
+    @Override
+    public byte[] encode(BaseComponent component) throws IllegalArgumentException {
+        final ByteBuffer buffer = encodeToBuffer(component);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Serialize the provided component into the provided stream.
+     *
+     * @param component The component to serialize
+     * @param out       The stream
+     * @throws IllegalArgumentException Thrown if the component is not supported, nothing is written in this case
+     * @throws IOException              Thrown if the stream throws it
+     */
+    public void write(BaseComponent component, OutputStream out) throws IllegalArgumentException, IOException {
+        Validate.notNull(out);
+        final ByteBuffer buffer = encodeToBuffer(component);
+        out.write(buffer.array(), 0, buffer.position());
+    }
+
+    /**
+     * Serialize the provided component into the provided buffer, starting at its current position.
+     *
+     * @param component The component to serialize
+     * @param out       The buffer
+     * @return The count of the written bytes
+     * @throws IllegalArgumentException Thrown if the component is not supported
+     * @throws BufferOverflowException  Thrown if the remaining space of the buffer is not enough
+     *                                  In both cases, the position of the buffer is restored
+     */
+    public int write(BaseComponent component, ByteBuffer out) throws IllegalArgumentException, BufferOverflowException {
+        Validate.notNull(component);
+        Validate.notNull(out);
+        final int start = out.position();
+        try {
+            writeComponent(component, out);
+        } catch (RuntimeException e) {
+            out.position(start);
+            throw e;
+        }
+        return out.position() - start;
+    }
+
+    // the result is the buffer of the current thread, its content is between 0 and the position
+    private static ByteBuffer encodeToBuffer(BaseComponent component) {
+        Validate.notNull(component);
+        ByteBuffer buffer = BUFFER.get();
+        while (true) {
+            buffer.clear();
+            try {
+                writeComponent(component, buffer);
+                return buffer;
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                if (buffer.capacity() <= MAX_RETAINED_CAPACITY) {
+                    BUFFER.set(buffer);
+                }
+            }
+        }
+    }
+
+    private static void writeComponent(BaseComponent component, ByteBuffer out) {
+        if (component instanceof TextComponent) { // including MarkdownComponent
+            writeUtf8(component.toString(), out, false);
+        } else if (component instanceof FileComponent) {
+            writeUtf8(((FileComponent) component).getUrl(), out, false);
+        } else if (component instanceof FrozenCardComponent) {
+            out.put(((FrozenCardComponent) component).getPayload());
+        } else if (component instanceof MultipleCardComponent) {
+            out.put((byte) '[');
+            boolean first = true;
+            for (CardComponent card : ((MultipleCardComponent) component).getComponents()) {
+                if (!first) {
+                    out.put((byte) ',');
+                }
+                first = false;
+                writeCard(card, out);
+            }
+            out.put((byte) ']');
+        } else if (component instanceof CardComponent) {
+            out.put((byte) '[');
+            writeCard((CardComponent) component, out);
+            out.put((byte) ']');
+        } else {
+            throw new IllegalArgumentException("Unsupported component: " + component.getClass().getName());
+        }
+    }
+
+    // region Cards
+
+    private static void writeCard(CardComponent card, ByteBuffer out) {
+        ascii("{\"type\":\"card\"", out);
+        if (card.getTheme() != null) {
+            field("theme", card.getTheme().getValue(), out);
+        }
+        field("size", card.getSize().getValue(), out);
+        ascii(",\"modules\":[", out);
+        boolean first = true;
+        for (BaseModule module : card.getModules()) {
+            if (!first) {
+                out.put((byte) ',');
+            }
+            first = false;
+            writeModule(module, out);
+        }
+        ascii("]}", out);
+    }
+
+    private static void writeModule(BaseModule module, ByteBuffer out) {
+        if (module instanceof HeaderModule) {
+            ascii("{\"type\":\"header\",\"text\":", out);
+            writeElement(((HeaderModule) module).getElement(), out);
+        } else if (module instanceof SectionModule) {
+            final SectionModule section = (SectionModule) module;
+            ascii("{\"type\":\"section\",\"text\":", out);
+            writeElement(section.getText(), out);
+            final Accessory accessory = section.getAccessory();
+            if (accessory instanceof CardScopeElement) {
+                if (section.getMode() != null) {
+                    field("mode", section.getMode().getValue(), out);
+                }
+                ascii(",\"accessory\":", out);
+                writeElement((CardScopeElement) accessory, out);
+            }
+        } else if (module instanceof ImageGroupModule) {
+            ascii("{\"type\":\"image-group\"", out);
+            elements(((ImageGroupModule) module).getImages(), out);
+        } else if (module instanceof ContainerModule) {
+            ascii("{\"type\":\"container\"", out);
+            elements(((ContainerModule) module).getImages(), out);
+        } else if (module instanceof ActionGroupModule) {
+            ascii("{\"type\":\"action-group\"", out);
+            elements(((ActionGroupModule) module).getButtons(), out);
+        } else if (module instanceof ContextModule) {
+            ascii("{\"type\":\"context\"", out);
+            elements(((ContextModule) module).getModules(), out);
+        } else if (module instanceof DividerModule) {
+            ascii("{\"type\":\"divider\"", out);
+        } else if (module instanceof FileModule) {
+            final FileModule file = (FileModule) module;
+            ascii("{\"type\":", out);
+            string(file.getType().getValue(), out);
+            field("title", file.getTitle(), out);
+            field("src", file.getSource(), out);
+            field("cover", file.getCover(), out);
+        } else if (module instanceof CountdownModule) {
+            final CountdownModule countdown = (CountdownModule) module;
+            ascii("{\"type\":\"countdown\"", out);
+            field("mode", countdown.getType().getValue(), out);
+            ascii(",\"endTime\":", out);
+            writeLong(countdown.getEndTime(), out);
+        } else if (module instanceof InviteModule) {
+            ascii("{\"type\":\"invite\"", out);
+            field("code", ((InviteModule) module).getCode(), out);
+        } else {
+            throw new IllegalArgumentException("Unsupported module: " + module.getClass().getName());
+        }
+        out.put((byte) '}');
+    }
+
+    private static void writeElement(CardScopeElement element, ByteBuffer out) {
+        if (element instanceof PlainTextElement) {
+            final PlainTextElement text = (PlainTextElement) element;
+            ascii("{\"type\":\"plain-text\"", out);
+            field("content", text.getContent(), out);
+            ascii(text.willConvertEmoji() ? ",\"emoji\":true" : ",\"emoji\":false", out);
+        } else if (element instanceof MarkdownElement) {
+            ascii("{\"type\":\"kmarkdown\"", out);
+            field("content", ((MarkdownElement) element).getContent(), out);
+        } else if (element instanceof ImageElement) {
+            final ImageElement image = (ImageElement) element;
+            ascii("{\"type\":\"image\"", out);
+            field("src", image.getSource(), out);
+            field("alt", image.getAlt(), out);
+            if (image.getSize() != null) {
+                field("size", image.getSize().getValue(), out);
+            }
+            ascii(image.isCircled() ? ",\"circle\":true" : ",\"circle\":false", out);
+        } else if (element instanceof ButtonElement) {
+            final ButtonElement button = (ButtonElement) element;
+            ascii("{\"type\":\"button\"", out);
+            field("theme", button.getTheme().getValue(), out);
+            field("value", button.getValue(), out);
+            final ButtonElement.EventType type = button.getEventType();
+            if (type != null && type != ButtonElement.EventType.NO_ACTION) {
+                field("click", type.getValue(), out);
+            }
+            ascii(",\"text\":", out);
+            writeElement(button.getText(), out);
+        } else if (element instanceof Paragraph) {
+            final Paragraph paragraph = (Paragraph) element;
+            ascii("{\"type\":\"paragraph\",\"cols\":", out);
+            writeLong(paragraph.getColumns(), out);
+            ascii(",\"fields\":[", out);
+            boolean first = true;
+            for (BaseElement field : paragraph.getFields()) {
+                if (!first) {
+                    out.put((byte) ',');
+                }
+                first = false;
+                writeElement(field, out);
+            }
+            out.put((byte) ']');
+        } else {
+            throw new IllegalArgumentException("Unsupported element: " + element.getClass().getName());
+        }
+        out.put((byte) '}');
+    }
+
+    // writes ,"elements":[...]
+    private static void elements(Collection<? extends CardScopeElement> elements, ByteBuffer out) {
+        ascii(",\"elements\":[", out);
+        boolean first = true;
+        for (CardScopeElement element : elements) {
+            if (!first) {
+                out.put((byte) ',');
+            }
+            first = false;
+            writeElement(element, out);
+        }
+        out.put((byte) ']');
+    }
+
+    // endregion
+
+    // region JSON primitives
+
+    // writes ,"name":"value" , nothing is written if the value is null
+    private static void field(String name, String value, ByteBuffer out) {
+        if (value == null) {
+            return;
+        }
+        out.put((byte) ',');
+        string(name, out);
+        out.put((byte) ':');
+        string(value, out);
+    }
+
+    private static void string(String value, ByteBuffer out) {
+        out.put((byte) '"');
+        writeUtf8(value, out, true);
+        out.put((byte) '"');
+    }
+
+    // the value must only contain ASCII characters that need no escaping
+    private static void ascii(String value, ByteBuffer out) {
+        for (int i = 0; i < value.length(); i++) {
+            out.put((byte) value.charAt(i));
+        }
+    }
+
+    private static void writeLong(long value, ByteBuffer out) {
+        if (value == Long.MIN_VALUE) {
+            ascii(String.valueOf(value), out);
+            return;
+        }
+        if (value < 0) {
+            out.put((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.put((byte) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    /**
+     * Get the length of the provided text in bytes, after it is escaped as the content of a JSON string and encoded in UTF-8. <p>
+     * Unpaired surrogates are counted as <code>?</code>.
+     *
+     * @param value The text
+     */
+    public static int escapedLength(CharSequence value) {
+        final int length = value.length();
+        int result = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c == '\n' || c == '\r' || c == '\t' || c == '\b' || c == '\f') {
+                result += 2;
+            } else if (c < 0x20) {
+                result += 6;
+            } else if (c < 0x80) {
+                result++;
+            } else if (c < 0x800) {
+                result += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                result += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                result++;
+            } else {
+                result += 3;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Write the provided text as the content of a JSON string (the quotes are not written), in UTF-8. <p>
+     * Only the characters that JSON requires to be escaped are escaped, unpaired surrogates are written as <code>?</code>.
+     *
+     * @param value The text
+     * @param out   The buffer, see {@link #escapedLength(CharSequence)} for the required space
+     * @throws BufferOverflowException Thrown if the remaining space of the buffer is not enough
+     */
+    public static void writeEscaped(CharSequence value, ByteBuffer out) throws BufferOverflowException {
+        writeUtf8(value, out, true);
+    }
+
+    private static void writeUtf8(CharSequence value, ByteBuffer out, boolean escape) {
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                if (escape && (c < 0x20 || c == '"' || c == '\\')) {
+                    writeEscape(c, out);
+                } else {
+                    out.put((byte) c);
+                }
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static void writeEscape(char c, ByteBuffer out) {
+        out.put((byte) '\\');
+        switch (c) {
+            case '"':
+            case '\\':
+                out.put((byte) c);
+                break;
+            case '\n':
+                out.put((byte) 'n');
+                break;
+            case '\r':
+                out.put((byte) 'r');
+                break;
+            case '\t':
+                out.put((byte) 't');
+                break;
+            case '\b':
+                out.put((byte) 'b');
+                break;
+            case '\f':
+                out.put((byte) 'f');
+                break;
+            default:
+                out.put((byte) 'u');
+                out.put((byte) '0');
+                out.put((byte) '0');
+                out.put(HEX[c >> 4]);
+                out.put(HEX[c & 0xF]);
+        }
+    }
+
+    // endregion
+}
@@ -19,17 +19,22 @@ package snw.jkook.message.component.card;
 import snw.jkook.message.component.card.module.BaseModule;
 import snw.jkook.util.Validate;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Represents a card builder. Support multiple card.
  */
 public class CardBuilder {
+    private static final int MAX_CARDS = 5; // Kook Official limit!
+    private static final int INITIAL_MODULE_CAPACITY = 8;
+
     private Theme theme;
     private Size size;
-    private List<BaseModule> modules = new LinkedList<>();
-    private final List<CardComponent> cards = new LinkedList<>();
+    // the arrays are handed over to the built components without copying
+    private Object[] modules = new Object[INITIAL_MODULE_CAPACITY];
+    private int moduleCount;
+    private final Object[] cards = new Object[MAX_CARDS];
+    private int cardCount;
 
     /**
      * Set theme of current card.
@@ -54,7 +59,10 @@ public class CardBuilder {
      * @param module The module
      */
     public CardBuilder addModule(BaseModule module) {
-        this.modules.add(module);
+        if (moduleCount == modules.length) {
+            modules = Arrays.copyOf(modules, moduleCount * 2);
+        }
+        modules[moduleCount++] = module;
         return this;
     }
 
@@ -79,9 +87,13 @@ public class CardBuilder {
     public CardBuilder newCard() {
         Validate.notNull(size, "Size is not defined yet!");
         Validate.notNull(theme, "Theme is not defined yet!");
-        cards.add(new CardComponent(modules, size, theme));
-        // create a new one instead of clear() to make sure the added component won't be empty.
-        modules = new LinkedList<>();
+        if (cardCount == MAX_CARDS) {
+            throw new IllegalStateException("Unexpected card count. Expected <= " + MAX_CARDS + ", got " + (cardCount + 1));
+        }
+        cards[cardCount++] = new CardComponent(modules, moduleCount, size, theme);
+        // create a new one instead of clearing it, the added component is using it.
+        modules = new Object[INITIAL_MODULE_CAPACITY];
+        moduleCount = 0;
         theme = null;
         size = null;
         return this;
@@ -91,9 +103,9 @@ public class CardBuilder {
      * Build the multiple card.
      */
     public MultipleCardComponent build() {
-        if (!modules.isEmpty()) {
+        if (moduleCount != 0) {
             newCard();
         }
-        return new MultipleCardComponent(cards);
+        return new MultipleCardComponent(cards, cardCount);
     }
 }
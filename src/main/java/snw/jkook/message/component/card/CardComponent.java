@@ -18,10 +18,9 @@ package snw.jkook.message.component.card;
 
 import snw.jkook.message.component.BaseComponent;
 import snw.jkook.message.component.card.module.BaseModule;
+import snw.jkook.util.ImmutableArrayList;
 import snw.jkook.util.Validate;
 
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -33,11 +32,20 @@ public class CardComponent extends BaseComponent {
     private final Theme theme;
 
     public CardComponent(List<BaseModule> modules, Size size, Theme theme) {
+        this(size, theme, ImmutableArrayList.copyOf(modules));
+    }
+
+    // used by CardBuilder, the array is not copied
+    CardComponent(Object[] modules, int moduleCount, Size size, Theme theme) {
+        this(size, theme, ImmutableArrayList.wrap(modules, moduleCount));
+    }
+
+    private CardComponent(Size size, Theme theme, List<BaseModule> modules) {
         Validate.isTrue(
                 size == Size.LG || size == Size.SM,
                 "Card object only accepts LG and SM size."
         );
-        this.modules = Collections.unmodifiableList(new LinkedList<>(modules));
+        this.modules = modules;
         this.size = size;
         this.theme = theme;
     }
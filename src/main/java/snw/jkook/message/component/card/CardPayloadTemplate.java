@@ -0,0 +1,232 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.message.component.card;
+
+import snw.jkook.JKook;
+import snw.jkook.message.component.ComponentEncoder;
+import snw.jkook.message.component.JsonComponentEncoder;
+import snw.jkook.util.ImmutableArrayList;
+import snw.jkook.util.Validate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Represents serialized cards with placeholders that can be filled without serializing the cards again. <p>
+ * Put {@link #placeholder(String)} into the text of the cards (e.g. the content of a {@link snw.jkook.message.component.card.element.MarkdownElement}),
+ *  then compile the cards once. The payload is split at the placeholders,
+ *  so rendering only escapes the values and copies the bytes into a new payload. <p>
+ * Placeholders are only recognized inside JSON strings,
+ *  and a name may only contain letters, digits, <code>_</code>, <code>-</code> and <code>.</code>. <p>
+ * Example:
+ * <blockquote><pre>
+ *     CardPayloadTemplate template = CardPayloadTemplate.compile(new CardBuilder()
+ *             .setTheme(Theme.INFO).setSize(Size.LG)
+ *             .addModule(new SectionModule(new MarkdownElement("Welcome, " + CardPayloadTemplate.placeholder("name") + "!"), null, null))
+ *             .build());
+ *     channel.sendComponent(template.render(Collections.singletonMap("name", user.getName())), null, null);
+ * </pre></blockquote>
+ * This object is immutable, so it can be shared between threads.
+ */
+public final class CardPayloadTemplate {
+    private static final byte[] OPEN = {'$', '{'};
+    private static final byte CLOSE = '}';
+
+    // segments.length == slots.length + 1, the payload is segments[0] + value of slots[0] + segments[1] + ...
+    private final byte[][] segments;
+    private final int[] slots; // index in names
+    private final String[] names; // distinct, in the order of first occurrence
+    private final int fixedLength;
+
+    private CardPayloadTemplate(byte[][] segments, int[] slots, String[] names) {
+        this.segments = segments;
+        this.slots = slots;
+        this.names = names;
+        int length = 0;
+        for (byte[] segment : segments) {
+            length += segment.length;
+        }
+        this.fixedLength = length;
+    }
+
+    /**
+     * Create the placeholder with the provided name, it looks like <code>${name}</code>.
+     *
+     * @param name The name of the placeholder
+     * @throws IllegalArgumentException Thrown if the name is empty or contains unsupported characters
+     */
+    public static String placeholder(String name) throws IllegalArgumentException {
+        Validate.notEmpty(name, "Placeholder name cannot be empty.");
+        for (int i = 0; i < name.length(); i++) {
+            Validate.isTrue(isNameChar(name.charAt(i)), "Unsupported character in placeholder name: " + name);
+        }
+        return "${" + name + "}";
+    }
+
+    /**
+     * Serialize the provided cards using the encoder of the implementation, and find the placeholders.
+     *
+     * @param component The cards
+     * @see JKook#getComponentEncoder()
+     */
+    public static CardPayloadTemplate compile(MultipleCardComponent component) {
+        return compile(component, JKook.getComponentEncoder());
+    }
+
+    /**
+     * Serialize the provided cards using the provided encoder, and find the placeholders.
+     *
+     * @param component The cards
+     * @param encoder   The encoder
+     */
+    public static CardPayloadTemplate compile(MultipleCardComponent component, ComponentEncoder encoder) {
+        Validate.notNull(component);
+        Validate.notNull(encoder);
+        return compile(encoder.encode(component));
+    }
+
+    /**
+     * Find the placeholders in the provided payload.
+     *
+     * @param payload The UTF-8 encoded JSON payload
+     */
+    public static CardPayloadTemplate compile(byte[] payload) {
+        Validate.notNull(payload);
+        final List<byte[]> segments = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
+        int[] slots = new int[8];
+        int slotCount = 0;
+        int segmentStart = 0;
+        boolean inString = false;
+        for (int i = 0; i < payload.length; i++) {
+            final byte b = payload[i];
+            if (!inString) {
+                inString = b == '"';
+                continue;
+            }
+            if (b == '\\') {
+                i++; // skip the escaped character
+            } else if (b == '"') {
+                inString = false;
+            } else if (b == OPEN[0] && i + 1 < payload.length && payload[i + 1] == OPEN[1]) {
+                int end = i + 2;
+                while (end < payload.length && payload[end] >= 0 && isNameChar((char) payload[end])) {
+                    end++;
+                }
+                if (end == i + 2 || end >= payload.length || payload[end] != CLOSE) {
+                    continue; // not a placeholder, e.g. "${}" or "${ a}"
+                }
+                final String name = new String(payload, i + 2, end - i - 2, StandardCharsets.US_ASCII);
+                int index = names.indexOf(name);
+                if (index == -1) {
+                    index = names.size();
+                    names.add(name);
+                }
+                if (slotCount == slots.length) {
+                    slots = Arrays.copyOf(slots, slotCount * 2);
+                }
+                slots[slotCount++] = index;
+                segments.add(Arrays.copyOfRange(payload, segmentStart, i));
+                segmentStart = end + 1;
+                i = end;
+            }
+        }
+        segments.add(Arrays.copyOfRange(payload, segmentStart, payload.length));
+        return new CardPayloadTemplate(
+                segments.toArray(new byte[0][]),
+                Arrays.copyOf(slots, slotCount),
+                names.toArray(new String[0])
+        );
+    }
+
+    /**
+     * Get the names of the placeholders, in the order of their first occurrence.
+     */
+    public List<String> getPlaceholders() {
+        return ImmutableArrayList.wrap(names, names.length);
+    }
+
+    // the count of the occurrences of each placeholder, in the order of getPlaceholders
+    int[] countOccurrences() {
+        final int[] counts = new int[names.length];
+        for (int slot : slots) {
+            counts[slot]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Render the payload using the provided values.
+     *
+     * @param values The values, keyed by the placeholder names. {@link String#valueOf(Object)} is used to convert them
+     * @throws IllegalArgumentException Thrown if a placeholder has no value
+     */
+    public FrozenCardComponent render(Map<String, ?> values) throws IllegalArgumentException {
+        Validate.notNull(values);
+        final Object[] ordered = new Object[names.length];
+        for (int i = 0; i < names.length; i++) {
+            final Object value = values.get(names[i]);
+            Validate.isTrue(value != null || values.containsKey(names[i]), "No value for placeholder: " + names[i]);
+            ordered[i] = value;
+        }
+        return render(ordered);
+    }
+
+    /**
+     * Render the payload using the provided values.
+     *
+     * @param values The values, in the order of {@link #getPlaceholders()}. {@link String#valueOf(Object)} is used to convert them
+     * @throws IllegalArgumentException Thrown if the count of the values does not match the count of the placeholders
+     */
+    public FrozenCardComponent render(Object... values) throws IllegalArgumentException {
+        Validate.notNull(values);
+        Validate.isTrue(values.length == names.length,
+                "Unexpected value count. Expected " + names.length + ", got " + values.length);
+        final String[] strings = new String[values.length];
+        final int[] lengths = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            strings[i] = String.valueOf(values[i]);
+            lengths[i] = JsonComponentEncoder.escapedLength(strings[i]);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(encodedLength(lengths));
+        encode(strings, buffer);
+        return new FrozenCardComponent(null, buffer.array());
+    }
+
+    // the payload length, valueLengths are the escaped lengths of the values in the order of names
+    int encodedLength(int[] valueLengths) {
+        int length = fixedLength;
+        for (int slot : slots) {
+            length += valueLengths[slot];
+        }
+        return length;
+    }
+
+    // the buffer must have enough room, see encodedLength
+    void encode(String[] values, ByteBuffer out) {
+        for (int i = 0; i < slots.length; i++) {
+            out.put(segments[i]);
+            JsonComponentEncoder.writeEscaped(values[slots[i]], out);
+        }
+        out.put(segments[slots.length]);
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-' || c == '.';
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.message.component.card;
+
+import snw.jkook.JKook;
+import snw.jkook.entity.abilities.Accessory;
+import snw.jkook.message.component.ComponentEncoder;
+import snw.jkook.message.component.JsonComponentEncoder;
+import snw.jkook.message.component.card.element.*;
+import snw.jkook.message.component.card.module.*;
+import snw.jkook.message.component.card.structure.Paragraph;
+import snw.jkook.util.Validate;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Represents cards that are declared once and rendered many times with different values. <p>
+ * Declare the cards with {@link CardBuilder}, and put {@link #slot(String)} into the values of the elements.
+ * Slots are supported in:
+ * <ul>
+ *     <li>the content of {@link PlainTextElement} and {@link MarkdownElement}</li>
+ *     <li>the source and the alternative text of {@link ImageElement}</li>
+ *     <li>the value of {@link ButtonElement}</li>
+ * </ul>
+ * A slot that occurs anywhere else (e.g. the title of a {@link FileModule}), even if it also occurs in a supported element,
+ *  is rejected on compilation. <p>
+ * The cards are serialized once on compilation. Rendering does not create any card object,
+ *  the values are bound into a {@link Binding} (a flat array that is allocated once and reusable),
+ *  and the payload is encoded from the serialized segments and the bound values straight into a byte buffer. <p>
+ * Example:
+ * <blockquote><pre>
+ *     CardTemplate profile = CardTemplate.compile(new CardBuilder()
+ *             .setTheme(Theme.INFO).setSize(Size.LG)
+ *             .addModule(new SectionModule(
+ *                     new MarkdownElement("**" + CardTemplate.slot("name") + "**"),
+ *                     new ImageElement(CardTemplate.slot("avatar"), null, true), Accessory.Mode.LEFT)));
+ *     int name = profile.indexOf("name");
+ *     int avatar = profile.indexOf("avatar");
+ *     CardTemplate.Binding binding = profile.newBinding();
+ *     for (User user : users) {
+ *         binding.set(name, user.getName()).set(avatar, user.getAvatarUrl(false));
+ *         user.sendPrivateMessage(profile.render(binding));
+ *     }
+ * </pre></blockquote>
+ * This object is immutable, so it can be shared between threads. But a {@link Binding} is not thread-safe.
+ *
+ * @see CardPayloadTemplate
+ */
+public final class CardTemplate {
+    private static final Pattern SLOT = Pattern.compile("\\$\\{([A-Za-z0-9_.-]+)}");
+    private static final int HEADER_LIMIT = 100;
+    private static final int PLAIN_TEXT_LIMIT = 2000;
+    private static final int MARKDOWN_LIMIT = 5000;
+
+    private final CardPayloadTemplate payload;
+    private final List<String> slots;
+    private final Map<String, Integer> indexes;
+    // the length limits of the text elements that contain slots, see checkLimits
+    private final int[] limits;
+    private final int[] fixedLengths; // the length of the content without the slots
+    private final int[][] limitedSlots; // the slot indexes in the content, one per occurrence
+
+    private CardTemplate(CardPayloadTemplate payload, int[] limits, int[] fixedLengths, int[][] limitedSlots) {
+        this.payload = payload;
+        this.slots = payload.getPlaceholders();
+        this.indexes = new HashMap<>();
+        for (int i = 0; i < slots.size(); i++) {
+            indexes.put(slots.get(i), i);
+        }
+        this.limits = limits;
+        this.fixedLengths = fixedLengths;
+        this.limitedSlots = limitedSlots;
+    }
+
+    /**
+     * Create the slot with the provided name.
+     *
+     * @param name The name of the slot
+     * @throws IllegalArgumentException Thrown if the name is empty or contains unsupported characters
+     * @see CardPayloadTemplate#placeholder(String)
+     */
+    public static String slot(String name) throws IllegalArgumentException {
+        return CardPayloadTemplate.placeholder(name);
+    }
+
+    /**
+     * Build the cards in the provided builder and compile them using the encoder of the implementation.
+     *
+     * @param builder The builder that declares the cards
+     */
+    public static CardTemplate compile(CardBuilder builder) {
+        Validate.notNull(builder);
+        return compile(builder.build());
+    }
+
+    /**
+     * Compile the provided cards using the encoder of the implementation.
+     *
+     * @param component The cards
+     * @see JKook#getComponentEncoder()
+     */
+    public static CardTemplate compile(MultipleCardComponent component) {
+        return compile(component, JKook.getComponentEncoder());
+    }
+
+    /**
+     * Compile the provided cards using the provided encoder.
+     *
+     * @param component The cards
+     * @param encoder   The encoder
+     * @throws IllegalArgumentException Thrown if a slot is used outside the supported elements
+     */
+    public static CardTemplate compile(MultipleCardComponent component, ComponentEncoder encoder) throws IllegalArgumentException {
+        final CardPayloadTemplate payload = CardPayloadTemplate.compile(component, encoder);
+        final Compiler compiler = new Compiler();
+        for (CardComponent card : component.getComponents()) {
+            for (BaseModule module : card.getModules()) {
+                compiler.module(module);
+            }
+        }
+        final List<String> names = payload.getPlaceholders();
+        final int[] occurrences = payload.countOccurrences();
+        for (int i = 0; i < names.size(); i++) {
+            // a slot that also occurs in an unsupported place has more occurrences in the payload
+            final Integer supported = compiler.occurrences.get(names.get(i));
+            Validate.isTrue(supported != null && supported == occurrences[i],
+                    "Slot '" + names.get(i) + "' is used outside the supported elements.");
+        }
+        final int count = compiler.limits.size();
+        final int[] limits = new int[count];
+        final int[] fixedLengths = new int[count];
+        final int[][] limitedSlots = new int[count][];
+        for (int i = 0; i < count; i++) {
+            limits[i] = compiler.limits.get(i);
+            fixedLengths[i] = compiler.fixedLengths.get(i);
+            final List<String> elementSlots = compiler.limitedSlots.get(i);
+            limitedSlots[i] = new int[elementSlots.size()];
+            for (int j = 0; j < elementSlots.size(); j++) {
+                final int index = names.indexOf(elementSlots.get(j));
+                Validate.isTrue(index != -1, "Slot '" + elementSlots.get(j) + "' is not found in the serialized cards.");
+                limitedSlots[i][j] = index;
+            }
+        }
+        return new CardTemplate(payload, limits, fixedLengths, limitedSlots);
+    }
+
+    /**
+     * Get the names of the slots, in the order of their first occurrence.
+     */
+    public List<String> getSlots() {
+        return slots;
+    }
+
+    /**
+     * Get the index of the slot with the provided name. <p>
+     * Look the indexes up once and use {@link Binding#set(int, Object)} when rendering many times.
+     *
+     * @param name The name of the slot
+     * @return The index, or -1 if this template does not have such slot
+     */
+    public int indexOf(String name) {
+        final Integer index = indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Create a new binding for this template. It can be reused for any number of renderings.
+     */
+    public Binding newBinding() {
+        return new Binding(this);
+    }
+
+    /**
+     * Get the length of the payload rendered with the provided binding, in bytes.
+     *
+     * @param binding The binding
+     * @throws IllegalArgumentException Thrown if the binding does not belong to this template, or a slot has no value
+     */
+    public int encodedLength(Binding binding) throws IllegalArgumentException {
+        checkBinding(binding);
+        return payload.encodedLength(binding.lengths);
+    }
+
+    /**
+     * Encode the payload rendered with the provided binding into the provided buffer,
+     *  starting at its current position.
+     *
+     * @param binding The binding
+     * @param out     The buffer
+     * @return The count of the written bytes
+     * @throws IllegalArgumentException Thrown if the binding does not belong to this template, a slot has no value,
+     *                                  or a text is too long for its element after binding
+     * @throws BufferOverflowException  Thrown if the remaining space of the buffer is not enough, nothing is written in this case
+     */
+    public int encode(Binding binding, ByteBuffer out) throws IllegalArgumentException, BufferOverflowException {
+        Validate.notNull(out);
+        final int length = encodedLength(binding);
+        checkLimits(binding);
+        if (out.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        payload.encode(binding.values, out);
+        return length;
+    }
+
+    /**
+     * Render the cards with the provided binding.
+     *
+     * @param binding The binding
+     * @throws IllegalArgumentException Thrown if the binding does not belong to this template, a slot has no value,
+     *                                  or a text is too long for its element after binding
+     */
+    public FrozenCardComponent render(Binding binding) throws IllegalArgumentException {
+        final ByteBuffer buffer = ByteBuffer.allocate(encodedLength(binding));
+        encode(binding, buffer);
+        return new FrozenCardComponent(null, buffer.array());
+    }
+
+    private void checkBinding(Binding binding) {
+        Validate.notNull(binding);
+        Validate.isTrue(binding.template == this, "The binding does not belong to this template.");
+        for (int i = 0; i < binding.values.length; i++) {
+            Validate.notNull(binding.values[i], "No value for slot: " + slots.get(i));
+        }
+    }
+
+    private void checkLimits(Binding binding) {
+        for (int i = 0; i < limits.length; i++) {
+            int length = fixedLengths[i];
+            for (int slot : limitedSlots[i]) {
+                length += binding.values[slot].length();
+            }
+            Validate.isTrue(length <= limits[i],
+                    "Too long content after binding. Expected <= " + limits[i] + ", got " + length);
+        }
+    }
+
+    /**
+     * Represents the values bound to the slots of a {@link CardTemplate}. <p>
+     * The values are stored in a flat array in the order of {@link CardTemplate#getSlots()},
+     *  and their encoded lengths are calculated when they are set,
+     *  so rendering only copies bytes. <p>
+     * This object is not thread-safe.
+     */
+    public static final class Binding {
+        private final CardTemplate template;
+        private final String[] values;
+        private final int[] lengths; // the escaped lengths of the values
+
+        private Binding(CardTemplate template) {
+            this.template = template;
+            this.values = new String[template.slots.size()];
+            this.lengths = new int[values.length];
+        }
+
+        /**
+         * Bind a value to the slot with the provided name.
+         *
+         * @param name  The name of the slot
+         * @param value The value, {@link String#valueOf(Object)} is used to convert it
+         * @throws IllegalArgumentException Thrown if the template does not have such slot
+         */
+        public Binding set(String name, Object value) throws IllegalArgumentException {
+            final int index = template.indexOf(name);
+            Validate.isTrue(index != -1, "Unknown slot: " + name);
+            return set(index, value);
+        }
+
+        /**
+         * Bind a value to the slot at the provided index.
+         *
+         * @param index The index of the slot, see {@link CardTemplate#indexOf(String)}
+         * @param value The value, {@link String#valueOf(Object)} is used to convert it
+         * @throws IndexOutOfBoundsException Thrown if the index is out of range
+         */
+        public Binding set(int index, Object value) throws IndexOutOfBoundsException {
+            if (index < 0 || index >= values.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + values.length);
+            }
+            final String string = String.valueOf(value);
+            values[index] = string;
+            lengths[index] = JsonComponentEncoder.escapedLength(string);
+            return this;
+        }
+
+        /**
+         * Remove all the bound values.
+         */
+        public Binding clear() {
+            Arrays.fill(values, null);
+            Arrays.fill(lengths, 0);
+            return this;
+        }
+    }
+
+    // collects the slots of the supported elements
+    private static final class Compiler {
+        private final Map<String, Integer> occurrences = new HashMap<>();
+        private final List<Integer> limits = new ArrayList<>();
+        private final List<Integer> fixedLengths = new ArrayList<>();
+        private final List<List<String>> limitedSlots = new ArrayList<>();
+
+        private void module(BaseModule module) {
+            if (module instanceof SectionModule) {
+                final SectionModule section = (SectionModule) module;
+                final CardScopeElement text = section.getText();
+                if (text instanceof Paragraph) {
+                    for (BaseElement field : ((Paragraph) text).getFields()) {
+                        element(field);
+                    }
+                } else if (text instanceof BaseElement) {
+                    element((BaseElement) text);
+                }
+                final Accessory accessory = section.getAccessory();
+                if (accessory instanceof BaseElement) {
+                    element((BaseElement) accessory);
+                }
+            } else if (module instanceof HeaderModule) {
+                text(((HeaderModule) module).getElement().getContent(), HEADER_LIMIT);
+            } else if (module instanceof ContextModule) {
+                for (BaseElement element : ((ContextModule) module).getModules()) {
+                    element(element);
+                }
+            } else if (module instanceof ImageGroupModule) {
+                for (ImageElement image : ((ImageGroupModule) module).getImages()) {
+                    element(image);
+                }
+            } else if (module instanceof ContainerModule) {
+                for (ImageElement image : ((ContainerModule) module).getImages()) {
+                    element(image);
+                }
+            } else if (module instanceof ActionGroupModule) {
+                for (InteractElement button : ((ActionGroupModule) module).getButtons()) {
+                    element(button);
+                }
+            }
+        }
+
+        private void element(BaseElement element) {
+            if (element instanceof PlainTextElement) {
+                text(((PlainTextElement) element).getContent(), PLAIN_TEXT_LIMIT);
+            } else if (element instanceof MarkdownElement) {
+                text(((MarkdownElement) element).getContent(), MARKDOWN_LIMIT);
+            } else if (element instanceof ImageElement) {
+                value(((ImageElement) element).getSource());
+                value(((ImageElement) element).getAlt());
+            } else if (element instanceof ButtonElement) {
+                value(((ButtonElement) element).getValue());
+                element(((ButtonElement) element).getText());
+            }
+        }
+
+        private void text(String content, int limit) {
+            final List<String> found = value(content);
+            if (!found.isEmpty()) {
+                int fixedLength = content.length();
+                for (String name : found) {
+                    fixedLength -= name.length() + 3; // "${" + name + "}"
+                }
+                limits.add(limit);
+                fixedLengths.add(fixedLength);
+                limitedSlots.add(found);
+            }
+        }
+
+        private List<String> value(String value) {
+            if (value == null) {
+                return Collections.emptyList();
+            }
+            final List<String> found = new ArrayList<>();
+            final Matcher matcher = SLOT.matcher(value);
+            while (matcher.find()) {
+                found.add(matcher.group(1));
+            }
+            for (String name : found) {
+                occurrences.merge(name, 1, Integer::sum);
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.message.component.card;
+
+import org.jetbrains.annotations.Nullable;
+import snw.jkook.JKook;
+import snw.jkook.message.component.BaseComponent;
+import snw.jkook.message.component.ComponentEncoder;
+import snw.jkook.util.Validate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Represents a card message whose payload is already serialized. <p>
+ * The card model is immutable, so a card that is sent many times only needs to be serialized once.
+ * Freeze it, then send this component anywhere a card component is accepted,
+ *  the implementation should send {@link #getPayload()} as-is instead of serializing the cards again. <p>
+ * Use {@link CardPayloadTemplate} if the cards differ by a few values (e.g. a user name or a number).
+ */
+public final class FrozenCardComponent extends BaseComponent {
+    private final MultipleCardComponent source;
+    private final byte[] payload;
+    private final int hash;
+
+    FrozenCardComponent(@Nullable MultipleCardComponent source, byte[] payload) {
+        this.source = source;
+        this.payload = payload;
+        this.hash = Arrays.hashCode(payload);
+    }
+
+    /**
+     * Serialize the provided cards using the encoder of the implementation.
+     *
+     * @param component The cards to freeze
+     * @see JKook#getComponentEncoder()
+     */
+    public static FrozenCardComponent freeze(MultipleCardComponent component) {
+        return freeze(component, JKook.getComponentEncoder());
+    }
+
+    /**
+     * Serialize the provided card using the encoder of the implementation.
+     *
+     * @param component The card to freeze
+     */
+    public static FrozenCardComponent freeze(CardComponent component) {
+        Validate.notNull(component);
+        return freeze(new MultipleCardComponent(Collections.singletonList(component)));
+    }
+
+    /**
+     * Serialize the provided cards using the provided encoder.
+     *
+     * @param component The cards to freeze
+     * @param encoder   The encoder
+     */
+    public static FrozenCardComponent freeze(MultipleCardComponent component, ComponentEncoder encoder) {
+        Validate.notNull(component);
+        Validate.notNull(encoder);
+        return new FrozenCardComponent(component, encoder.encode(component));
+    }
+
+    /**
+     * Get the cards that this payload was serialized from,
+     *  or null if this component was rendered by a {@link CardPayloadTemplate}.
+     */
+    @Nullable
+    public MultipleCardComponent getSource() {
+        return source;
+    }
+
+    /**
+     * Get the UTF-8 encoded payload. <p>
+     * The result is a read-only view, no bytes are copied.
+     */
+    public ByteBuffer getPayload() {
+        return ByteBuffer.wrap(payload).asReadOnlyBuffer();
+    }
+
+    /**
+     * Get the length of the payload in bytes.
+     */
+    public int getPayloadLength() {
+        return payload.length;
+    }
+
+    /**
+     * Write the payload to the provided stream.
+     *
+     * @param out The stream
+     * @throws IOException Thrown if the stream throws it
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(payload);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FrozenCardComponent)) return false;
+        FrozenCardComponent that = (FrozenCardComponent) o;
+        return hash == that.hash && Arrays.equals(payload, that.payload);
+    }
+
+    /**
+     * Return the hash of the payload. It is calculated once when this component is created.
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Return the payload as a string.
+     */
+    @Override
+    public String toString() {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
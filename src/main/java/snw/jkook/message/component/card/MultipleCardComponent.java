@@ -17,11 +17,9 @@
 package snw.jkook.message.component.card;
 
 import snw.jkook.message.component.BaseComponent;
+import snw.jkook.util.ImmutableArrayList;
 
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents the component with multiple cards.
@@ -30,17 +28,26 @@ public class MultipleCardComponent extends BaseComponent {
     private final List<CardComponent> components;
 
     public MultipleCardComponent(List<CardComponent> components) {
+        this.components = checkLimits(ImmutableArrayList.copyOf(components));
+    }
+
+    // used by CardBuilder, the array is not copied
+    MultipleCardComponent(Object[] components, int count) {
+        this.components = checkLimits(ImmutableArrayList.wrap(components, count));
+    }
+
+    private static List<CardComponent> checkLimits(List<CardComponent> components) {
         if (components.size() > 5) { // Kook Official limit!
             throw new IllegalStateException("Unexpected card count. Expected <= 5, got " + components.size());
         }
-        AtomicInteger totalModules = new AtomicInteger();
+        int totalModules = 0;
         for (CardComponent component : components) {
-            totalModules.addAndGet(component.moduleCount());
+            totalModules += component.moduleCount();
         }
-        if (totalModules.get() > 50) {
+        if (totalModules > 50) {
             throw new IllegalStateException("The card module count is out of allowed range! Expected <= 50, got " + totalModules);
         }
-        this.components = Collections.unmodifiableList(new LinkedList<>(components));
+        return components;
     }
 
     /**
@@ -17,10 +17,9 @@
 package snw.jkook.message.component.card.module;
 
 import snw.jkook.message.component.card.element.InteractElement;
+import snw.jkook.util.ImmutableArrayList;
 import snw.jkook.util.Validate;
 
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -32,7 +31,12 @@ public class ActionGroupModule extends BaseModule {
     public ActionGroupModule(List<InteractElement> buttons) {
         Validate.isTrue(buttons.size() >= 1, "Unexpected image module count, expected >= 1, got " + buttons.size());
         Validate.isTrue(buttons.size() <= 4, "Unexpected image module count, expected <= 4, got " + buttons.size());
-        this.buttons = Collections.unmodifiableList(new LinkedList<>(buttons));
+        this.buttons = ImmutableArrayList.copyOf(buttons);
+    }
+
+    // used by the builder, the array is not copied
+    private ActionGroupModule(Object[] buttons, int size) {
+        this.buttons = ImmutableArrayList.wrap(buttons, size);
     }
 
     /**
@@ -46,15 +50,18 @@ public class ActionGroupModule extends BaseModule {
      * A simple builder for building {@link ActionGroupModule}.
      */
     public static class Builder {
-        private final List<InteractElement> modules = new LinkedList<>();
+        private final Object[] modules = new Object[4];
+        private int size;
 
         public Builder add(InteractElement module) {
-            modules.add(module);
+            Validate.isTrue(size < modules.length, "Unexpected button count, expected <= 4, got " + (size + 1));
+            modules[size++] = module;
             return this;
         }
 
         public ActionGroupModule build() {
-            return new ActionGroupModule(modules);
+            Validate.isTrue(size >= 1, "Unexpected button count, expected >= 1, got " + size);
+            return new ActionGroupModule(modules, size);
         }
     }
 }
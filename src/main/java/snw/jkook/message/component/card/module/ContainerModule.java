@@ -17,10 +17,9 @@
 package snw.jkook.message.component.card.module;
 
 import snw.jkook.message.component.card.element.ImageElement;
+import snw.jkook.util.ImmutableArrayList;
 import snw.jkook.util.Validate;
 
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -33,7 +32,12 @@ public class ContainerModule extends BaseModule {
     public ContainerModule(List<ImageElement> images) {
         Validate.isTrue(images.size() >= 1, "Unexpected image module count, expected >= 1, got " + images.size());
         Validate.isTrue(images.size() <= 9, "Unexpected image module count, expected <= 9, got " + images.size());
-        this.images = Collections.unmodifiableList(new LinkedList<>(images));
+        this.images = ImmutableArrayList.copyOf(images);
+    }
+
+    // used by the builder, the array is not copied
+    private ContainerModule(Object[] images, int size) {
+        this.images = ImmutableArrayList.wrap(images, size);
     }
 
     /**
@@ -47,15 +51,18 @@ public class ContainerModule extends BaseModule {
      * A simple builder for building {@link ContainerModule}.
      */
     public static class Builder {
-        private final List<ImageElement> modules = new LinkedList<>();
+        private final Object[] modules = new Object[9];
+        private int size;
 
         public Builder add(ImageElement module) {
-            modules.add(module);
+            Validate.isTrue(size < modules.length, "Unexpected image module count, expected <= 9, got " + (size + 1));
+            modules[size++] = module;
             return this;
         }
 
         public ContainerModule build() {
-            return new ContainerModule(modules);
+            Validate.isTrue(size >= 1, "Unexpected image module count, expected >= 1, got " + size);
+            return new ContainerModule(modules, size);
         }
     }
 }
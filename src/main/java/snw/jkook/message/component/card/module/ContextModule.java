@@ -20,10 +20,10 @@ import snw.jkook.message.component.card.element.BaseElement;
 import snw.jkook.message.component.card.element.ImageElement;
 import snw.jkook.message.component.card.element.MarkdownElement;
 import snw.jkook.message.component.card.element.PlainTextElement;
+import snw.jkook.util.ImmutableArrayList;
 import snw.jkook.util.Validate;
 
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ContextModule extends BaseModule {
@@ -31,7 +31,7 @@ public class ContextModule extends BaseModule {
 
     public ContextModule(List<BaseElement> modules) {
         Validate.isTrue(modules.stream().allMatch(IT -> ((IT instanceof PlainTextElement) || (IT instanceof MarkdownElement) || (IT instanceof ImageElement))), "Context module only accepts plain-text, kmarkdown or image modules.");
-        this.modules = Collections.unmodifiableList(modules);
+        this.modules = ImmutableArrayList.copyOf(modules);
     }
 
     /**
@@ -45,7 +45,7 @@ public class ContextModule extends BaseModule {
      * A simple builder for building {@link ContextModule}.
      */
     public static class Builder {
-        private final List<BaseElement> modules = new LinkedList<>();
+        private final List<BaseElement> modules = new ArrayList<>();
 
         public Builder add(PlainTextElement module) {
             modules.add(module);
@@ -17,10 +17,9 @@
 package snw.jkook.message.component.card.module;
 
 import snw.jkook.message.component.card.element.ImageElement;
+import snw.jkook.util.ImmutableArrayList;
 import snw.jkook.util.Validate;
 
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -32,7 +31,12 @@ public class ImageGroupModule extends BaseModule {
     public ImageGroupModule(List<ImageElement> images) {
         Validate.isTrue(images.size() >= 1, "Unexpected image module count, expected >= 1, got " + images.size());
         Validate.isTrue(images.size() <= 9, "Unexpected image module count, expected <= 9, got " + images.size());
-        this.images = Collections.unmodifiableList(new LinkedList<>(images));
+        this.images = ImmutableArrayList.copyOf(images);
+    }
+
+    // used by the builder, the array is not copied
+    private ImageGroupModule(Object[] images, int size) {
+        this.images = ImmutableArrayList.wrap(images, size);
     }
 
     /**
@@ -46,15 +50,18 @@ public class ImageGroupModule extends BaseModule {
      * A simple builder for building {@link ImageGroupModule}.
      */
     public static class Builder {
-        private final List<ImageElement> modules = new LinkedList<>();
+        private final Object[] modules = new Object[9];
+        private int size;
 
         public Builder add(ImageElement module) {
-            modules.add(module);
+            Validate.isTrue(size < modules.length, "Unexpected image module count, expected <= 9, got " + (size + 1));
+            modules[size++] = module;
             return this;
         }
 
         public ImageGroupModule build() {
-            return new ImageGroupModule(modules);
+            Validate.isTrue(size >= 1, "Unexpected image module count, expected >= 1, got " + size);
+            return new ImageGroupModule(modules, size);
         }
     }
 }
@@ -19,10 +19,10 @@ package snw.jkook.message.component.card.structure;
 import snw.jkook.message.component.card.element.BaseElement;
 import snw.jkook.message.component.card.element.MarkdownElement;
 import snw.jkook.message.component.card.element.PlainTextElement;
+import snw.jkook.util.ImmutableArrayList;
 import snw.jkook.util.Validate;
 
 import java.util.Collection;
-import java.util.Collections;
 
 /**
  * Represents a "paragraph" module.
@@ -37,7 +37,7 @@ public class Paragraph extends BaseStructure {
                 "Paragraph only accepts plain-text and kmarkdown."
         );
         this.columns = columns;
-        this.fields = Collections.unmodifiableCollection(fields);
+        this.fields = ImmutableArrayList.copyOf(fields);
     }
 
     /**
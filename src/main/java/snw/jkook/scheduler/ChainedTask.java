@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.scheduler;
+
+import snw.jkook.plugin.Plugin;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A repeating task built on {@link Scheduler#runTaskLater(Plugin, Runnable, long)}. <p>
+ * Used by the default implementations of {@link Scheduler#runTaskWithFixedDelay(Plugin, Runnable, long, long)}
+ *  and {@link Scheduler#runTaskAt(Plugin, Runnable, CronExpression)}.
+ * Every execution schedules the next one, so {@link #getTaskId()} changes after each execution.
+ */
+final class ChainedTask implements Task {
+    private final Scheduler scheduler;
+    private final Plugin plugin;
+    private final Runnable runnable;
+    private final LongSupplier nextDelay; // returns -1 if no more execution is needed
+    private Task current;
+    private boolean cancelled;
+    private volatile boolean executed;
+
+    private ChainedTask(Scheduler scheduler, Plugin plugin, Runnable runnable, LongSupplier nextDelay) {
+        this.scheduler = scheduler;
+        this.plugin = plugin;
+        this.runnable = runnable;
+        this.nextDelay = nextDelay;
+    }
+
+    /**
+     * Schedule the first execution.
+     *
+     * @param firstDelay The delay before the first execution, -1 means the task is cancelled immediately
+     * @param nextDelay  Called after every execution to get the delay before the next one, -1 cancels the task
+     */
+    static Task start(Scheduler scheduler, Plugin plugin, Runnable runnable, long firstDelay, LongSupplier nextDelay) {
+        final ChainedTask task = new ChainedTask(scheduler, plugin, runnable, nextDelay);
+        task.schedule(firstDelay);
+        return task;
+    }
+
+    private synchronized void schedule(long delay) {
+        if (cancelled) {
+            return;
+        }
+        if (delay < 0) {
+            cancelled = true;
+            return;
+        }
+        current = scheduler.runTaskLater(plugin, this::execute, delay);
+    }
+
+    private void execute() {
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+        }
+        try {
+            runnable.run();
+        } finally {
+            executed = true;
+            schedule(nextDelay.getAsLong());
+        }
+    }
+
+    @Override
+    public Plugin getPlugin() {
+        return plugin;
+    }
+
+    @Override
+    public synchronized void cancel() throws IllegalStateException {
+        if (cancelled) {
+            throw new IllegalStateException("This task has already cancelled.");
+        }
+        cancelled = true;
+        if (current != null && !current.isCancelled() && !current.isExecuted()) {
+            current.cancel();
+        }
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isExecuted() {
+        return executed;
+    }
+
+    @Override
+    public synchronized int getTaskId() {
+        return current == null ? -1 : current.getTaskId();
+    }
+}
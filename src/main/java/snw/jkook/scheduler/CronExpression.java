@@ -0,0 +1,277 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.scheduler;
+
+import snw.jkook.util.Validate;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * Represents a parsed cron expression. <p>
+ * The following formats are supported:
+ * <ul>
+ *     <li><code>minute hour day-of-month month day-of-week</code> (5 fields)</li>
+ *     <li><code>second minute hour day-of-month month day-of-week</code> (6 fields)</li>
+ * </ul>
+ * Every field accepts <code>*</code>, single values, ranges (<code>1-5</code>), lists (<code>1,3,5</code>)
+ *  and steps (<code>*&#47;15</code>, <code>10-40/5</code>).
+ * Months and days of week also accept their English abbreviations (e.g. <code>JAN</code>, <code>MON</code>).
+ * Day of week is <code>0-7</code>, both <code>0</code> and <code>7</code> are Sunday.
+ * <code>?</code> is the same as <code>*</code> in day-of-month and day-of-week fields. <p>
+ * Like the classic cron, if both day-of-month and day-of-week are restricted,
+ *  a day matches if <b>either</b> of them matches. <p>
+ * The fields are compiled into bit masks once, so calculating the next fire time
+ *  just skips to the next set bit of each field instead of checking every second. <p>
+ * Example:
+ * <blockquote><pre>
+ *     // every day at 8:30 AM
+ *     JKook.getScheduler().runTaskAt(plugin, task, CronExpression.parse("30 8 * * *"));
+ * </pre></blockquote>
+ *
+ * @see Scheduler#runTaskAt(snw.jkook.plugin.Plugin, Runnable, CronExpression)
+ */
+public final class CronExpression {
+    private static final String[] MONTHS = {
+            "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"
+    };
+    private static final String[] DAYS_OF_WEEK = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+    // if we can't find a matching time in this range, the expression will never match (e.g. "0 0 30 2 *")
+    private static final int MAX_YEARS_TO_SEARCH = 8;
+
+    private final String expression;
+    private final ZoneId zone;
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth; // bit 1 - 31
+    private final long months; // bit 1 - 12
+    private final long daysOfWeek; // bit 0 - 6, 0 is Sunday
+    private final boolean dayOfMonthRestricted;
+    private final boolean dayOfWeekRestricted;
+
+    private CronExpression(String expression, ZoneId zone, String[] fields) {
+        this.expression = expression;
+        this.zone = zone;
+        int offset = fields.length == 6 ? 1 : 0;
+        this.seconds = offset == 1 ? parseField(fields[0], 0, 59, null) : 1L;
+        this.minutes = parseField(fields[offset], 0, 59, null);
+        this.hours = parseField(fields[offset + 1], 0, 23, null);
+        this.daysOfMonth = parseField(fields[offset + 2], 1, 31, null);
+        this.months = parseField(fields[offset + 3], 1, 12, MONTHS);
+        long dow = parseField(fields[offset + 4], 0, 7, DAYS_OF_WEEK);
+        if ((dow & (1L << 7)) != 0) { // 7 is Sunday too
+            dow = (dow | 1L) & ~(1L << 7);
+        }
+        this.daysOfWeek = dow;
+        this.dayOfMonthRestricted = isRestricted(fields[offset + 2]);
+        this.dayOfWeekRestricted = isRestricted(fields[offset + 4]);
+    }
+
+    /**
+     * Parse the provided expression using the system default time zone.
+     *
+     * @param expression The cron expression
+     * @throws IllegalArgumentException Thrown if the expression is invalid
+     */
+    public static CronExpression parse(String expression) throws IllegalArgumentException {
+        return parse(expression, ZoneId.systemDefault());
+    }
+
+    /**
+     * Parse the provided expression. The fire times will be calculated in the provided time zone.
+     *
+     * @param expression The cron expression
+     * @param zone       The time zone
+     * @throws IllegalArgumentException Thrown if the expression is invalid
+     */
+    public static CronExpression parse(String expression, ZoneId zone) throws IllegalArgumentException {
+        Validate.notNull(expression);
+        Validate.notNull(zone);
+        String[] fields = expression.trim().split("\\s+");
+        Validate.isTrue(fields.length == 5 || fields.length == 6, "Unexpected field count, expected 5 or 6, got " + fields.length);
+        return new CronExpression(expression, zone, fields);
+    }
+
+    /**
+     * Get the time zone of this expression.
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Calculate the next fire time that is strictly after the provided time.
+     *
+     * @param after The time in milliseconds since the epoch
+     * @return The next fire time in milliseconds since the epoch, or <code>-1</code> if this expression will never fire again
+     */
+    public long nextFireTime(long after) {
+        ZonedDateTime next = next(ZonedDateTime.ofInstant(Instant.ofEpochMilli(after), zone));
+        return next == null ? -1 : next.toInstant().toEpochMilli();
+    }
+
+    /**
+     * Calculate the next fire time that is strictly after the provided time.
+     *
+     * @param after The time
+     * @return The next fire time, or null if this expression will never fire again
+     */
+    public ZonedDateTime next(ZonedDateTime after) {
+        ZonedDateTime time = after.withZoneSameInstant(zone).withNano(0).plusSeconds(1);
+        int maxYear = time.getYear() + MAX_YEARS_TO_SEARCH;
+        while (time.getYear() <= maxYear) {
+            int month = time.getMonthValue();
+            int nextMonth = nextSetBit(months, month);
+            if (nextMonth != month) {
+                time = nextMonth == -1
+                        ? time.plusYears(1).withMonth(nextSetBit(months, 1)).withDayOfMonth(1)
+                        : time.withDayOfMonth(1).withMonth(nextMonth);
+                time = time.withHour(0).withMinute(0).withSecond(0);
+                continue;
+            }
+            if (!matchesDay(time)) {
+                time = time.plusDays(1).withHour(0).withMinute(0).withSecond(0);
+                continue;
+            }
+            int hour = time.getHour();
+            int nextHour = nextSetBit(hours, hour);
+            if (nextHour != hour) {
+                time = nextHour == -1
+                        ? time.plusDays(1).withHour(0).withMinute(0).withSecond(0)
+                        : time.withHour(nextHour).withMinute(0).withSecond(0);
+                continue;
+            }
+            int minute = time.getMinute();
+            int nextMinute = nextSetBit(minutes, minute);
+            if (nextMinute != minute) {
+                time = nextMinute == -1
+                        ? time.plusHours(1).withMinute(0).withSecond(0)
+                        : time.withMinute(nextMinute).withSecond(0);
+                continue;
+            }
+            int second = time.getSecond();
+            int nextSecond = nextSetBit(seconds, second);
+            if (nextSecond != second) {
+                time = nextSecond == -1
+                        ? time.plusMinutes(1).withSecond(0)
+                        : time.withSecond(nextSecond);
+                continue;
+            }
+            return time;
+        }
+        return null;
+    }
+
+    private boolean matchesDay(ZonedDateTime time) {
+        boolean dom = (daysOfMonth & (1L << time.getDayOfMonth())) != 0;
+        boolean dow = (daysOfWeek & (1L << (time.getDayOfWeek().getValue() % 7))) != 0;
+        if (dayOfMonthRestricted && dayOfWeekRestricted) {
+            return dom || dow;
+        }
+        return dom && dow;
+    }
+
+    // returns the given index if it is set, -1 if no bit is set at or after it
+    private static int nextSetBit(long mask, int from) {
+        long remaining = mask >>> from;
+        return remaining == 0 ? -1 : from + Long.numberOfTrailingZeros(remaining);
+    }
+
+    private static boolean isRestricted(String field) {
+        return !(field.equals("*") || field.equals("?"));
+    }
+
+    private static long parseField(String field, int min, int max, String[] names) {
+        long mask = 0;
+        for (String part : field.split(",")) {
+            Validate.notEmpty(part, "Empty list element in cron field: " + field);
+            int step = 1;
+            int slash = part.indexOf('/');
+            String range = part;
+            if (slash != -1) {
+                step = parseNumber(part.substring(slash + 1), 1, max, null, field);
+                range = part.substring(0, slash);
+            }
+            int start;
+            int end;
+            if (range.equals("*") || range.equals("?")) {
+                start = min;
+                end = max;
+            } else {
+                int dash = range.indexOf('-');
+                if (dash == -1) {
+                    start = parseNumber(range, min, max, names, field);
+                    end = slash == -1 ? start : max; // "5/10" means from 5 to max, every 10
+                } else {
+                    start = parseNumber(range.substring(0, dash), min, max, names, field);
+                    end = parseNumber(range.substring(dash + 1), min, max, names, field);
+                    Validate.isTrue(start <= end, "Invalid range in cron field: " + field);
+                }
+            }
+            for (int i = start; i <= end; i += step) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    private static int parseNumber(String value, int min, int max, String[] names, String field) {
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equalsIgnoreCase(value)) {
+                    return names == MONTHS ? i + 1 : i;
+                }
+            }
+        }
+        int result;
+        try {
+            result = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' in cron field: " + field, e);
+        }
+        Validate.isTrue(result >= min && result <= max, "Value " + result + " is out of range [" + min + ", " + max + "] in cron field: " + field);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CronExpression)) return false;
+        CronExpression that = (CronExpression) o;
+        return seconds == that.seconds && minutes == that.minutes && hours == that.hours
+                && daysOfMonth == that.daysOfMonth && months == that.months && daysOfWeek == that.daysOfWeek
+                && dayOfMonthRestricted == that.dayOfMonthRestricted && dayOfWeekRestricted == that.dayOfWeekRestricted
+                && zone.equals(that.zone);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(seconds, minutes, hours, daysOfMonth, months, daysOfWeek, zone);
+    }
+
+    /**
+     * Return the original expression.
+     */
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -49,6 +49,44 @@ public abstract class JKookRunnable implements Runnable {
         return ((task) = JKook.getScheduler().runTaskTimer(plugin, this, delay, period));
     }
 
+    /**
+     * Execute the runnable again and again at a fixed rate.
+     *
+     * @param delay    The time before first run
+     * @param period   The time between the start of two executions
+     * @return The task object
+     * @see Scheduler#runTaskAtFixedRate(Plugin, Runnable, long, long)
+     */
+    public synchronized Task runTaskAtFixedRate(Plugin plugin, long delay, long period) {
+        Validate.isTrue(task == null, "This runnable has already scheduled.");
+        return ((task) = JKook.getScheduler().runTaskAtFixedRate(plugin, this, delay, period));
+    }
+
+    /**
+     * Execute the runnable again and again with a fixed delay.
+     *
+     * @param delay    The time before first run
+     * @param period   The time between the end of an execution and the start of the next one
+     * @return The task object
+     * @see Scheduler#runTaskWithFixedDelay(Plugin, Runnable, long, long)
+     */
+    public synchronized Task runTaskWithFixedDelay(Plugin plugin, long delay, long period) {
+        Validate.isTrue(task == null, "This runnable has already scheduled.");
+        return ((task) = JKook.getScheduler().runTaskWithFixedDelay(plugin, this, delay, period));
+    }
+
+    /**
+     * Execute the runnable at the times described by the provided cron expression.
+     *
+     * @param cron     The cron expression
+     * @return The task object
+     * @see Scheduler#runTaskAt(Plugin, Runnable, CronExpression)
+     */
+    public synchronized Task runTaskAt(Plugin plugin, CronExpression cron) {
+        Validate.isTrue(task == null, "This runnable has already scheduled.");
+        return ((task) = JKook.getScheduler().runTaskAt(plugin, this, cron));
+    }
+
     /**
      * Attempts to cancel this task.
      *
@@ -17,9 +17,13 @@
 package snw.jkook.scheduler;
 
 import snw.jkook.plugin.Plugin;
+import snw.jkook.util.Validate;
 
 /**
- * Represents a scheduler, you can schedule tasks to run.
+ * Represents a scheduler, you can schedule tasks to run. <p>
+ * Implementations should keep all the delayed and repeating tasks in one timer structure
+ *  (e.g. a delay queue or a hashed timing wheel) served by a small worker pool,
+ *  instead of holding a thread for each repeating task.
  */
 public interface Scheduler {
 
@@ -41,7 +45,8 @@ public interface Scheduler {
     Task runTaskLater(Plugin plugin, Runnable runnable, long delay); // note: delay is millisecond.
 
     /**
-     * Execute the runnable again and again.
+     * Execute the runnable again and again. <p>
+     * This is the same as {@link #runTaskAtFixedRate(Plugin, Runnable, long, long)}.
      *
      * @param plugin The plugin as the task owner
      * @param runnable The runnable to execute
@@ -51,6 +56,69 @@ public interface Scheduler {
      */
     Task runTaskTimer(Plugin plugin, Runnable runnable, long delay, long period); // note: both period and delay are in millisecond.
 
+    /**
+     * Execute the runnable again and again at a fixed rate. <p>
+     * The next execution time is calculated from the <b>scheduled</b> time of the previous execution,
+     *  so the executions won't drift even if some of them were slow. <p>
+     * If an execution takes longer than the period, the next one starts late, but they never overlap.
+     *
+     * @param plugin The plugin as the task owner
+     * @param runnable The runnable to execute
+     * @param delay    The time before first run (in milliseconds)
+     * @param period   The time between the start of two executions (in milliseconds)
+     * @return The task object
+     */
+    default Task runTaskAtFixedRate(Plugin plugin, Runnable runnable, long delay, long period) {
+        return runTaskTimer(plugin, runnable, delay, period);
+    }
+
+    /**
+     * Execute the runnable again and again with a fixed delay. <p>
+     * The next execution time is calculated from the time that the previous execution <b>finished</b>. <p>
+     * The default implementation schedules every execution using {@link #runTaskLater(Plugin, Runnable, long)},
+     *  so the ID of the returned task changes after each execution. Implementations should override it.
+     *
+     * @param plugin The plugin as the task owner
+     * @param runnable The runnable to execute
+     * @param delay    The time before first run (in milliseconds)
+     * @param period   The time between the end of an execution and the start of the next one (in milliseconds)
+     * @return The task object
+     */
+    default Task runTaskWithFixedDelay(Plugin plugin, Runnable runnable, long delay, long period) {
+        Validate.notNull(runnable);
+        return ChainedTask.start(this, plugin, runnable, delay, () -> period);
+    }
+
+    /**
+     * Execute the runnable at the times described by the provided cron expression. <p>
+     * The next fire time is calculated using {@link CronExpression#nextFireTime(long)} only once per execution,
+     *  from the scheduled time of the current execution, or from now if that time has passed. <p>
+     * So the fire times missed during a pause (e.g. a long execution or a suspended host) are skipped, not run back-to-back. <p>
+     * The task will be cancelled automatically if the expression will never fire again. <p>
+     * The default implementation schedules every execution using {@link #runTaskLater(Plugin, Runnable, long)},
+     *  so the ID of the returned task changes after each execution. Implementations should override it.
+     *
+     * @param plugin The plugin as the task owner
+     * @param runnable The runnable to execute
+     * @param cron     The cron expression
+     * @return The task object
+     * @see CronExpression
+     */
+    default Task runTaskAt(Plugin plugin, Runnable runnable, CronExpression cron) {
+        Validate.notNull(runnable);
+        Validate.notNull(cron);
+        final long[] scheduled = {cron.nextFireTime(System.currentTimeMillis())}; // the scheduled time of the next execution
+        final long firstDelay = scheduled[0] == -1 ? -1 : Math.max(0, scheduled[0] - System.currentTimeMillis());
+        return ChainedTask.start(this, plugin, runnable, firstDelay, () -> {
+            final long next = cron.nextFireTime(Math.max(scheduled[0], System.currentTimeMillis())); // skip the missed times
+            if (next == -1) {
+                return -1;
+            }
+            scheduled[0] = next;
+            return Math.max(0, next - System.currentTimeMillis());
+        });
+    }
+
     /**
      * Return true if the task that represented by the ID is scheduled.
      *
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs an operation on many items with bounded parallelism and an optional rate limit. <p>
+ * At most <code>parallelism</code> items are processed at the same time, and if a rate limit is set,
+ *  the starts of the items are spaced evenly so no more than <code>permits</code> items start in a <code>period</code>.
+ * The rate limit is shared by all the operations executed by the same instance. <p>
+ * The operation is expected to block (e.g. an HTTP request), so the executor should be able to run
+ *  <code>parallelism</code> blocking tasks. <p>
+ * This is used by the bulk operations like {@link snw.jkook.entity.Guild#banAll}.
+ */
+public final class BulkExecutor {
+    /** The parallelism of {@link #getDefault()}. */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private final Executor executor;
+    private final int parallelism;
+    private final long interval; // nanoseconds between two starts, 0 means unlimited
+    private final Object throttleLock = new Object();
+    private long nextStart; // guarded by throttleLock
+
+    /**
+     * Construct an executor without rate limit.
+     *
+     * @param executor    The executor that runs the operations
+     * @param parallelism The maximum count of the items processed at the same time
+     */
+    public BulkExecutor(Executor executor, int parallelism) {
+        this(executor, parallelism, 0, 0);
+    }
+
+    /**
+     * The main constructor.
+     *
+     * @param executor    The executor that runs the operations
+     * @param parallelism The maximum count of the items processed at the same time
+     * @param permits     The maximum count of the items that start in a period, 0 means unlimited
+     * @param period      The period in milliseconds
+     */
+    public BulkExecutor(Executor executor, int parallelism, int permits, long period) {
+        Validate.notNull(executor);
+        Validate.isTrue(parallelism > 0, "parallelism must be positive.");
+        Validate.isTrue(permits >= 0, "permits must not be negative.");
+        Validate.isTrue(permits == 0 || period > 0, "period must be positive.");
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.interval = permits == 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(period) / permits;
+        this.nextStart = System.nanoTime();
+    }
+
+    /**
+     * Get the shared executor used when the implementation does not provide one (see {@link snw.jkook.Core#getBulkExecutor()}). <p>
+     * It processes up to {@link #DEFAULT_PARALLELISM} items of an operation at the same time, without rate limit.
+     * The items run on daemon threads that are created on demand and end after being idle for a minute,
+     *  so a bulk operation started inside another one never waits for a free thread.
+     */
+    public static BulkExecutor getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Get the maximum count of the items processed at the same time.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Run the action on every provided item. <p>
+     * The exceptions thrown by the action are recorded in the result, they don't stop the other items. <p>
+     * The returned future is completed after every item is processed.
+     *
+     * @param items    The items
+     * @param action   The action to run on each item, it may block
+     * @param listener The progress listener, the exceptions thrown by it are ignored
+     * @param <T>      The type of the items
+     * @return The future of the result
+     */
+    public <T> CompletableFuture<BulkResult<T>> execute(Collection<? extends T> items, Consumer<? super T> action,
+                                                        @Nullable BulkProgressListener<? super T> listener) {
+        Validate.notNull(items);
+        Validate.notNull(action);
+        final List<T> list = new ArrayList<>(items);
+        final BulkResult<T> result = new BulkResult<>(list);
+        final CompletableFuture<BulkResult<T>> future = new CompletableFuture<>();
+        final int total = list.size();
+        if (total == 0) {
+            future.complete(result);
+            return future;
+        }
+        final AtomicInteger cursor = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        final int workers = Math.min(parallelism, total);
+        final AtomicInteger running = new AtomicInteger(workers);
+        final Runnable worker = () -> {
+            try {
+                int index;
+                while ((index = cursor.getAndIncrement()) < total) {
+                    if (!acquire()) {
+                        return; // interrupted, the remaining items are skipped
+                    }
+                    final T item = list.get(index);
+                    Throwable error = null;
+                    try {
+                        action.accept(item);
+                        result.succeeded(index);
+                    } catch (Throwable e) {
+                        error = e;
+                        result.failed(index, e);
+                    }
+                    if (listener != null) {
+                        try {
+                            listener.onProgress(item, error, completed.incrementAndGet(), total);
+                        } catch (Throwable ignored) {
+                            // a broken listener must not stop the operation
+                        }
+                    }
+                }
+            } finally {
+                if (running.decrementAndGet() == 0) {
+                    future.complete(result);
+                }
+            }
+        };
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                if (running.decrementAndGet() == 0) {
+                    future.complete(result);
+                }
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Run the function on every provided item, and collect the results. <p>
+     * The exceptions thrown by the function are passed to the listener, they don't stop the other items.
+     *
+     * @param items    The items
+     * @param function The function to run on each item, it may block
+     * @param listener The progress listener, the exceptions thrown by it are ignored
+     * @param <T>      The type of the items
+     * @param <R>      The type of the results
+     * @return The future of the results of the succeeded items, in the original order of the items
+     */
+    public <T, R> CompletableFuture<Map<T, R>> map(Collection<? extends T> items, Function<? super T, ? extends R> function,
+                                                   @Nullable BulkProgressListener<? super T> listener) {
+        Validate.notNull(function);
+        final List<T> list = new ArrayList<>(items);
+        final Object[] results = new Object[list.size()];
+        final Map<T, Integer> indexes = new IdentityHashMap<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            indexes.putIfAbsent(list.get(i), i);
+        }
+        return execute(list, item -> results[indexes.get(item)] = function.apply(item), listener).thenApply(result -> {
+            final Map<T, R> values = new LinkedHashMap<>();
+            for (T item : result.getSucceeded()) {
+                @SuppressWarnings("unchecked") final R value = (R) results[indexes.get(item)];
+                values.put(item, value);
+            }
+            return values;
+        });
+    }
+
+    /**
+     * Run a single task under the rate limit of this executor.
+     *
+     * @param task The task, it may block
+     * @param <T>  The type of the result
+     * @return The future of the result
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        Validate.notNull(task);
+        return CompletableFuture.supplyAsync(() -> {
+            if (!acquire()) {
+                throw new IllegalStateException("Interrupted while waiting for the rate limit.");
+            }
+            return task.get();
+        }, executor);
+    }
+
+    // waits for the rate limit, returns false if interrupted
+    private boolean acquire() {
+        if (interval == 0) {
+            return true;
+        }
+        final long now = System.nanoTime();
+        final long start;
+        synchronized (throttleLock) {
+            start = nextStart - now > 0 ? nextStart : now;
+            nextStart = start + interval;
+        }
+        final long wait = start - now;
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // created on the first use of getDefault()
+    private static final class DefaultHolder {
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+        private static final BulkExecutor INSTANCE = new BulkExecutor(Executors.newCachedThreadPool(task -> {
+            final Thread thread = new Thread(task, "JKook Bulk Worker #" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }), DEFAULT_PARALLELISM);
+    }
+}
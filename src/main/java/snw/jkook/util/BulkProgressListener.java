@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.util;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a callback that receives the progress of a bulk operation.
+ * (See {@link BulkExecutor})
+ *
+ * @param <T> The type of the items
+ */
+@FunctionalInterface
+public interface BulkProgressListener<T> {
+
+    /**
+     * Called after an item was processed. <p>
+     * This method may be called from different threads concurrently, so the implementation should be thread-safe.
+     *
+     * @param item      The processed item
+     * @param error     The exception thrown by the operation, or null if it succeeded
+     * @param completed The count of the processed items, including this one
+     * @param total     The count of all the items
+     */
+    void onProgress(T item, @Nullable Throwable error, int completed, int total);
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.util;
+
+import java.util.*;
+
+/**
+ * Represents the per-item result of a bulk operation. (See {@link BulkExecutor}) <p>
+ * Every item is in exactly one of the following states: succeeded, failed or skipped.
+ * An item is skipped if the operation was interrupted before it started.
+ *
+ * @param <T> The type of the items
+ */
+public final class BulkResult<T> {
+    private static final byte SKIPPED = 0;
+    private static final byte SUCCEEDED = 1;
+    private static final byte FAILED = 2;
+
+    private final List<T> items;
+    private final byte[] states;
+    private final Throwable[] errors;
+
+    BulkResult(List<T> items) {
+        this.items = items;
+        this.states = new byte[items.size()];
+        this.errors = new Throwable[items.size()];
+    }
+
+    void succeeded(int index) {
+        states[index] = SUCCEEDED;
+    }
+
+    void failed(int index, Throwable error) {
+        states[index] = FAILED;
+        errors[index] = error;
+    }
+
+    /**
+     * Get the count of all the items.
+     */
+    public int getTotal() {
+        return items.size();
+    }
+
+    /**
+     * Return true if the operation succeeded on every item.
+     */
+    public boolean isAllSucceeded() {
+        return getSuccessCount() == states.length;
+    }
+
+    /**
+     * Get the count of the items that the operation succeeded on.
+     */
+    public int getSuccessCount() {
+        return count(SUCCEEDED);
+    }
+
+    /**
+     * Get the count of the items that the operation failed on.
+     */
+    public int getFailureCount() {
+        return count(FAILED);
+    }
+
+    /**
+     * Get the items that the operation succeeded on, in the original order.
+     */
+    public List<T> getSucceeded() {
+        return collect(SUCCEEDED);
+    }
+
+    /**
+     * Get the items that were skipped because the operation was interrupted, in the original order.
+     */
+    public List<T> getSkipped() {
+        return collect(SKIPPED);
+    }
+
+    /**
+     * Get the items that the operation failed on, and the exceptions, in the original order.
+     */
+    public Map<T, Throwable> getFailures() {
+        final Map<T, Throwable> result = new LinkedHashMap<>();
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] == FAILED) {
+                result.put(items.get(i), errors[i]);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private int count(byte state) {
+        int result = 0;
+        for (byte s : states) {
+            if (s == state) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private List<T> collect(byte state) {
+        final List<T> result = new ArrayList<>();
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] == state) {
+                result.add(items.get(i));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{total=" + getTotal() + ", succeeded=" + getSuccessCount() + ", failed=" + getFailureCount() + "}";
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the IDs of Kook entities to canonical instances and dense <code>int</code> indexes. <p>
+ * {@link #intern(String)} returns the same {@link String} instance for equal IDs,
+ *  so the caches that hold millions of entities don't hold millions of duplicated strings.
+ * {@link #indexOf(String)} assigns the IDs consecutive indexes starting from 0,
+ *  so the sets of entities can be stored as bitmaps (e.g. {@link java.util.BitSet}). <p>
+ * The numeric IDs are looked up by their <code>long</code> values (see {@link Ids}), other IDs by strings. <p>
+ * The IDs are never removed, so an interner should be shared by the caches of the same kind of entities
+ *  instead of being created per guild or per message. This class is thread-safe.
+ */
+public final class IdInterner {
+    private final Long2ObjectMap<Entry> numeric = new Long2ObjectMap<>();
+    private final Map<String, Entry> others = new HashMap<>();
+    private String[] ids = new String[64];
+    private int size;
+
+    /**
+     * Get the canonical instance of the ID.
+     *
+     * @param id The ID
+     */
+    public String intern(String id) {
+        return entry(id).id;
+    }
+
+    /**
+     * Get the index of the ID. A new index is assigned if the ID is seen for the first time.
+     *
+     * @param id The ID
+     */
+    public int indexOf(String id) {
+        return entry(id).index;
+    }
+
+    /**
+     * Get the index of the ID without assigning a new one.
+     *
+     * @param id The ID
+     * @return The index, or -1 if the ID was never seen
+     */
+    public synchronized int getIndex(String id) {
+        final long value = Ids.toLong(id);
+        final Entry entry = value != Ids.NOT_NUMERIC ? numeric.get(value) : others.get(id);
+        return entry == null ? -1 : entry.index;
+    }
+
+    /**
+     * Get the ID that has the provided index.
+     *
+     * @param index The index
+     * @return The ID, or null if the index was never assigned
+     */
+    @Nullable
+    public synchronized String getId(int index) {
+        return index >= 0 && index < size ? ids[index] : null;
+    }
+
+    /**
+     * Get the count of the interned IDs.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized Entry entry(String id) {
+        Validate.notNull(id);
+        final long value = Ids.toLong(id);
+        Entry entry = value != Ids.NOT_NUMERIC ? numeric.get(value) : others.get(id);
+        if (entry == null) {
+            entry = new Entry(id, size);
+            if (value != Ids.NOT_NUMERIC) {
+                numeric.put(value, entry);
+            } else {
+                others.put(id, entry);
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+        return entry;
+    }
+
+    private static final class Entry {
+        private final String id;
+        private final int index;
+
+        private Entry(String id, int index) {
+            this.id = id;
+            this.index = index;
+        }
+    }
+}
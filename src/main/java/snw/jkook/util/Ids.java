@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.util;
+
+/**
+ * Utilities for the IDs of Kook entities. <p>
+ * The IDs of users, guilds, channels and messages are numeric strings in most cases,
+ *  so they can be stored as primitive <code>long</code>s, which saves memory and hashes faster than strings.
+ * Use {@link #toLong(String)} to convert them, and fall back to the string if it returns {@link #NOT_NUMERIC}.
+ *
+ * @see Long2ObjectMap
+ * @see IdInterner
+ */
+public final class Ids {
+
+    /**
+     * Returned by {@link #toLong(String)} if the ID can't be represented as a <code>long</code>.
+     */
+    public static final long NOT_NUMERIC = -1L;
+
+    private Ids() {
+    }
+
+    /**
+     * Convert the ID to a <code>long</code>. No object is created.
+     *
+     * @param id The ID
+     * @return The value of the ID, or {@link #NOT_NUMERIC} if the ID is not a non-negative decimal number without leading zeros,
+     *         or it is too large
+     */
+    public static long toLong(String id) {
+        final int length = id.length();
+        if (length == 0 || length > 18 || (length > 1 && id.charAt(0) == '0')) { // 18 digits always fit in a long
+            return NOT_NUMERIC;
+        }
+        long result = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_NUMERIC;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Return true if the ID can be represented as a <code>long</code>.
+     *
+     * @param id The ID
+     */
+    public static boolean isNumeric(String id) {
+        return toLong(id) != NOT_NUMERIC;
+    }
+}
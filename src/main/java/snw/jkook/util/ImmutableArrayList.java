@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.util;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * An immutable list backed by an array. <p>
+ * Unlike <code>Collections.unmodifiableList(new LinkedList&lt;&gt;(...))</code>,
+ *  it needs no node object per element and {@link #get(int)} takes constant time. <p>
+ * It is designed for the immutable models (e.g. the card components),
+ *  whose builders collect the elements into an array and hand it over using {@link #wrap(Object[], int)}
+ *  instead of copying it.
+ *
+ * @param <E> The type of the elements
+ */
+public final class ImmutableArrayList<E> extends AbstractList<E> implements RandomAccess {
+    private static final ImmutableArrayList<Object> EMPTY = new ImmutableArrayList<>(new Object[0], 0);
+
+    private final Object[] elements;
+    private final int size;
+
+    private ImmutableArrayList(Object[] elements, int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    /**
+     * Get the empty list.
+     *
+     * @param <E> The type of the elements
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> List<E> of() {
+        return (List<E>) EMPTY;
+    }
+
+    /**
+     * Create a list that contains the elements of the provided collection, in its iteration order. <p>
+     * If the collection is already an {@link ImmutableArrayList}, it is returned directly.
+     *
+     * @param collection The collection to copy
+     * @param <E>        The type of the elements
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> List<E> copyOf(Collection<? extends E> collection) {
+        Validate.notNull(collection);
+        if (collection instanceof ImmutableArrayList) {
+            return (List<E>) collection;
+        }
+        final Object[] elements = collection.toArray();
+        return elements.length == 0 ? of() : new ImmutableArrayList<>(elements, elements.length);
+    }
+
+    /**
+     * Create a list that uses the first <code>size</code> elements of the provided array. <p>
+     * The array is <b>NOT</b> copied, so the caller must not modify these elements afterwards.
+     * Writing to the array after the <code>size</code> is allowed, the list never reads them.
+     *
+     * @param elements The array
+     * @param size     The count of the elements to use
+     * @param <E>      The type of the elements
+     */
+    public static <E> List<E> wrap(Object[] elements, int size) {
+        Validate.notNull(elements);
+        Validate.isTrue(size >= 0 && size <= elements.length, "Size is out of range.");
+        return size == 0 ? of() : new ImmutableArrayList<>(elements, size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (E) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(elements, size, Object[].class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Validate.notNull(action);
+        for (int i = 0; i < size; i++) {
+            action.accept((E) elements[i]);
+        }
+    }
+}
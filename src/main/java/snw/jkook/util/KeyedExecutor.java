@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * An executor that runs the tasks with the same key one after another, in submission order,
+ *  while the tasks with different keys run concurrently on the backing executor. <p>
+ * No global lock is used, and no thread is held by a waiting key.
+ * A key is forgotten as soon as its last task completes, so idle keys cost no memory.
+ */
+public final class KeyedExecutor {
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    private final Executor executor;
+    private final Map<Object, CompletableFuture<?>> tails = new ConcurrentHashMap<>();
+
+    /**
+     * The constructor.
+     *
+     * @param executor The executor that runs the tasks
+     */
+    public KeyedExecutor(Executor executor) {
+        Validate.notNull(executor);
+        this.executor = executor;
+    }
+
+    /**
+     * Submit a task. <p>
+     * The task runs after all the previously submitted tasks with the same key completed (whether success or fail).
+     *
+     * @param key  The key, null if the task does not need to be serialized
+     * @param task The task
+     * @param <T>  The type of the result
+     * @return The future of the result
+     */
+    public <T> CompletableFuture<T> submit(@Nullable Object key, Supplier<T> task) {
+        Validate.notNull(task);
+        if (key == null) {
+            return CompletableFuture.supplyAsync(task, executor);
+        }
+        final AtomicReference<CompletableFuture<T>> holder = new AtomicReference<>();
+        tails.compute(key, (k, tail) -> {
+            final CompletableFuture<?> previous = tail == null ? DONE : tail;
+            final CompletableFuture<T> next = previous.handleAsync((result, error) -> task.get(), executor);
+            holder.set(next);
+            return next;
+        });
+        final CompletableFuture<T> future = holder.get();
+        future.whenComplete((result, error) -> tails.remove(key, future));
+        return future;
+    }
+
+    /**
+     * Get the count of the keys that have pending or running tasks.
+     */
+    public int getActiveKeyCount() {
+        return tails.size();
+    }
+}
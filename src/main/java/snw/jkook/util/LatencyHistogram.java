@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe histogram of latencies with a fixed memory footprint. <p>
+ * The latencies are counted in buckets whose bounds are powers of two microseconds
+ *  (<code>[0, 1)</code>, <code>[1, 2)</code>, <code>[2, 4)</code> ... microseconds),
+ *  so recording is lock-free and the percentiles are accurate within a factor of two.
+ */
+public final class LatencyHistogram {
+    private static final int BUCKETS = 40; // the last bucket holds everything longer than ~6 days
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private volatile long maxNanos;
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos The latency in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        final long micros = nanos / 1000;
+        final int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+        if (nanos > maxNanos) {
+            synchronized (this) {
+                if (nanos > maxNanos) {
+                    maxNanos = nanos;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the count of the recorded latencies.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the mean latency in the provided unit.
+     *
+     * @param unit The unit of the result
+     */
+    public double getMean(TimeUnit unit) {
+        final long count = getCount();
+        return count == 0 ? 0 : (double) unit.convert(totalNanos.sum(), TimeUnit.NANOSECONDS) / count;
+    }
+
+    /**
+     * Get the maximum latency in the provided unit.
+     *
+     * @param unit The unit of the result
+     */
+    public long getMax(TimeUnit unit) {
+        return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the estimated latency at the provided percentile, in the provided unit. <p>
+     * The result is the upper bound of the bucket that contains the percentile.
+     *
+     * @param percentile The percentile, from <code>0</code> to <code>100</code>
+     * @param unit       The unit of the result
+     */
+    public long getPercentile(double percentile, TimeUnit unit) {
+        Validate.isTrue(percentile >= 0 && percentile <= 100, "Percentile must be in [0, 100].");
+        final long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                final long upperMicros = i == 0 ? 1 : 1L << i;
+                return Math.min(unit.convert(upperMicros, TimeUnit.MICROSECONDS), getMax(unit));
+            }
+        }
+        return getMax(unit);
+    }
+
+    /**
+     * Clear all the recorded latencies.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos = 0;
+    }
+}
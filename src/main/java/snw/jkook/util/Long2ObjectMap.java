@@ -0,0 +1,293 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * A hash map with primitive <code>long</code> keys. <p>
+ * The keys and values are stored in two arrays using open addressing, so no entry object is created
+ *  and the keys are never boxed. It is designed for the caches keyed by numeric IDs. (See {@link Ids}) <p>
+ * <code>null</code> values are not allowed. This class is <b>NOT</b> thread-safe.
+ *
+ * @param <V> The type of the values
+ */
+public final class Long2ObjectMap<V> {
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private Object[] values; // null means the slot is empty
+    private int size;
+
+    /**
+     * Construct an empty map.
+     */
+    public Long2ObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Construct an empty map that can hold the provided count of entries without resizing.
+     *
+     * @param expectedSize The expected count of entries
+     */
+    public Long2ObjectMap(int expectedSize) {
+        Validate.isTrue(expectedSize >= 0, "expectedSize must not be negative.");
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Get the value associated with the key.
+     *
+     * @param key The key
+     * @return The value, or null if not found
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        final long[] keys = this.keys;
+        final Object[] values = this.values;
+        final int mask = keys.length - 1;
+        for (int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the value associated with the key, or the provided default value if not found.
+     *
+     * @param key          The key
+     * @param defaultValue The default value
+     */
+    public V getOrDefault(long key, V defaultValue) {
+        final V value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Return true if the key is associated with a value.
+     *
+     * @param key The key
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associate the value with the key.
+     *
+     * @param key   The key
+     * @param value The value, must not be null
+     * @return The previous value, or null if there was no value
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        Validate.notNull(value);
+        final int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                final V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > keys.length >> 1) { // keep the load factor under 0.5
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Get the value associated with the key, or compute and store it if not found.
+     *
+     * @param key      The key
+     * @param function The function that computes the value, it must not return null
+     * @return The existing or computed value
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> function) {
+        V value = get(key);
+        if (value == null) {
+            value = function.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Remove the value associated with the key.
+     *
+     * @param key The key
+     * @return The removed value, or null if not found
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        final int mask = keys.length - 1;
+        for (int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                final V previous = (V) values[i];
+                shiftBack(i, mask);
+                size--;
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the count of the entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return true if this map has no entries.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all the entries.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Call the provided action with every entry of this map. The order is undefined.
+     *
+     * @param action The action
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        final long[] keys = this.keys;
+        final Object[] values = this.values;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * Create a list of the values. The order is undefined.
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        final List<V> result = new ArrayList<>(size);
+        for (Object value : values) {
+            if (value != null) {
+                result.add((V) value);
+            }
+        }
+        return result;
+    }
+
+    // removes the entry at the index, then moves the following entries of the same probe sequence back
+    private void shiftBack(int index, int mask) {
+        int hole = index;
+        for (int i = (index + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+            final int home = hash(keys[i]) & mask;
+            // move the entry if its home slot is not between the hole (exclusive) and its current slot (inclusive)
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        values[hole] = null;
+    }
+
+    private void rehash(int newCapacity) {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(newCapacity);
+        final int mask = newCapacity - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = hash(oldKeys[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity >> 1 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads the sequential IDs
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Represents an action that accepts an entry of {@link Long2ObjectMap}.
+     *
+     * @param <V> The type of the values
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        /**
+         * Accept an entry.
+         *
+         * @param key   The key
+         * @param value The value
+         */
+        void accept(long key, V value);
+    }
+}
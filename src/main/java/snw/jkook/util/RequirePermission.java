@@ -24,10 +24,17 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * A simple annotation for marking the permission-required methods. It does NOTHING.
+ * A simple annotation for marking the permission-required methods. <p>
+ * It does nothing by itself, but it is retained at runtime,
+ *  so {@link snw.jkook.cache.PermissionGuard} can check it before the method is called.
  */
-@Retention(RetentionPolicy.CLASS)
+@Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface RequirePermission {
     Permission[] value();
+
+    /**
+     * Return true if any one of the permissions is enough, otherwise all of them are required.
+     */
+    boolean any() default false;
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package snw.jkook;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionSetTest {
+
+    @Test
+    void everyPermissionRoundTrips() {
+        for (Permission permission : Permission.values()) {
+            final PermissionSet set = PermissionSet.of(permission);
+            assertEquals(permission.getValue(), set.getRawValue());
+            assertEquals(set, PermissionSet.of(permission.getValue()));
+            assertEquals(Collections.singletonList(permission), list(set));
+            assertSame(permission, Permission.value(permission.getValue()));
+        }
+        assertNull(Permission.value(0));
+        assertNull(Permission.value(3));
+        assertNull(Permission.value(1 << 29));
+    }
+
+    @Test
+    void allContainsEveryPermission() {
+        assertEquals(EnumSet.allOf(Permission.class), PermissionSet.ALL.toEnumSet());
+        assertEquals(Permission.values().length, PermissionSet.ALL.size());
+        assertSame(PermissionSet.ALL, PermissionSet.of(Arrays.asList(Permission.values())));
+        assertSame(PermissionSet.EMPTY, PermissionSet.of());
+        assertSame(PermissionSet.EMPTY, PermissionSet.of(0));
+    }
+
+    @Test
+    void setOperations() {
+        final PermissionSet a = PermissionSet.of(Permission.KICK, Permission.BAN, Permission.TALK);
+        final PermissionSet b = PermissionSet.of(Permission.BAN, Permission.TALK, Permission.SCREEN_SHARE);
+
+        assertEquals(PermissionSet.of(Permission.KICK, Permission.BAN, Permission.TALK, Permission.SCREEN_SHARE), a.union(b));
+        assertEquals(PermissionSet.of(Permission.BAN, Permission.TALK), a.intersect(b));
+        assertEquals(PermissionSet.of(Permission.KICK), a.difference(b));
+        assertEquals(PermissionSet.of(Permission.SCREEN_SHARE), b.difference(a));
+        assertEquals(a, a.with(Permission.KICK));
+        assertEquals(PermissionSet.of(Permission.KICK, Permission.TALK), a.without(Permission.BAN, Permission.ADMIN));
+        assertEquals(PermissionSet.EMPTY, a.difference(a));
+        assertTrue(a.union(b).containsAll(a));
+        assertFalse(a.containsAll(b));
+        assertTrue(a.containsAny(b));
+        assertFalse(a.containsAny(PermissionSet.of(Permission.ADMIN)));
+        assertFalse(a.containsAny(PermissionSet.EMPTY));
+        assertTrue(a.containsAll(PermissionSet.EMPTY));
+    }
+
+    @Test
+    void adminAllowsEverythingButContainsOnlyItself() {
+        final PermissionSet admin = PermissionSet.of(Permission.ADMIN);
+        assertTrue(admin.allows(Permission.BAN));
+        assertFalse(admin.contains(Permission.BAN));
+        assertTrue(admin.contains(Permission.ADMIN));
+        assertFalse(PermissionSet.of(Permission.KICK).allows(Permission.BAN));
+    }
+
+    @Test
+    void iterationFollowsTheValues() {
+        // CHANGE_OTHERS_NICKNAME is declared before ROLE_MANAGE, but its value is larger
+        final PermissionSet set = PermissionSet.of(Permission.CHANGE_OTHERS_NICKNAME, Permission.ROLE_MANAGE, Permission.ADMIN);
+        final List<Permission> expected = Arrays.asList(Permission.ADMIN, Permission.ROLE_MANAGE, Permission.CHANGE_OTHERS_NICKNAME);
+        assertEquals(expected, list(set));
+        final List<Permission> visited = new ArrayList<>();
+        set.forEach(visited::add);
+        assertEquals(expected, visited);
+        assertEquals("PermissionSet[ADMIN, ROLE_MANAGE, CHANGE_OTHERS_NICKNAME]", set.toString());
+
+        final Iterator<Permission> iterator = PermissionSet.EMPTY.iterator();
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void unknownBitsAreKeptButNotIterated() {
+        final int unknown = 1 << 29 | 1 << 31;
+        final int raw = unknown | Permission.KICK.getValue();
+        final PermissionSet set = PermissionSet.of(raw);
+
+        assertEquals(raw, set.getRawValue());
+        assertEquals(1, set.size());
+        assertEquals(Collections.singletonList(Permission.KICK), list(set));
+        assertEquals(EnumSet.of(Permission.KICK), set.toEnumSet());
+        assertEquals(unknown, set.without(Permission.KICK).getRawValue());
+        assertEquals(raw, set.union(PermissionSet.of(Permission.KICK)).getRawValue());
+        assertNotEquals(PermissionSet.of(Permission.KICK), set);
+    }
+
+    @Test
+    void equalSetsHaveEqualHashCodes() {
+        final PermissionSet a = PermissionSet.of(Permission.KICK).union(PermissionSet.of(Permission.BAN));
+        final PermissionSet b = PermissionSet.of(Permission.KICK.getValue() | Permission.BAN.getValue());
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    private static List<Permission> list(PermissionSet set) {
+        final List<Permission> result = new ArrayList<>();
+        for (Permission permission : set) {
+            result.add(permission);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package snw.jkook.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandIndexTest {
+
+    @Test
+    void longestMatchEndsAtAWordBoundary() {
+        final CommandIndex index = new CommandIndex();
+        final JKookCommand help = new JKookCommand("help");
+        final JKookCommand helpMe = new JKookCommand("helpme");
+        index.register(help);
+        index.register(helpMe);
+
+        assertMatch(index, "/help", help, 5);
+        assertMatch(index, "/help me", help, 6);
+        assertMatch(index, "/helpme x", helpMe, 8);
+        assertMatch(index, "/help\t  x", help, 8);
+        // "/help" is a prefix of these, but it is not followed by whitespace
+        assertNull(index.resolve("/helpm"));
+        assertNull(index.resolve("/helpmex"));
+        assertNull(index.resolve("/hel"));
+        assertNull(index.resolve(" /help"));
+        assertNull(index.resolve(""));
+    }
+
+    @Test
+    void overlappingPrefixes() {
+        final CommandIndex index = new CommandIndex();
+        final JKookCommand x = new JKookCommand("x", Arrays.asList("!", "!!"));
+        final JKookCommand bangX = new JKookCommand("!x", "!");
+        final JKookCommand y = new JKookCommand("y", "!");
+        index.register(x);
+        assertThrows(IllegalArgumentException.class, () -> index.register(bangX)); // "!!x" is used by x
+        index.register(y);
+
+        assertMatch(index, "!x", x, 2);
+        assertMatch(index, "!!x", x, 3);
+        assertMatch(index, "!y 1", y, 3);
+        assertNull(index.resolve("!!y"));
+    }
+
+    @Test
+    void aliasesAndSubcommands() {
+        final JKookCommand add = new JKookCommand("add").addAlias("+");
+        final JKookCommand user = new JKookCommand("user").addSubcommand(add);
+        final JKookCommand perm = new JKookCommand("perm").addAlias("p").addSubcommand(user);
+        final CommandIndex index = new CommandIndex();
+        index.register(perm);
+
+        assertMatch(index, "/perm user add bob", add, 15);
+        assertMatch(index, "/p user + bob", add, 10);
+        assertMatch(index, "/perm user", user, 10);
+        // the words after the last matching subcommand are the arguments
+        assertMatch(index, "/perm foo add", perm, 6);
+        assertMatch(index, "/perm user addx", user, 11);
+        assertNull(index.resolve("/user add"));
+    }
+
+    @Test
+    void failedRegistrationIsNotPublished() {
+        final CommandIndex index = new CommandIndex();
+        final JKookCommand first = new JKookCommand("first").addAlias("f");
+        index.register(first);
+        // "/other" is inserted before the conflicting "/f", it must not become visible
+        final JKookCommand conflicting = new JKookCommand("other").addAlias("f");
+        assertThrows(IllegalArgumentException.class, () -> index.register(conflicting));
+        assertThrows(IllegalArgumentException.class, () -> index.register(new JKookCommand("first")));
+
+        assertNull(index.resolve("/other"));
+        assertMatch(index, "/f", first, 2);
+        assertNull(index.getCommand("other"));
+        assertEquals(1, index.getCommands().size());
+    }
+
+    @Test
+    void commandsAreASnapshotInRegistrationOrder() {
+        final CommandIndex index = new CommandIndex();
+        final JKookCommand b = new JKookCommand("b");
+        final JKookCommand a = new JKookCommand("a");
+        index.register(b);
+        index.register(a);
+        assertEquals(Arrays.asList(b, a), index.getCommands());
+        assertThrows(UnsupportedOperationException.class, () -> index.getCommands().clear());
+        assertSame(a, index.getCommand("a"));
+    }
+
+    private static void assertMatch(CommandIndex index, String cmdLine, JKookCommand expected, int argumentsOffset) {
+        final CommandIndex.Match match = index.resolve(cmdLine);
+        assertNotNull(match, cmdLine);
+        assertSame(expected, match.getCommand(), cmdLine);
+        assertEquals(argumentsOffset, match.getArgumentsOffset(), cmdLine);
+    }
+}
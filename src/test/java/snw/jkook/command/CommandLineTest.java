@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandLineTest {
+
+    @Test
+    void whitespaceSeparatesArguments() {
+        assertArrayEquals(new String[]{"a", "b", "c"}, CommandLine.parse("  a \t b\nc  ").toArray());
+        assertTrue(CommandLine.parse("   ").isEmpty());
+        assertTrue(CommandLine.parse("").isEmpty());
+    }
+
+    @Test
+    void quotesAtTheStartOfAnArgument() {
+        assertArrayEquals(new String[]{"hello world", "x"}, CommandLine.parse("\"hello world\" x").toArray());
+        assertArrayEquals(new String[]{"it's here"}, CommandLine.parse("'it\\'s here'").toArray());
+        assertArrayEquals(new String[]{"say \"hi\""}, CommandLine.parse("'say \"hi\"'").toArray());
+        assertArrayEquals(new String[]{""}, CommandLine.parse("\"\"").toArray());
+        assertArrayEquals(new String[]{"ab"}, CommandLine.parse("\"a\"b").toArray());
+        assertArrayEquals(new String[]{"a b\"c"}, CommandLine.parse("\"a b\"\"c").toArray());
+    }
+
+    @Test
+    void quotesInsideAnArgumentArePlainText() {
+        assertArrayEquals(new String[]{"it's", "fine"}, CommandLine.parse("it's fine").toArray());
+        assertArrayEquals(new String[]{"don't", "say", "no"}, CommandLine.parse("don't say \"no\"").toArray());
+        assertArrayEquals(new String[]{"5'11\"", "tall"}, CommandLine.parse("5'11\" tall").toArray());
+        assertArrayEquals(new String[]{"a\"b", "c\"d"}, CommandLine.parse("a\"b c\"d").toArray());
+    }
+
+    @Test
+    void unclosedQuotesArePlainText() {
+        assertArrayEquals(new String[]{"\"hello", "world"}, CommandLine.parse("\"hello world").toArray());
+        assertArrayEquals(new String[]{"'"}, CommandLine.parse("'").toArray());
+        assertArrayEquals(new String[]{"x", "'its"}, CommandLine.parse("x 'its").toArray());
+        assertArrayEquals(new String[]{"its"}, CommandLine.parse("'it's").toArray()); // closed by the apostrophe
+        assertArrayEquals(new String[]{"\"a\"", "b\""}, CommandLine.parse("\"a\\\" b\\\"").toArray());
+    }
+
+    @Test
+    void backslashEscapes() {
+        assertArrayEquals(new String[]{"a b", "\\", "\"q"}, CommandLine.parse("a\\ b \\\\ \\\"q").toArray());
+        assertArrayEquals(new String[]{"end\\"}, CommandLine.parse("end\\").toArray());
+        assertArrayEquals(new String[]{"\0x"}, CommandLine.parse("\\\0x").toArray());
+    }
+
+    @Test
+    void viewsDoNotCopyUnescapedArguments() {
+        final String source = "plain \"quoted arg\" esc\\ aped";
+        final CommandLine line = CommandLine.parse(source);
+        assertEquals("plain", line.view(0).toString());
+        assertEquals("quoted arg", line.view(1).toString());
+        assertEquals("esc aped", line.view(2).toString());
+        assertEquals("\"quoted arg\"", line.getRaw(1).toString());
+        assertEquals("\"quoted arg\" esc\\ aped", line.getRemaining(1));
+        assertEquals(6, line.getStart(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> line.get(3));
+    }
+
+    @Test
+    void offsetSkipsTheCommandName() {
+        final CommandLine line = CommandLine.parse("/say it's fine", 5);
+        assertArrayEquals(new String[]{"it's", "fine"}, line.toArray());
+        assertEquals("it's fine", line.toString());
+        assertEquals(5, line.getOffset());
+    }
+
+    @Test
+    void ofRoundTrips() {
+        final String[] arguments = {"", "a b", "it's", "\"q\"", "\\", "'", "tab\there", "\"open"};
+        assertArrayEquals(arguments, CommandLine.of(arguments).toArray());
+        assertEquals(0, CommandLine.of().size());
+    }
+}
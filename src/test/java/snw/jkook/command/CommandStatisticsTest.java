@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandStatisticsTest {
+
+    @Test
+    void topIsSortedDescending() {
+        final CommandStatistics statistics = new CommandStatistics();
+        final JKookCommand a = new JKookCommand("a");
+        final JKookCommand b = new JKookCommand("b");
+        final JKookCommand c = new JKookCommand("c");
+        record(statistics.getMetrics(a), 2, 0);
+        record(statistics.getMetrics(b), 5, 1);
+        record(statistics.getMetrics(c), 1, 1);
+
+        assertEquals(commands(b, a, c), roots(statistics.getTop(CommandStatistics.Order.INVOCATIONS, 10)));
+        assertEquals(commands(b, a), roots(statistics.getTop(CommandStatistics.Order.INVOCATIONS, 2)));
+        assertEquals(2, statistics.getTop(CommandStatistics.Order.FAILURES, 2).stream()
+                .mapToLong(CommandMetrics::getFailures).sum());
+    }
+
+    @Test
+    void rankingWhileRecording() throws InterruptedException {
+        final CommandStatistics statistics = new CommandStatistics();
+        final List<CommandMetrics> all = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            all.add(statistics.getMetrics(new JKookCommand("cmd" + i)));
+        }
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final Thread writer = new Thread(() -> {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (running.get()) {
+                all.get(random.nextInt(all.size())).recordExecution(random.nextLong(1_000_000_000L), null);
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 200; i++) {
+                for (CommandStatistics.Order order : CommandStatistics.Order.values()) {
+                    assertEquals(50, statistics.getTop(order, 50).size()); // never fails the comparator contract
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    private static void record(CommandMetrics metrics, int invocations, int failures) {
+        for (int i = 0; i < invocations; i++) {
+            metrics.recordExecution(1000, i < failures ? new RuntimeException() : null);
+        }
+    }
+
+    private static List<String> commands(JKookCommand... commands) {
+        final List<String> result = new ArrayList<>();
+        for (JKookCommand command : commands) {
+            result.add(command.getRootName());
+        }
+        return result;
+    }
+
+    private static List<String> roots(List<CommandMetrics> metrics) {
+        final List<String> result = new ArrayList<>();
+        for (CommandMetrics entry : metrics) {
+            result.add(entry.getCommand().getRootName());
+        }
+        return result;
+    }
+}
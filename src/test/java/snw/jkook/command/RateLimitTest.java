@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package snw.jkook.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitTest {
+    // ahead of the clock, so the states are never dropped as full by the eviction, which uses the real time
+    private static final long T0 = System.currentTimeMillis() + 3_600_000;
+
+    @Test
+    void burstThenOnePermitPerInterval() {
+        final RateLimit limit = new RateLimit(CommandScope.GLOBAL, 3, 3000);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limit.tryAcquire("k", T0));
+        }
+        assertEquals(1000, limit.tryAcquire("k", T0));
+        assertEquals(1, limit.getWaitTime("k", T0 + 999));
+        assertEquals(0, limit.tryAcquire("k", T0 + 1000));
+        assertEquals(1000, limit.tryAcquire("k", T0 + 1000));
+    }
+
+    @Test
+    void rejectedInvocationsConsumeNothing() {
+        final RateLimit limit = new RateLimit(CommandScope.GLOBAL, 1, 1000);
+        assertEquals(0, limit.tryAcquire("k", T0));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(500, limit.tryAcquire("k", T0 + 500));
+        }
+        assertEquals(0, limit.tryAcquire("k", T0 + 1000));
+    }
+
+    @Test
+    void refillIsProportionalToTheElapsedTime() {
+        final RateLimit limit = new RateLimit(CommandScope.GLOBAL, 3, 3000);
+        for (int i = 0; i < 3; i++) {
+            limit.tryAcquire("k", T0);
+        }
+        // two intervals later, two permits are back
+        assertEquals(0, limit.tryAcquire("k", T0 + 2000));
+        assertEquals(0, limit.tryAcquire("k", T0 + 2000));
+        assertEquals(1000, limit.tryAcquire("k", T0 + 2000));
+        // the bucket never holds more than the permits, however long it is idle
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limit.tryAcquire("k", T0 + 100_000));
+        }
+        assertTrue(limit.tryAcquire("k", T0 + 100_000) > 0);
+    }
+
+    @Test
+    void periodNotDivisibleByPermits() {
+        // interval = 333, so the burst still has 3 permits, and it is full again after 999 ms
+        final RateLimit limit = new RateLimit(CommandScope.GLOBAL, 3, 1000);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limit.tryAcquire("k", T0));
+        }
+        assertEquals(332, limit.tryAcquire("k", T0));
+        assertEquals(0, limit.getWaitTime("k", T0 + 332));
+        assertEquals(0, limit.getWaitTime("k", T0 + 999));
+    }
+
+    @Test
+    void keysAreIndependent() {
+        final RateLimit limit = new RateLimit(CommandScope.GLOBAL, 1, 1000);
+        assertEquals(0, limit.tryAcquire("a", T0));
+        assertEquals(0, limit.tryAcquire("b", T0));
+        assertEquals(1000, limit.tryAcquire("a", T0));
+    }
+
+    @Test
+    void leastRecentlyUsedKeyIsEvicted() {
+        final RateLimit limit = new RateLimit(CommandScope.GLOBAL, 1, 1000, 2);
+        limit.tryAcquire("a", T0);
+        limit.tryAcquire("b", T0);
+        limit.getWaitTime("a", T0); // now "b" is the least recently used
+        limit.tryAcquire("c", T0);
+        assertEquals(0, limit.getWaitTime("b", T0));
+        assertEquals(1000, limit.getWaitTime("a", T0));
+        assertEquals(1000, limit.getWaitTime("c", T0));
+    }
+
+    @Test
+    void acquireAllIsAllOrNothing() {
+        final RateLimit shortLimit = new RateLimit(CommandScope.GLOBAL, 2, 60_000);
+        final RateLimit cooldown = new RateLimit(CommandScope.GLOBAL, 1, 60_000);
+        assertEquals(0, cooldown.tryAcquire(null, null));
+        assertTrue(RateLimit.tryAcquireAll(Arrays.asList(shortLimit, cooldown), null, null) > 0);
+        // the rejected invocation did not consume the permit of the other limit
+        assertEquals(0, shortLimit.tryAcquire(null, null));
+        assertEquals(0, shortLimit.tryAcquire(null, null));
+        assertEquals(0, RateLimit.tryAcquireAll(Collections.emptyList(), null, null));
+    }
+
+    @Test
+    void invocationsWithoutKeyAreNotLimited() {
+        final RateLimit limit = new RateLimit(CommandScope.USER, 1, 60_000);
+        assertEquals(0, limit.tryAcquire(null, null));
+        assertEquals(0, limit.tryAcquire(null, null));
+    }
+
+    @Test
+    void invalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimit(CommandScope.GLOBAL, 0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimit(CommandScope.GLOBAL, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimit(CommandScope.GLOBAL, 1, 1000, 0));
+    }
+}
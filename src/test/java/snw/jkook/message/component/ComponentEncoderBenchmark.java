@@ -0,0 +1,316 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package snw.jkook.message.component;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import snw.jkook.entity.abilities.Accessory;
+import snw.jkook.message.component.card.*;
+import snw.jkook.message.component.card.element.*;
+import snw.jkook.message.component.card.module.*;
+import snw.jkook.message.component.card.structure.Paragraph;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link JsonComponentEncoder} against a tree-based encoder,
+ *  which builds the JSON tree of maps and lists first and then writes it into a string,
+ *  the way an encoder on top of a DOM-style JSON library does. <p>
+ * Both produce the same bytes, it is checked in the setup. <p>
+ * Run the {@link #main(String[])} method from the test classpath, e.g.
+ *  <code>mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=snw.jkook.message.component.ComponentEncoderBenchmark</code>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComponentEncoderBenchmark {
+    private MultipleCardComponent component;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        final CardBuilder builder = new CardBuilder();
+        for (int card = 0; card < 5; card++) {
+            builder.setTheme(Theme.INFO).setSize(Size.LG);
+            for (int i = 0; i < 10; i++) {
+                builder.addModule(module(card * 10 + i));
+            }
+            builder.newCard();
+        }
+        component = builder.build();
+        final byte[] expected = JsonComponentEncoder.INSTANCE.encode(component);
+        if (!Arrays.equals(expected, TreeEncoder.encode(component))) {
+            throw new IllegalStateException("The encoders produce different payloads.");
+        }
+        buffer = ByteBuffer.allocate(expected.length);
+    }
+
+    private static BaseModule module(int i) {
+        switch (i % 8) {
+            case 0:
+                return new HeaderModule(new PlainTextElement("Header \"" + i + "\" 标题"));
+            case 1:
+                return new SectionModule(new MarkdownElement("**Section** " + i + "\n> quote 😀"),
+                        new ImageElement("https://img/" + i + ".png", "alt", Size.SM, true), Accessory.Mode.LEFT);
+            case 2:
+                return new SectionModule(new Paragraph(2, Arrays.asList(new PlainTextElement("a" + i, false), new MarkdownElement("b"))), null, null);
+            case 3:
+                return new ContextModule(Arrays.asList(new PlainTextElement("ctx " + i), new ImageElement("https://img/ctx.png", null, false)));
+            case 4:
+                return new ActionGroupModule(Arrays.asList(
+                        new ButtonElement(Theme.PRIMARY, "v" + i, ButtonElement.EventType.RETURN_VAL, new PlainTextElement("Click")),
+                        new ButtonElement(Theme.DANGER, "https://kookapp.cn", ButtonElement.EventType.LINK, new MarkdownElement("link"))));
+            case 5:
+                return new FileModule(FileComponent.Type.AUDIO, "https://file/" + i, "audio", "https://img/cover.png");
+            case 6:
+                return new CountdownModule(CountdownModule.Type.DAY, 1700000000000L + i);
+            default:
+                return DividerModule.INSTANCE;
+        }
+    }
+
+    @Benchmark
+    public byte[] streaming() {
+        return JsonComponentEncoder.INSTANCE.encode(component);
+    }
+
+    @Benchmark
+    public int streamingIntoBuffer() {
+        buffer.clear();
+        return JsonComponentEncoder.INSTANCE.write(component, buffer);
+    }
+
+    @Benchmark
+    public byte[] tree() {
+        return TreeEncoder.encode(component);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ComponentEncoderBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // the cards are converted into LinkedHashMap (objects), ArrayList (arrays), String, Long and Boolean
+    private static final class TreeEncoder {
+
+        static byte[] encode(MultipleCardComponent component) {
+            final List<Object> cards = new ArrayList<>();
+            for (CardComponent card : component.getComponents()) {
+                cards.add(card(card));
+            }
+            final StringBuilder builder = new StringBuilder();
+            write(cards, builder);
+            return builder.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        // region Tree
+
+        private static Map<String, Object> card(CardComponent card) {
+            final Map<String, Object> object = object("card");
+            put(object, "theme", card.getTheme() == null ? null : card.getTheme().getValue());
+            put(object, "size", card.getSize().getValue());
+            final List<Object> modules = new ArrayList<>();
+            for (BaseModule module : card.getModules()) {
+                modules.add(module(module));
+            }
+            object.put("modules", modules);
+            return object;
+        }
+
+        private static Map<String, Object> module(BaseModule module) {
+            if (module instanceof HeaderModule) {
+                final Map<String, Object> object = object("header");
+                object.put("text", element(((HeaderModule) module).getElement()));
+                return object;
+            } else if (module instanceof SectionModule) {
+                final SectionModule section = (SectionModule) module;
+                final Map<String, Object> object = object("section");
+                object.put("text", element(section.getText()));
+                if (section.getAccessory() instanceof CardScopeElement) {
+                    put(object, "mode", section.getMode() == null ? null : section.getMode().getValue());
+                    object.put("accessory", element((CardScopeElement) section.getAccessory()));
+                }
+                return object;
+            } else if (module instanceof ActionGroupModule) {
+                return elements("action-group", ((ActionGroupModule) module).getButtons());
+            } else if (module instanceof ContextModule) {
+                return elements("context", ((ContextModule) module).getModules());
+            } else if (module instanceof DividerModule) {
+                return object("divider");
+            } else if (module instanceof FileModule) {
+                final FileModule file = (FileModule) module;
+                final Map<String, Object> object = object(file.getType().getValue());
+                put(object, "title", file.getTitle());
+                put(object, "src", file.getSource());
+                put(object, "cover", file.getCover());
+                return object;
+            } else if (module instanceof CountdownModule) {
+                final Map<String, Object> object = object("countdown");
+                object.put("mode", ((CountdownModule) module).getType().getValue());
+                object.put("endTime", ((CountdownModule) module).getEndTime());
+                return object;
+            }
+            throw new IllegalArgumentException("Unsupported module: " + module.getClass().getName());
+        }
+
+        private static Map<String, Object> element(CardScopeElement element) {
+            if (element instanceof PlainTextElement) {
+                final Map<String, Object> object = object("plain-text");
+                object.put("content", ((PlainTextElement) element).getContent());
+                object.put("emoji", ((PlainTextElement) element).willConvertEmoji());
+                return object;
+            } else if (element instanceof MarkdownElement) {
+                final Map<String, Object> object = object("kmarkdown");
+                object.put("content", ((MarkdownElement) element).getContent());
+                return object;
+            } else if (element instanceof ImageElement) {
+                final ImageElement image = (ImageElement) element;
+                final Map<String, Object> object = object("image");
+                put(object, "src", image.getSource());
+                put(object, "alt", image.getAlt());
+                put(object, "size", image.getSize() == null ? null : image.getSize().getValue());
+                object.put("circle", image.isCircled());
+                return object;
+            } else if (element instanceof ButtonElement) {
+                final ButtonElement button = (ButtonElement) element;
+                final Map<String, Object> object = object("button");
+                object.put("theme", button.getTheme().getValue());
+                put(object, "value", button.getValue());
+                final ButtonElement.EventType type = button.getEventType();
+                if (type != null && type != ButtonElement.EventType.NO_ACTION) {
+                    object.put("click", type.getValue());
+                }
+                object.put("text", element(button.getText()));
+                return object;
+            } else if (element instanceof Paragraph) {
+                final Paragraph paragraph = (Paragraph) element;
+                final Map<String, Object> object = object("paragraph");
+                object.put("cols", (long) paragraph.getColumns());
+                final List<Object> fields = new ArrayList<>();
+                for (BaseElement field : paragraph.getFields()) {
+                    fields.add(element(field));
+                }
+                object.put("fields", fields);
+                return object;
+            }
+            throw new IllegalArgumentException("Unsupported element: " + element.getClass().getName());
+        }
+
+        private static Map<String, Object> elements(String type, Collection<? extends CardScopeElement> elements) {
+            final Map<String, Object> object = object(type);
+            final List<Object> list = new ArrayList<>();
+            for (CardScopeElement element : elements) {
+                list.add(element(element));
+            }
+            object.put("elements", list);
+            return object;
+        }
+
+        private static Map<String, Object> object(String type) {
+            final Map<String, Object> object = new LinkedHashMap<>();
+            object.put("type", type);
+            return object;
+        }
+
+        private static void put(Map<String, Object> object, String name, Object value) {
+            if (value != null) {
+                object.put(name, value);
+            }
+        }
+
+        // endregion
+
+        // region Writer
+
+        private static void write(Object value, StringBuilder out) {
+            if (value instanceof Map) {
+                out.append('{');
+                boolean first = true;
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    if (!first) {
+                        out.append(',');
+                    }
+                    first = false;
+                    string((String) entry.getKey(), out);
+                    out.append(':');
+                    write(entry.getValue(), out);
+                }
+                out.append('}');
+            } else if (value instanceof List) {
+                out.append('[');
+                boolean first = true;
+                for (Object element : (List<?>) value) {
+                    if (!first) {
+                        out.append(',');
+                    }
+                    first = false;
+                    write(element, out);
+                }
+                out.append(']');
+            } else if (value instanceof String) {
+                string((String) value, out);
+            } else {
+                out.append(value); // Long and Boolean
+            }
+        }
+
+        private static void string(String value, StringBuilder out) {
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        out.append("\\\"");
+                        break;
+                    case '\\':
+                        out.append("\\\\");
+                        break;
+                    case '\n':
+                        out.append("\\n");
+                        break;
+                    case '\r':
+                        out.append("\\r");
+                        break;
+                    case '\t':
+                        out.append("\\t");
+                        break;
+                    case '\b':
+                        out.append("\\b");
+                        break;
+                    case '\f':
+                        out.append("\\f");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.append(c);
+                        }
+                }
+            }
+            out.append('"');
+        }
+
+        // endregion
+    }
+}
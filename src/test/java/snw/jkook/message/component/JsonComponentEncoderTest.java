@@ -0,0 +1,477 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.message.component;
+
+import org.junit.jupiter.api.Test;
+import snw.jkook.entity.abilities.Accessory;
+import snw.jkook.message.component.card.*;
+import snw.jkook.message.component.card.element.*;
+import snw.jkook.message.component.card.module.*;
+import snw.jkook.message.component.card.structure.Paragraph;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trip tests of {@link JsonComponentEncoder}: the payloads are parsed back by a strict JSON reader
+ *  and compared with the source components.
+ */
+class JsonComponentEncoderTest {
+    private static final JsonComponentEncoder ENCODER = JsonComponentEncoder.INSTANCE;
+
+    // region Components
+
+    @Test
+    void everyModuleAndElementType() {
+        final CardComponent first = new CardComponent(Arrays.asList(
+                new HeaderModule(new PlainTextElement("Header")),
+                new SectionModule(new PlainTextElement("plain", true),
+                        new ButtonElement(Theme.PRIMARY, "v1", ButtonElement.EventType.RETURN_VAL, new PlainTextElement("Click")),
+                        Accessory.Mode.RIGHT),
+                new SectionModule(new MarkdownElement("**md**"), new ImageElement("https://img/1.png", "alt", Size.SM, true), Accessory.Mode.LEFT),
+                new SectionModule(new Paragraph(2, Arrays.asList(new PlainTextElement("a", false), new MarkdownElement("b"))), null, null),
+                new ImageGroupModule(Arrays.asList(new ImageElement("https://img/2.png", null, false), new ImageElement("https://img/3.png", "three", true))),
+                new ContainerModule(Collections.singletonList(new ImageElement("https://img/4.png", "four", false))),
+                new ActionGroupModule(Arrays.asList(
+                        new ButtonElement(Theme.DANGER, "https://kookapp.cn", ButtonElement.EventType.LINK, new MarkdownElement("link")),
+                        new ButtonElement(Theme.SECONDARY, "noop", new PlainTextElement("none")))),
+                new ContextModule(Arrays.asList(new PlainTextElement("ctx"), new MarkdownElement("*ctx*"), new ImageElement("https://img/5.png", "five", false))),
+                DividerModule.INSTANCE,
+                new FileModule(FileComponent.Type.FILE, "https://file/1", "file", null),
+                new FileModule(FileComponent.Type.AUDIO, "https://file/2", "audio", "https://img/cover.png"),
+                new FileModule(FileComponent.Type.VIDEO, "https://file/3", "video", null),
+                new CountdownModule(CountdownModule.Type.DAY, 1700000000000L),
+                new CountdownModule(CountdownModule.Type.SECOND, -1L),
+                new InviteModule("abc123")
+        ), Size.LG, Theme.WARNING);
+        final CardComponent second = new CardComponent(Collections.singletonList(new HeaderModule("Second")), Size.SM, Theme.NONE);
+
+        final List<Object> expected = Arrays.asList(
+                object("type", "card", "theme", "warning", "size", "lg", "modules", Arrays.asList(
+                        object("type", "header", "text", plainText("Header", false)),
+                        object("type", "section", "text", plainText("plain", true), "mode", "right", "accessory",
+                                object("type", "button", "theme", "primary", "value", "v1", "click", "return-val", "text", plainText("Click", false))),
+                        object("type", "section", "text", markdown("**md**"), "mode", "left", "accessory",
+                                image("https://img/1.png", "alt", "sm", true)),
+                        object("type", "section", "text", object("type", "paragraph", "cols", 2L, "fields", Arrays.asList(plainText("a", false), markdown("b")))),
+                        object("type", "image-group", "elements", Arrays.asList(image("https://img/2.png", null, "lg", false), image("https://img/3.png", "three", "lg", true))),
+                        object("type", "container", "elements", Collections.singletonList(image("https://img/4.png", "four", "lg", false))),
+                        object("type", "action-group", "elements", Arrays.asList(
+                                object("type", "button", "theme", "danger", "value", "https://kookapp.cn", "click", "link", "text", markdown("link")),
+                                object("type", "button", "theme", "secondary", "value", "noop", "text", plainText("none", false)))),
+                        object("type", "context", "elements", Arrays.asList(plainText("ctx", false), markdown("*ctx*"), image("https://img/5.png", "five", "lg", false))),
+                        object("type", "divider"),
+                        object("type", "file", "title", "file", "src", "https://file/1"),
+                        object("type", "audio", "title", "audio", "src", "https://file/2", "cover", "https://img/cover.png"),
+                        object("type", "video", "title", "video", "src", "https://file/3"),
+                        object("type", "countdown", "mode", "day", "endTime", 1700000000000L),
+                        object("type", "countdown", "mode", "second", "endTime", -1L),
+                        object("type", "invite", "code", "abc123")
+                )),
+                object("type", "card", "theme", "none", "size", "sm", "modules", Collections.singletonList(
+                        object("type", "header", "text", plainText("Second", false))))
+        );
+
+        final MultipleCardComponent cards = new MultipleCardComponent(Arrays.asList(first, second));
+        assertEquals(expected, parse(ENCODER.encode(cards)));
+        assertEquals(expected.subList(0, 1), parse(ENCODER.encode(first)));
+        assertArrayEquals(ENCODER.encode(cards), ENCODER.encode(FrozenCardComponent.freeze(cards, ENCODER)));
+    }
+
+    @Test
+    void contentComponents() {
+        final String content = "text \"quoted\" \\ \n é 中 😀";
+        assertEquals(content, utf8(ENCODER.encode(new TextComponent(content))));
+        assertEquals(content, utf8(ENCODER.encode(new MarkdownComponent(content))));
+        assertEquals("https://file/1", utf8(ENCODER.encode(new FileComponent("https://file/1", "name", 1, FileComponent.Type.FILE))));
+    }
+
+    @Test
+    void unsupportedComponent() {
+        final BaseComponent unknown = new BaseComponent() {
+        };
+        assertThrows(IllegalArgumentException.class, () -> ENCODER.encode(unknown));
+        final ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.put((byte) 'x');
+        assertThrows(IllegalArgumentException.class, () -> ENCODER.write(unknown, buffer));
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    void allOutputsAreEqual() throws IOException {
+        final MultipleCardComponent cards = cardWithText("same bytes 中");
+        final byte[] encoded = ENCODER.encode(cards);
+
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        ENCODER.write(cards, stream);
+        assertArrayEquals(encoded, stream.toByteArray());
+
+        final ByteBuffer buffer = ByteBuffer.allocate(encoded.length + 4);
+        buffer.put((byte) 'x');
+        assertEquals(encoded.length, ENCODER.write(cards, buffer));
+        assertArrayEquals(encoded, Arrays.copyOfRange(buffer.array(), 1, 1 + encoded.length));
+    }
+
+    @Test
+    void payloadLargerThanTheRetainedBuffer() {
+        final List<BaseModule> modules = new ArrayList<>();
+        final char[] text = new char[1900];
+        Arrays.fill(text, '中'); // 3 bytes each
+        for (int i = 0; i < 20; i++) {
+            modules.add(new SectionModule(new PlainTextElement(new String(text)), null, null));
+        }
+        final MultipleCardComponent cards = new MultipleCardComponent(Collections.singletonList(new CardComponent(modules, Size.LG, Theme.INFO)));
+        final byte[] encoded = ENCODER.encode(cards);
+        assertTrue(encoded.length > 100 * 1024);
+        assertEquals(new String(text), textOf(parse(encoded), 0));
+        assertArrayEquals(encoded, ENCODER.encode(cards)); // the next encoding starts from a small buffer again
+    }
+
+    // endregion
+
+    // region Escaping
+
+    @Test
+    void controlCharactersAreEscaped() {
+        final StringBuilder builder = new StringBuilder();
+        for (char c = 0; c < 0x20; c++) {
+            builder.append(c);
+        }
+        final String value = builder.append("\"\\/\u007f").toString();
+        final String json = utf8(ENCODER.encode(cardWithText(value)));
+        assertTrue(json.contains("\\u0000\\u0001"));
+        assertTrue(json.contains("\\b\\t\\n\\u000b\\f\\r\\u000e"));
+        assertTrue(json.contains("\\u001f\\\"\\\\/\u007f")); // '/' and DEL need no escaping
+        assertEquals(value, textOf(parse(ENCODER.encode(cardWithText(value))), 0));
+    }
+
+    @Test
+    void nonAsciiCharactersAreWrittenAsIs() {
+        final String value = "é߿ࠀ  ￿${name}";
+        final String json = utf8(ENCODER.encode(cardWithText(value)));
+        assertTrue(json.contains(value)); // no backslash-u escapes, and the placeholders stay intact
+        assertEquals(value, textOf(parse(json.getBytes(StandardCharsets.UTF_8)), 0));
+    }
+
+    @Test
+    void unicodeEscapesInTheSourceAreLiteral() {
+        final String value = "\\u0041 is not A";
+        assertEquals(value, textOf(parse(ENCODER.encode(cardWithText(value))), 0));
+    }
+
+    @Test
+    void surrogatePairs() {
+        final String value = "😀 𐀀 􏿿";
+        final byte[] escaped = escape(value);
+        assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), escaped);
+        assertEquals(4 * 3 + 2, escaped.length);
+        assertEquals(value, textOf(parse(ENCODER.encode(cardWithText(value))), 0));
+    }
+
+    @Test
+    void loneSurrogatesAreReplaced() {
+        assertEquals("a?b", utf8(escape("a\ud800b")));
+        assertEquals("?", utf8(escape("\udc00")));
+        assertEquals("x?", utf8(escape("x\ud83d")));
+        assertEquals("??", utf8(escape("\ude00\ud83d"))); // reversed pair
+        assertEquals("?😀", utf8(escape("\ud83d😀")));
+        assertEquals("a?b", textOf(parse(ENCODER.encode(cardWithText("a\ud800b"))), 0));
+    }
+
+    @Test
+    void escapedLengthMatchesWrittenBytes() {
+        final List<String> samples = new ArrayList<>(Arrays.asList(
+                "", "plain", "\"\\\n\r\t\b\f", "\u0000\u001f", "\u007f\u0080߿ࠀ￿",
+                "😀", "\ud800", "\udc00", "x\ud83d", "\ude00\ud83d"
+        ));
+        final Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            final char[] chars = new char[random.nextInt(32)];
+            for (int j = 0; j < chars.length; j++) {
+                switch (random.nextInt(4)) {
+                    case 0:
+                        chars[j] = (char) random.nextInt(0x80);
+                        break;
+                    case 1:
+                        chars[j] = (char) (0xd800 + random.nextInt(0x800)); // surrogates, paired or not
+                        break;
+                    default:
+                        chars[j] = (char) random.nextInt(0x10000);
+                }
+            }
+            samples.add(new String(chars));
+        }
+        for (String sample : samples) {
+            assertEquals(JsonComponentEncoder.escapedLength(sample), escape(sample).length, () -> "length of " + codes(sample));
+            assertEquals(JsonComponentEncoder.escapedLength(sample), JsonComponentEncoder.escapedLength(new StringBuilder(sample)));
+        }
+    }
+
+    // endregion
+
+    // region Buffers
+
+    @Test
+    void overflowRestoresThePosition() {
+        final MultipleCardComponent cards = cardWithText("overflow 😀");
+        final int length = ENCODER.encode(cards).length;
+        for (int capacity = 3; capacity < length + 3; capacity++) {
+            final ByteBuffer buffer = ByteBuffer.allocate(capacity);
+            buffer.put(new byte[]{'a', 'b', 'c'});
+            assertThrows(BufferOverflowException.class, () -> ENCODER.write(cards, buffer));
+            assertEquals(3, buffer.position());
+        }
+        final ByteBuffer exact = ByteBuffer.allocate(length + 3);
+        exact.position(3);
+        assertEquals(length, ENCODER.write(cards, exact));
+        assertFalse(exact.hasRemaining());
+    }
+
+    @Test
+    void writeEscapedOverflow() {
+        final ByteBuffer buffer = ByteBuffer.allocate(JsonComponentEncoder.escapedLength("😀") - 1);
+        assertThrows(BufferOverflowException.class, () -> JsonComponentEncoder.writeEscaped("😀", buffer));
+    }
+
+    // endregion
+
+    // region Helpers
+
+    private static MultipleCardComponent cardWithText(String text) {
+        return new MultipleCardComponent(Collections.singletonList(new CardComponent(
+                Collections.singletonList(new SectionModule(new PlainTextElement(text), null, null)), Size.LG, Theme.PRIMARY)));
+    }
+
+    // the content of the text of the module at the index in the first card
+    @SuppressWarnings("unchecked")
+    private static String textOf(Object cards, int module) {
+        final Map<String, Object> card = (Map<String, Object>) ((List<Object>) cards).get(0);
+        final Map<String, Object> section = (Map<String, Object>) ((List<Object>) card.get("modules")).get(module);
+        return (String) ((Map<String, Object>) section.get("text")).get("content");
+    }
+
+    private static byte[] escape(String value) {
+        final ByteBuffer buffer = ByteBuffer.allocate(value.length() * 6);
+        JsonComponentEncoder.writeEscaped(value, buffer);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private static Map<String, Object> plainText(String content, boolean emoji) {
+        return object("type", "plain-text", "content", content, "emoji", emoji);
+    }
+
+    private static Map<String, Object> markdown(String content) {
+        return object("type", "kmarkdown", "content", content);
+    }
+
+    private static Map<String, Object> image(String src, String alt, String size, boolean circle) {
+        return object("type", "image", "src", src, "alt", alt, "size", size, "circle", circle);
+    }
+
+    // the null values are omitted, as the encoder does
+    private static Map<String, Object> object(Object... keyValues) {
+        final Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            if (keyValues[i + 1] != null) {
+                result.put((String) keyValues[i], keyValues[i + 1]);
+            }
+        }
+        return result;
+    }
+
+    private static String utf8(byte[] bytes) {
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes))
+                    .toString();
+        } catch (CharacterCodingException e) {
+            throw new AssertionError("Malformed UTF-8", e);
+        }
+    }
+
+    private static String codes(String value) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            builder.append(String.format("\\u%04x", (int) value.charAt(i)));
+        }
+        return builder.toString();
+    }
+
+    private static Object parse(byte[] json) {
+        return new JsonReader(utf8(json)).readDocument();
+    }
+
+    // endregion
+
+    // A strict JSON reader, so the tests don't depend on the leniency of a JSON library.
+    // Objects are read into LinkedHashMaps, arrays into ArrayLists, and numbers into Longs.
+    private static final class JsonReader {
+        private final CharBuffer in;
+
+        private JsonReader(String json) {
+            this.in = CharBuffer.wrap(json);
+        }
+
+        private Object readDocument() {
+            final Object result = readValue();
+            assertFalse(in.hasRemaining(), "trailing characters");
+            return result;
+        }
+
+        private Object readValue() {
+            final char c = peek();
+            switch (c) {
+                case '{':
+                    return readObject();
+                case '[':
+                    return readArray();
+                case '"':
+                    return readString();
+                case 't':
+                    expect("true");
+                    return true;
+                case 'f':
+                    expect("false");
+                    return false;
+                case 'n':
+                    expect("null");
+                    return null;
+                default:
+                    return readNumber();
+            }
+        }
+
+        private Map<String, Object> readObject() {
+            expect("{");
+            final Map<String, Object> result = new LinkedHashMap<>();
+            if (peek() == '}') {
+                in.get();
+                return result;
+            }
+            do {
+                final String key = readString();
+                expect(":");
+                assertNull(result.put(key, readValue()), () -> "duplicate key " + key);
+            } while (next(',', '}'));
+            return result;
+        }
+
+        private List<Object> readArray() {
+            expect("[");
+            final List<Object> result = new ArrayList<>();
+            if (peek() == ']') {
+                in.get();
+                return result;
+            }
+            do {
+                result.add(readValue());
+            } while (next(',', ']'));
+            return result;
+        }
+
+        private String readString() {
+            expect("\"");
+            final StringBuilder builder = new StringBuilder();
+            while (true) {
+                final char c = in.get();
+                if (c == '"') {
+                    return builder.toString();
+                }
+                assertTrue(c >= 0x20, () -> "unescaped control character " + (int) c);
+                if (c != '\\') {
+                    builder.append(c);
+                    continue;
+                }
+                final char escaped = in.get();
+                switch (escaped) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        builder.append(escaped);
+                        break;
+                    case 'b':
+                        builder.append('\b');
+                        break;
+                    case 'f':
+                        builder.append('\f');
+                        break;
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    case 't':
+                        builder.append('\t');
+                        break;
+                    case 'u':
+                        final char[] hex = new char[4];
+                        in.get(hex);
+                        builder.append((char) Integer.parseInt(new String(hex), 16));
+                        break;
+                    default:
+                        fail("invalid escape \\" + escaped);
+                }
+            }
+        }
+
+        private Long readNumber() {
+            final int start = in.position();
+            if (in.hasRemaining() && in.get(in.position()) == '-') {
+                in.get();
+            }
+            while (in.hasRemaining() && Character.isDigit(in.get(in.position()))) {
+                in.get();
+            }
+            final String number = in.duplicate().position(start).limit(in.position()).toString();
+            assertTrue(number.matches("-?(0|[1-9][0-9]*)"), () -> "invalid number " + number);
+            return Long.parseLong(number);
+        }
+
+        // consumes the separator or the end, returns true for the separator
+        private boolean next(char separator, char end) {
+            final char c = in.get();
+            if (c == separator) {
+                return true;
+            }
+            assertEquals(end, c);
+            return false;
+        }
+
+        private char peek() {
+            assertTrue(in.hasRemaining(), "unexpected end");
+            return in.get(in.position());
+        }
+
+        private void expect(String token) {
+            for (int i = 0; i < token.length(); i++) {
+                assertEquals(token.charAt(i), in.get(), () -> "expected " + token);
+            }
+        }
+    }
+}
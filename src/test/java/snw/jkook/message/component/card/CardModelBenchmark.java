@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package snw.jkook.message.component.card;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import snw.jkook.entity.abilities.Accessory;
+import snw.jkook.message.component.card.element.ButtonElement;
+import snw.jkook.message.component.card.element.ImageElement;
+import snw.jkook.message.component.card.element.MarkdownElement;
+import snw.jkook.message.component.card.element.PlainTextElement;
+import snw.jkook.message.component.card.module.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of building and traversing a card with 50 modules. <p>
+ * The LinkedList variants copy the modules the way the card model did before it was backed by arrays. <p>
+ * Run the {@link #main(String[])} method from the test classpath, e.g.
+ *  <code>mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=snw.jkook.message.component.card.CardModelBenchmark</code>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardModelBenchmark {
+    private static final int MODULES = 50;
+
+    private BaseModule[] modules;
+    private MultipleCardComponent component;
+    private List<BaseModule> linkedModules;
+
+    @Setup
+    public void setup() {
+        modules = new BaseModule[MODULES];
+        for (int i = 0; i < MODULES; i++) {
+            switch (i % 5) {
+                case 0:
+                    modules[i] = new HeaderModule(new PlainTextElement("Header " + i));
+                    break;
+                case 1:
+                    modules[i] = new SectionModule(new MarkdownElement("**Section** " + i),
+                            new ImageElement("https://img/" + i + ".png", null, true), Accessory.Mode.LEFT);
+                    break;
+                case 2:
+                    modules[i] = new ContextModule(Arrays.asList(new PlainTextElement("ctx " + i), new MarkdownElement("*" + i + "*")));
+                    break;
+                case 3:
+                    modules[i] = new ActionGroupModule(Collections.singletonList(
+                            new ButtonElement(Theme.PRIMARY, "v" + i, ButtonElement.EventType.RETURN_VAL, new PlainTextElement("Click"))));
+                    break;
+                default:
+                    modules[i] = DividerModule.INSTANCE;
+            }
+        }
+        component = build();
+        linkedModules = Collections.unmodifiableList(new LinkedList<>(Arrays.asList(modules)));
+    }
+
+    @Benchmark
+    public MultipleCardComponent build() {
+        final CardBuilder builder = new CardBuilder().setTheme(Theme.INFO).setSize(Size.LG);
+        for (BaseModule module : modules) {
+            builder.addModule(module);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public List<BaseModule> buildLinkedList() {
+        // the copy made by the former CardBuilder, CardComponent and MultipleCardComponent
+        final List<BaseModule> builder = new LinkedList<>();
+        Collections.addAll(builder, modules);
+        final List<BaseModule> card = Collections.unmodifiableList(new LinkedList<>(builder));
+        return Collections.unmodifiableList(new LinkedList<>(card));
+    }
+
+    @Benchmark
+    public void traverseIndexed(Blackhole blackhole) {
+        final List<CardComponent> cards = component.getComponents();
+        for (int i = 0; i < cards.size(); i++) {
+            final List<BaseModule> cardModules = cards.get(i).getModules();
+            for (int j = 0; j < cardModules.size(); j++) {
+                blackhole.consume(cardModules.get(j));
+            }
+        }
+    }
+
+    @Benchmark
+    public void traverseIterator(Blackhole blackhole) {
+        for (CardComponent card : component.getComponents()) {
+            for (BaseModule module : card.getModules()) {
+                blackhole.consume(module);
+            }
+        }
+    }
+
+    @Benchmark
+    public void traverseLinkedListIndexed(Blackhole blackhole) {
+        for (int i = 0; i < linkedModules.size(); i++) {
+            blackhole.consume(linkedModules.get(i));
+        }
+    }
+
+    @Benchmark
+    public void buildAndTraverse(Blackhole blackhole) {
+        for (CardComponent card : build().getComponents()) {
+            final List<BaseModule> cardModules = card.getModules();
+            for (int i = 0; i < cardModules.size(); i++) {
+                blackhole.consume(cardModules.get(i));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CardModelBenchmark.class.getSimpleName()).build()).run();
+    }
+}
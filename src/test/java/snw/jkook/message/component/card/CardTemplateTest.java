@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package snw.jkook.message.component.card;
+
+import org.junit.jupiter.api.Test;
+import snw.jkook.entity.abilities.Accessory;
+import snw.jkook.message.component.FileComponent;
+import snw.jkook.message.component.JsonComponentEncoder;
+import snw.jkook.message.component.card.element.ButtonElement;
+import snw.jkook.message.component.card.element.ImageElement;
+import snw.jkook.message.component.card.element.MarkdownElement;
+import snw.jkook.message.component.card.element.PlainTextElement;
+import snw.jkook.message.component.card.module.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardTemplateTest {
+
+    @Test
+    void slotsInTheSupportedElementsAreBound() {
+        final CardTemplate template = compile(
+                new HeaderModule(new PlainTextElement("Hi " + CardTemplate.slot("name"))),
+                new SectionModule(new MarkdownElement("**" + CardTemplate.slot("name") + "**"),
+                        new ImageElement(CardTemplate.slot("avatar"), null, true), Accessory.Mode.LEFT),
+                new ActionGroupModule(Collections.singletonList(
+                        new ButtonElement(Theme.PRIMARY, CardTemplate.slot("id"), new PlainTextElement("Open")))));
+        assertEquals(Arrays.asList("name", "avatar", "id"), template.getSlots());
+
+        final CardTemplate.Binding binding = template.newBinding()
+                .set("name", "Alice").set("avatar", "https://img/a.png").set("id", 42);
+        final ByteBuffer out = ByteBuffer.allocate(template.encodedLength(binding));
+        template.encode(binding, out);
+        final String json = new String(out.array(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"Hi Alice\""), json);
+        assertTrue(json.contains("\"**Alice**\""), json);
+        assertTrue(json.contains("\"https://img/a.png\""), json);
+        assertTrue(json.contains("\"42\""), json);
+        assertFalse(json.contains("${"), json);
+    }
+
+    @Test
+    void slotOnlyInAnUnsupportedPlaceIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> compile(
+                new FileModule(FileComponent.Type.FILE, "https://file/1", CardTemplate.slot("title"), null)));
+    }
+
+    @Test
+    void slotAlsoInAnUnsupportedPlaceIsRejected() {
+        // the occurrence in the markdown must not hide the one in the title of the file
+        assertThrows(IllegalArgumentException.class, () -> compile(
+                new SectionModule(new MarkdownElement(CardTemplate.slot("name")), null, null),
+                new FileModule(FileComponent.Type.FILE, "https://file/1", CardTemplate.slot("name"), null)));
+        assertThrows(IllegalArgumentException.class, () -> compile(
+                new SectionModule(new MarkdownElement(CardTemplate.slot("name")), null, null),
+                new InviteModule(CardTemplate.slot("name"))));
+    }
+
+    private static CardTemplate compile(BaseModule... modules) {
+        final CardComponent card = new CardComponent(Arrays.asList(modules), Size.LG, Theme.INFO);
+        return CardTemplate.compile(new MultipleCardComponent(Collections.singletonList(card)), JsonComponentEncoder.INSTANCE);
+    }
+}
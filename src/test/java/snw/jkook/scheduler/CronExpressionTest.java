@@ -0,0 +1,139 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package snw.jkook.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CronExpressionTest {
+
+    // region Day of month and day of week
+
+    @Test
+    void bothDayFieldsRestrictedMatchEitherOfThem() {
+        // the 13th of March 2026 is a Friday, the Mondays are the 2nd, 9th and 16th
+        final CronExpression cron = parse("0 0 13 * MON");
+        assertEquals("2026-03-02T00:00:00Z", next(cron, "2026-03-01T00:00:00Z"));
+        assertEquals("2026-03-09T00:00:00Z", next(cron, "2026-03-02T00:00:00Z"));
+        assertEquals("2026-03-13T00:00:00Z", next(cron, "2026-03-09T00:00:00Z"));
+        assertEquals("2026-03-16T00:00:00Z", next(cron, "2026-03-13T00:00:00Z"));
+    }
+
+    @Test
+    void onlyTheRestrictedDayFieldMatters() {
+        assertEquals("2026-03-13T00:00:00Z", next(parse("0 0 13 * *"), "2026-03-01T00:00:00Z"));
+        assertEquals("2026-04-13T00:00:00Z", next(parse("0 0 13 * *"), "2026-03-13T00:00:00Z"));
+        assertEquals("2026-03-02T00:00:00Z", next(parse("0 0 * * MON"), "2026-03-01T00:00:00Z"));
+        assertEquals("2026-03-09T00:00:00Z", next(parse("0 0 * * MON"), "2026-03-02T00:00:00Z"));
+    }
+
+    @Test
+    void questionMarkIsNotARestriction() {
+        assertEquals("2026-03-02T00:00:00Z", next(parse("0 0 ? * MON"), "2026-03-01T00:00:00Z"));
+        assertEquals("2026-03-13T00:00:00Z", next(parse("0 0 13 * ?"), "2026-03-01T00:00:00Z"));
+    }
+
+    @Test
+    void sevenIsSunday() {
+        // the 1st of March 2026 is a Sunday
+        assertEquals(parse("0 0 * * 0"), parse("0 0 * * 7"));
+        assertEquals(parse("0 0 * * 0"), parse("0 0 * * SUN"));
+        assertEquals("2026-03-08T00:00:00Z", next(parse("0 0 * * 7"), "2026-03-01T00:00:00Z"));
+    }
+
+    @Test
+    void weekdayRangeWithHourStep() {
+        // the 19th of October 2026 is a Monday
+        final CronExpression cron = parse("0 9-17/4 * * MON-FRI");
+        assertEquals("2026-10-20T09:00:00Z", next(cron, "2026-10-19T17:00:00Z"));
+        assertEquals("2026-10-20T13:00:00Z", next(cron, "2026-10-20T09:00:00Z"));
+        assertEquals("2026-10-26T09:00:00Z", next(cron, "2026-10-23T17:00:00Z"));
+    }
+
+    // endregion
+
+    // region Calendar edges
+
+    @Test
+    void leapDayIsFound() {
+        assertEquals("2028-02-29T00:00:00Z", next(parse("0 0 29 2 *"), "2026-03-01T00:00:00Z"));
+    }
+
+    @Test
+    void impossibleDateNeverFires() {
+        assertEquals(-1, parse("0 0 30 2 *").nextFireTime(millis("2026-01-01T00:00:00Z")));
+        assertNull(parse("0 0 31 4,6,9,11 *").next(Instant.parse("2026-01-01T00:00:00Z").atZone(ZoneOffset.UTC)));
+    }
+
+    @Test
+    void yearRollsOver() {
+        assertEquals("2027-01-01T00:00:00Z", next(parse("0 0 1 1 *"), "2026-12-31T23:59:59Z"));
+        assertEquals("2026-07-01T00:00:00Z", next(parse("0 0 1 JAN,jul *"), "2026-03-01T00:00:00Z"));
+    }
+
+    @Test
+    void nextIsStrictlyAfter() {
+        final CronExpression cron = parse("30 8 * * *");
+        assertEquals("2026-10-20T08:30:00Z", next(cron, "2026-10-19T08:30:00Z"));
+        assertEquals("2026-10-19T08:30:00Z", next(cron, "2026-10-19T08:29:59.999Z"));
+    }
+
+    @Test
+    void secondsAndSteps() {
+        final CronExpression everyTwentySeconds = parse("*/20 * * * * *");
+        assertEquals("2026-10-19T10:00:20Z", next(everyTwentySeconds, "2026-10-19T10:00:05Z"));
+        assertEquals("2026-10-19T10:01:00Z", next(everyTwentySeconds, "2026-10-19T10:00:40Z"));
+        // "5/10" is from 5 to the end, every 10
+        assertEquals("2026-10-19T10:05:00Z", next(parse("5/10 * * * *"), "2026-10-19T10:00:00Z"));
+        assertEquals("2026-10-19T11:05:00Z", next(parse("5/10 * * * *"), "2026-10-19T10:55:00Z"));
+    }
+
+    @Test
+    void timeZoneIsApplied() {
+        final CronExpression cron = CronExpression.parse("0 9 * * *", ZoneId.of("Asia/Shanghai"));
+        assertEquals("2026-10-19T01:00:00Z", next(cron, "2026-10-19T00:00:00Z"));
+    }
+
+    // endregion
+
+    @Test
+    void invalidExpressionsAreRejected() {
+        for (String expression : new String[]{
+                "* * * *", "* * * * * * *", "60 * * * *", "0 24 * * *", "0 0 0 * *", "0 0 5-1 * *",
+                "0 0 * FOO *", "0 0 * * 8", "*/0 * * * *", "1,,2 * * * *"
+        }) {
+            assertThrows(IllegalArgumentException.class, () -> parse(expression), expression);
+        }
+    }
+
+    private static CronExpression parse(String expression) {
+        return CronExpression.parse(expression, ZoneOffset.UTC);
+    }
+
+    private static String next(CronExpression cron, String after) {
+        final long next = cron.nextFireTime(millis(after));
+        return next == -1 ? null : Instant.ofEpochMilli(next).toString();
+    }
+
+    private static long millis(String time) {
+        return Instant.parse(time).toEpochMilli();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.scheduler;
+
+import org.junit.jupiter.api.Test;
+import snw.jkook.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchedulerTest {
+
+    @Test
+    void cronSkipsTheMissedFireTimes() throws InterruptedException {
+        final RecordingScheduler scheduler = new RecordingScheduler();
+        final int[] runs = {0};
+        final Task task = scheduler.runTaskAt(null, () -> runs[0]++, CronExpression.parse("* * * * * *"));
+        assertEquals(1, scheduler.delays.size());
+        assertTrue(scheduler.delays.get(0) <= 1000);
+
+        Thread.sleep(2100); // a pause longer than two periods
+        scheduler.runNext();
+        assertEquals(1, runs[0]);
+        // without skipping, the next delay is 0 until the missed times are caught up (0 is also possible on a second boundary)
+        assertTrue(scheduler.delays.get(1) > 0 || System.currentTimeMillis() % 1000 < 5, "the missed times must not run back-to-back");
+        assertTrue(scheduler.delays.get(1) <= 1000);
+        assertFalse(task.isCancelled());
+    }
+
+    @Test
+    void cronThatNeverFiresIsCancelled() {
+        final RecordingScheduler scheduler = new RecordingScheduler();
+        final Task task = scheduler.runTaskAt(null, () -> {
+        }, CronExpression.parse("0 0 30 2 *"));
+        assertTrue(task.isCancelled());
+        assertEquals(-1, task.getTaskId());
+        assertTrue(scheduler.delays.isEmpty());
+    }
+
+    @Test
+    void fixedDelayChainsTheExecutions() {
+        final RecordingScheduler scheduler = new RecordingScheduler();
+        final int[] runs = {0};
+        final Task task = scheduler.runTaskWithFixedDelay(null, () -> runs[0]++, 10, 50);
+        scheduler.runNext();
+        scheduler.runNext();
+        assertEquals(2, runs[0]);
+        assertEquals(10L, scheduler.delays.get(0));
+        assertEquals(50L, scheduler.delays.get(1));
+        assertEquals(50L, scheduler.delays.get(2));
+        task.cancel();
+        scheduler.runNext();
+        assertEquals(2, runs[0]);
+        assertTrue(task.isCancelled());
+    }
+
+    // runs nothing by itself, the tests run the scheduled tasks with runNext()
+    private static final class RecordingScheduler implements Scheduler {
+        private final List<Long> delays = new ArrayList<>();
+        private final List<Runnable> tasks = new ArrayList<>();
+        private final List<SimpleTask> handles = new ArrayList<>();
+
+        void runNext() {
+            final SimpleTask handle = handles.get(handles.size() - 1);
+            if (!handle.cancelled) {
+                handle.executed = true;
+                tasks.get(tasks.size() - 1).run();
+            }
+        }
+
+        @Override
+        public void runTask(Runnable runnable) {
+            runnable.run();
+        }
+
+        @Override
+        public Task runTaskLater(Plugin plugin, Runnable runnable, long delay) {
+            delays.add(delay);
+            tasks.add(runnable);
+            final SimpleTask handle = new SimpleTask(plugin, handles.size() + 1);
+            handles.add(handle);
+            return handle;
+        }
+
+        @Override
+        public Task runTaskTimer(Plugin plugin, Runnable runnable, long delay, long period) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isScheduled(int taskId) {
+            return taskId > 0 && taskId <= handles.size() && !handles.get(taskId - 1).cancelled;
+        }
+
+        @Override
+        public void cancelTask(int taskId) {
+            if (taskId > 0 && taskId <= handles.size()) {
+                handles.get(taskId - 1).cancelled = true;
+            }
+        }
+
+        @Override
+        public void cancelTasks(Plugin plugin) {
+            handles.forEach(IT -> IT.cancelled = true);
+        }
+    }
+
+    private static final class SimpleTask implements Task {
+        private final Plugin plugin;
+        private final int id;
+        private boolean cancelled;
+        private boolean executed;
+
+        private SimpleTask(Plugin plugin, int id) {
+            this.plugin = plugin;
+            this.id = id;
+        }
+
+        @Override
+        public Plugin getPlugin() {
+            return plugin;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public int getTaskId() {
+            return id;
+        }
+    }
+}
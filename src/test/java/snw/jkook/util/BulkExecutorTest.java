@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package snw.jkook.util;
+
+import org.junit.jupiter.api.Test;
+import snw.jkook.JKook;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkExecutorTest {
+
+    @Test
+    void defaultIsSharedAndUsedWithoutCore() {
+        assertSame(BulkExecutor.getDefault(), BulkExecutor.getDefault());
+        assertEquals(BulkExecutor.DEFAULT_PARALLELISM, BulkExecutor.getDefault().getParallelism());
+        if (JKook.getCore() == null) {
+            assertSame(BulkExecutor.getDefault(), JKook.getBulkExecutor());
+        }
+    }
+
+    @Test
+    void defaultBoundsTheParallelism() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        final List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            items.add(i);
+        }
+        final Map<Integer, Integer> result = BulkExecutor.getDefault().map(items, item -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return item * 2;
+        }, null).get(10, TimeUnit.SECONDS);
+        assertEquals(items, new ArrayList<>(result.keySet()));
+        assertEquals(78, result.get(39));
+        assertTrue(peak.get() <= BulkExecutor.DEFAULT_PARALLELISM, "peak " + peak.get());
+    }
+
+    @Test
+    void nestedOperationsDoNotDeadlock() throws Exception {
+        final BulkExecutor executor = BulkExecutor.getDefault();
+        final Map<Integer, Integer> result = executor.map(Arrays.asList(1, 2, 3, 4, 5, 6), outer ->
+                executor.map(Arrays.asList(1, 2, 3, 4, 5), inner -> outer * inner, null).join()
+                        .values().stream().mapToInt(Integer::intValue).sum(), null
+        ).get(10, TimeUnit.SECONDS);
+        assertEquals(15 * 6, result.get(6));
+    }
+
+    @Test
+    void failuresAreRecorded() throws Exception {
+        final BulkResult<Integer> result = new BulkExecutor(Runnable::run, 2).execute(Arrays.asList(1, 2, 3), item -> {
+            if (item == 2) {
+                throw new IllegalStateException("two");
+            }
+        }, null).get();
+        assertEquals(Arrays.asList(1, 3), result.getSucceeded());
+        assertEquals("two", result.getFailures().get(2).getMessage());
+        assertEquals(1, result.getFailureCount());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 - 2023 JKook contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package snw.jkook.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Long2ObjectMapTest {
+    private static final int CAPACITY = 8; // of the maps created by newMap()
+
+    @Test
+    void removalShiftsTheCollidingEntriesBack() {
+        final long[] atLast = keysWithHome(CAPACITY - 1, 3);
+        final long atFirst = keysWithHome(0, 1)[0];
+        final Long2ObjectMap<String> map = newMap();
+        // atLast[0] in slot 7, the others wrap around into slots 0 and 1, atFirst is pushed into slot 2
+        for (long key : atLast) {
+            map.put(key, "v" + key);
+        }
+        map.put(atFirst, "first");
+
+        assertEquals("v" + atLast[0], map.remove(atLast[0]));
+        assertNull(map.get(atLast[0]));
+        assertEquals("v" + atLast[1], map.get(atLast[1]));
+        assertEquals("v" + atLast[2], map.get(atLast[2]));
+        assertEquals("first", map.get(atFirst));
+
+        assertEquals("v" + atLast[2], map.remove(atLast[2]));
+        assertEquals("v" + atLast[1], map.get(atLast[1]));
+        assertEquals("first", map.get(atFirst));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void removalDoesNotMoveEntriesBeforeTheirHome() {
+        final long atLast = keysWithHome(CAPACITY - 1, 1)[0];
+        final long atFirst = keysWithHome(0, 1)[0];
+        final Long2ObjectMap<String> map = newMap();
+        map.put(atLast, "last");
+        map.put(atFirst, "first"); // in its home slot 0, right after slot 7
+        map.remove(atLast);
+        assertEquals("first", map.get(atFirst));
+        map.put(atLast, "again");
+        assertEquals("again", map.get(atLast));
+        assertEquals("first", map.remove(atFirst));
+        assertEquals("again", map.get(atLast));
+    }
+
+    @Test
+    void removingAMissingKeyChangesNothing() {
+        final long[] keys = keysWithHome(3, 3);
+        final Long2ObjectMap<String> map = newMap();
+        map.put(keys[0], "a");
+        map.put(keys[1], "b");
+        assertNull(map.remove(keys[2])); // probes through the same chain
+        assertEquals(2, map.size());
+        assertEquals("a", map.get(keys[0]));
+        assertEquals("b", map.get(keys[1]));
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        final Random random = new Random(42);
+        final Long2ObjectMap<Long> map = new Long2ObjectMap<>();
+        final Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            // a small key range, so the keys collide and are removed and added again often
+            final long key = random.nextInt(512) - 256;
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        final Map<Long, Long> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+        assertEquals(new HashSet<>(expected.values()), new HashSet<>(map.values()));
+    }
+
+    @Test
+    void extremeKeys() {
+        final Long2ObjectMap<String> map = new Long2ObjectMap<>(2);
+        for (long key : new long[]{0, -1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 32}) {
+            assertNull(map.put(key, String.valueOf(key)));
+        }
+        assertEquals(5, map.size());
+        for (long key : new long[]{0, -1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 32}) {
+            assertEquals(String.valueOf(key), map.get(key));
+        }
+        assertNull(map.get(1));
+    }
+
+    @Test
+    void computeIfAbsentAndClear() {
+        final Long2ObjectMap<List<String>> map = new Long2ObjectMap<>();
+        map.computeIfAbsent(7, key -> new ArrayList<>()).add("a");
+        map.computeIfAbsent(7, key -> fail("computed twice")).add("b");
+        assertEquals(Arrays.asList("a", "b"), map.get(7));
+        assertEquals(Collections.emptyList(), map.getOrDefault(8, Collections.emptyList()));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(7));
+        map.put(7, new ArrayList<>());
+        assertTrue(map.containsKey(7));
+        assertThrows(IllegalArgumentException.class, () -> map.put(8, null));
+        assertThrows(IllegalArgumentException.class, () -> new Long2ObjectMap<>(-1));
+    }
+
+    // holds up to 4 entries without resizing
+    private static <V> Long2ObjectMap<V> newMap() {
+        return new Long2ObjectMap<>(4);
+    }
+
+    // finds the keys whose home slot in the maps created by newMap() is the provided slot, the hash is the same as Long2ObjectMap
+    private static long[] keysWithHome(int slot, int count) {
+        final long[] result = new long[count];
+        int found = 0;
+        for (long key = 1; found < count; key++) {
+            final long h = key * 0x9E3779B97F4A7C15L;
+            if (((int) (h ^ (h >>> 32)) & (CAPACITY - 1)) == slot) {
+                result[found++] = key;
+            }
+        }
+        return result;
+    }
+}